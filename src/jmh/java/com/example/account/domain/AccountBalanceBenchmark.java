@@ -0,0 +1,44 @@
+package com.example.account.domain;
+
+import com.example.account.type.AccountStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account 잔액 변경(사용/취소) 벤치마크
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountBalanceBenchmark {
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = Account.builder()
+                .accountNumber("1234567890")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(Long.MAX_VALUE / 2)
+                .build();
+    }
+
+    @Benchmark
+    public Long useBalance() {
+        account.useBalance(1000L);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long cancelBalance() {
+        account.cancelBalance(1000L);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long useAndCancelBalance() {
+        account.useBalance(1000L);
+        account.cancelBalance(1000L);
+        return account.getBalance();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.type.AccountStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.USE;
+
+/**
+ * GET /account/{id}, GET /transaction/{id} 응답 직렬화 벤치마크
+ * 엔티티를 리플렉션으로 직렬화하던 예전 방식과 AccountDetail / QueryTransactionResponse 의 serializer 를 비교한다.
+ * 응답당 할당량은 -PjmhProfilers=gc 의 gc.alloc.rate.norm 으로 보고, 응답 크기는 setUp 에서 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountSerializationBenchmark {
+    private ObjectWriter entityWriter;
+    private ObjectWriter detailWriter;
+    private ObjectWriter transactionWriter;
+    private Account account;
+    private QueryTransactionResponse transaction;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        entityWriter = objectMapper.writerFor(Account.class);
+        detailWriter = objectMapper.writerFor(AccountDetail.class);
+        transactionWriter = objectMapper.writerFor(QueryTransactionResponse.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        account = Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder()
+                        .id(1L)
+                        .name("Pororo")
+                        .accountCount(3)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .accountNumber("1234567890")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        transaction = QueryTransactionResponse.builder()
+                .accountNumber("1234567890")
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("0123456789abcdef0123456789abcdef")
+                .amount(1000L)
+                .transactedAt(now)
+                .build();
+
+        System.out.printf("%nbytes/response entity=%d detail=%d transaction=%d%n",
+                entityWriter.writeValueAsBytes(account).length,
+                detailWriter.writeValueAsBytes(AccountDetail.fromEntity(account)).length,
+                transactionWriter.writeValueAsBytes(transaction).length);
+    }
+
+    @Benchmark
+    public byte[] entity() throws IOException {
+        return entityWriter.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] detail() throws IOException {
+        return detailWriter.writeValueAsBytes(AccountDetail.fromEntity(account));
+    }
+
+    @Benchmark
+    public byte[] transaction() throws IOException {
+        return transactionWriter.writeValueAsBytes(transaction);
+    }
+}
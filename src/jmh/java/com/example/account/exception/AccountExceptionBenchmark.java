@@ -0,0 +1,94 @@
+package com.example.account.exception;
+
+import com.example.account.dto.ErrorResponse;
+import com.example.account.type.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거절 경로(예외 생성 -> throw -> GlobalExceptionHandler 응답) 비용 비교
+ * 할당량은 gc 프로파일러로 확인한다.
+ * ./gradlew jmh -PjmhIncludes=AccountExceptionBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountExceptionBenchmark {
+    /**
+     * 컨트롤러 ~ 서비스 사이의 프록시, AOP 호출 깊이를 흉내낸다.
+     */
+    @Param({"20", "120"})
+    public int depth;
+
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+    }
+
+    @Benchmark
+    public ErrorCode throwStackless() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (AccountException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Benchmark
+    public ErrorCode throwWithStackTrace() {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (StackTraceAccountException e) {
+            return e.errorCode;
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse handleCached() {
+        return GlobalExceptionHandler.errorResponse(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                ErrorCode.AMOUNT_EXCEED_BALANCE.getDescription());
+    }
+
+    @Benchmark
+    public ErrorResponse handleAllocating() {
+        return new ErrorResponse(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                ErrorCode.AMOUNT_EXCEED_BALANCE.getDescription());
+    }
+
+    @Benchmark
+    public ErrorResponse rejectionPath() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (AccountException e) {
+            return handler.handleAccountException(e);
+        }
+    }
+
+    private static void throwAt(int depth, boolean stackless) {
+        if (depth > 0) {
+            throwAt(depth - 1, stackless);
+            return;
+        }
+        if (stackless) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        throw new StackTraceAccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+    }
+
+    /**
+     * 변경 전 AccountException 과 같이 스택 트레이스를 채우는 예외
+     */
+    static class StackTraceAccountException extends RuntimeException {
+        private final ErrorCode errorCode;
+
+        StackTraceAccountException(ErrorCode errorCode) {
+            this.errorCode = errorCode;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.account.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * embedded Redis 를 대상으로 한 LockService lock/unlock 벤치마크
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockServiceBenchmark {
+    private static final int REDIS_PORT = 16379;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private LockService lockService;
+
+    @Setup
+    public void setUp() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+        lockService = new LockService(new RedisLockRing(Map.of("127.0.0.1:" + REDIS_PORT, redissonClient)),
+                new RedisCircuitBreaker(50, 20, 0.5, 0.5, 100, 5000, 3));
+    }
+
+    @TearDown
+    public void tearDown() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class AccountNumber {
+        private String accountNumber;
+
+        @Setup
+        public void setUp() {
+            accountNumber = String.valueOf(1_000_000_000L + Thread.currentThread().getId());
+        }
+    }
+
+    @Benchmark
+    public void lockAndUnlock(AccountNumber accountNumber) {
+        lockService.unlock(lockService.lock(accountNumber.accountNumber));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void lockAndUnlockDistinctAccounts(AccountNumber accountNumber) {
+        lockService.unlock(lockService.lock(accountNumber.accountNumber));
+    }
+}
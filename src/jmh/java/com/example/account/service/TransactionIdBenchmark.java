@@ -0,0 +1,25 @@
+package com.example.account.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saveAndGetTransaction 에서 사용하는 거래 ID 생성 벤치마크
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionIdBenchmark {
+
+    @Benchmark
+    public String generateTransactionId() {
+        return TransactionService.generateTransactionId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateTransactionIdContended() {
+        return TransactionService.generateTransactionId();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.account.service;
+
+import com.example.account.AccountApplication;
+import com.example.account.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 를 대상으로 한 TransactionService.useBalance 전체 경로 벤치마크
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionServiceBenchmark {
+    private static final long USER_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(AccountApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.data.redis.port=16380",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=WARN");
+
+        transactionService = context.getBean(TransactionService.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, Long.MAX_VALUE / 2)
+                .getAccountNumber();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance() {
+        return transactionService.useBalance(USER_ID, accountNumber, 10L);
+    }
+}
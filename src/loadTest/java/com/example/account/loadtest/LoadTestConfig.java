@@ -0,0 +1,85 @@
+package com.example.account.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정
+ * -Dload.* 시스템 프로퍼티로 전달한다.
+ */
+public class LoadTestConfig {
+    final String baseUrl;
+    final int threads;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int users;
+    final int accountsPerUser;
+    final double skew;
+    final Map<Operation, Integer> mix;
+    final String reportFile;
+    final String transactionPath;
+    final List<String> applicationArgs;
+
+    private LoadTestConfig() {
+        baseUrl = System.getProperty("load.baseUrl", "");
+        threads = Integer.getInteger("load.threads", 16);
+        warmupSeconds = Integer.getInteger("load.warmupSeconds", 5);
+        durationSeconds = Integer.getInteger("load.durationSeconds", 30);
+        users = Integer.getInteger("load.users", 50);
+        accountsPerUser = Integer.getInteger("load.accountsPerUser", 5);
+        skew = Double.parseDouble(System.getProperty("load.skew", "1.1"));
+        mix = parseMix(System.getProperty("load.mix", "create:1,use:6,cancel:2,query:3"));
+        reportFile = System.getProperty("load.reportFile", "build/reports/loadtest/report.json");
+        // mvc : /transaction/**, async : /async/transaction/**
+        transactionPath = "async".equalsIgnoreCase(System.getProperty("load.api", "mvc"))
+                ? "/async/transaction" : "/transaction";
+        applicationArgs = applicationArgs();
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    boolean embedded() {
+        return baseUrl.isBlank();
+    }
+
+    /**
+     * -Dload.app.account.transaction.use-delay-ms=0 처럼 load.app. 으로 시작하는 값은
+     * embedded 애플리케이션 인자로 넘긴다.
+     */
+    private static List<String> applicationArgs() {
+        List<String> args = new ArrayList<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("load.app.")) {
+                args.add("--" + name.substring("load.app.".length()) + "=" + System.getProperty(name));
+            }
+        }
+        return args;
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "baseUrl=" + (embedded() ? "(embedded)" : baseUrl)
+                + ", threads=" + threads
+                + ", warmup=" + warmupSeconds + "s"
+                + ", duration=" + durationSeconds + "s"
+                + ", users=" + users
+                + ", accountsPerUser=" + accountsPerUser
+                + ", skew=" + skew
+                + ", mix=" + mix
+                + ", transactionPath=" + transactionPath
+                + ", applicationArgs=" + applicationArgs;
+    }
+}
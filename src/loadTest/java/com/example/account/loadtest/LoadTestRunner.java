@@ -0,0 +1,316 @@
+package com.example.account.loadtest;
+
+import com.example.account.AccountApplication;
+import com.example.account.shard.ShardRouter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 계좌 API 부하 테스트
+ * 1. (embedded 모드) 애플리케이션을 embedded Redis, H2 와 함께 띄우고 사용자를 넣는다.
+ * 2. 계좌를 만들고 zipf 분포로 일부 계좌에 트래픽을 몰아준다.
+ * 3. create/use/cancel/query 를 설정한 비율로 보내고 처리량, p50/p99/p999, ErrorCode 별 건수를 출력한다.
+ *
+ * ./gradlew loadTest -Dload.threads=32 -Dload.durationSeconds=60 -Dload.mix=use:8,query:2
+ *
+ * 같은 스레드 수로 MVC 와 비동기 API 를 비교하려면 -Dload.api=mvc|async 로 각각 실행한다.
+ */
+public class LoadTestRunner {
+    private static final String OK = "OK";
+    private static final int RECENT_TRANSACTIONS = 1024;
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private final List<LoadAccount> accounts = new ArrayList<>();
+    private final BlockingQueue<UsedTransaction> cancelable = new ArrayBlockingQueue<>(10_000);
+    private final AtomicReferenceArray<String> recentTransactionIds = new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicLong recentCursor = new AtomicLong();
+
+    public LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Load test : " + config);
+
+        ConfigurableApplicationContext context = null;
+        LoadTestRunner runner = new LoadTestRunner(config);
+        try {
+            if (config.embedded()) {
+                List<String> applicationArgs = new ArrayList<>(List.of(
+                        "--server.port=0",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN"));
+                applicationArgs.addAll(config.applicationArgs);
+                context = SpringApplication.run(AccountApplication.class,
+                        applicationArgs.toArray(new String[0]));
+                runner.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                runner.insertUsers(context.getBean(JdbcTemplate.class), context.getBean(ShardRouter.class));
+            } else {
+                runner.baseUrl = config.baseUrl;
+            }
+            runner.createAccounts();
+            runner.run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private long firstUserId() {
+        return Long.getLong("load.firstUserId", config.embedded() ? 1000L : 1L);
+    }
+
+    // account_user 는 모든 샤드에 복제되는 테이블이라 샤드마다 넣는다.
+    private void insertUsers(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        shardRouter.forEachShard(() -> {
+            for (int i = 0; i < config.users; i++) {
+                jdbcTemplate.update(
+                        "insert into account_user(id,name,created_at,updated_at) values (?,?,now(),now())",
+                        firstUserId() + i, "load-" + i);
+            }
+        });
+    }
+
+    private void createAccounts() {
+        for (int i = 0; i < config.users; i++) {
+            long userId = firstUserId() + i;
+            for (int j = 0; j < config.accountsPerUser; j++) {
+                JsonNode response = post("/account", Map.of("userId", userId, "initialBalance", 1_000_000_000L));
+                if (response.has("accountNumber")) {
+                    accounts.add(new LoadAccount(userId, response.get("accountNumber").asText()));
+                }
+            }
+        }
+        if (accounts.isEmpty()) {
+            throw new IllegalStateException("No account could be created for the load test.");
+        }
+        // 핫 계좌가 한 사용자에게 몰리지 않도록 섞는다.
+        Collections.shuffle(accounts, new Random(42));
+        System.out.println("Created " + accounts.size() + " accounts.");
+    }
+
+    private void run() throws Exception {
+        ZipfSampler sampler = new ZipfSampler(accounts.size(), config.skew);
+        long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads);
+        List<Future<WorkerStats>> futures = new ArrayList<>();
+        for (int i = 0; i < config.threads; i++) {
+            futures.add(executor.submit(() -> work(sampler, measureStart, measureEnd)));
+        }
+
+        WorkerStats total = new WorkerStats();
+        for (Future<WorkerStats> future : futures) {
+            total.merge(future.get());
+        }
+        executor.shutdown();
+
+        report(total);
+    }
+
+    private WorkerStats work(ZipfSampler sampler, long measureStart, long measureEnd) {
+        WorkerStats stats = new WorkerStats();
+        WorkerStats warmup = new WorkerStats();
+        int[] cumulativeWeights = cumulativeWeights();
+        Operation[] operations = config.mix.keySet().toArray(new Operation[0]);
+
+        long now;
+        while ((now = System.nanoTime()) < measureEnd) {
+            Operation operation = pick(operations, cumulativeWeights);
+            long start = System.nanoTime();
+            String outcome;
+            try {
+                outcome = execute(operation, accounts.get(sampler.next()));
+            } catch (Exception e) {
+                outcome = e.getClass().getSimpleName();
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            (now < measureStart ? warmup : stats).record(operation, outcome, micros);
+        }
+        return stats;
+    }
+
+    private int[] cumulativeWeights() {
+        int[] weights = new int[config.mix.size()];
+        int sum = 0;
+        int i = 0;
+        for (int weight : config.mix.values()) {
+            sum += weight;
+            weights[i++] = sum;
+        }
+        return weights;
+    }
+
+    private static Operation pick(Operation[] operations, int[] cumulativeWeights) {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String execute(Operation operation, LoadAccount account) {
+        switch (operation) {
+            case CREATE:
+                return outcome(post("/account", Map.of(
+                        "userId", account.userId,
+                        "initialBalance", 10_000L)));
+            case USE: {
+                long amount = ThreadLocalRandom.current().nextLong(10, 1000);
+                JsonNode response = post(config.transactionPath + "/use", Map.of(
+                        "userId", account.userId,
+                        "accountNumber", account.accountNumber,
+                        "amount", amount));
+                if (response.has("transactionId") && "S".equals(response.path("transactionResultType").asText())) {
+                    String transactionId = response.get("transactionId").asText();
+                    cancelable.offer(new UsedTransaction(transactionId, account.accountNumber, amount));
+                    recentTransactionIds.set((int) (recentCursor.getAndIncrement() % RECENT_TRANSACTIONS), transactionId);
+                }
+                return outcome(response);
+            }
+            case CANCEL: {
+                UsedTransaction used = cancelable.poll();
+                if (used == null) {
+                    return "NO_CANCELABLE_TRANSACTION";
+                }
+                return outcome(post(config.transactionPath + "/cancel", Map.of(
+                        "transactionId", used.transactionId,
+                        "accountNumber", used.accountNumber,
+                        "amount", used.amount)));
+            }
+            case QUERY: {
+                long cursor = recentCursor.get();
+                if (cursor == 0) {
+                    return "NO_TRANSACTION_TO_QUERY";
+                }
+                String transactionId = recentTransactionIds.get(
+                        (int) (ThreadLocalRandom.current().nextLong(Math.min(cursor, RECENT_TRANSACTIONS))));
+                return outcome(get(config.transactionPath + "/" + transactionId));
+            }
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+    }
+
+    private static String outcome(JsonNode response) {
+        if (response.has("errorCode")) {
+            return response.get("errorCode").asText();
+        }
+        return OK;
+    }
+
+    private JsonNode post(String path, Map<String, Object> body) {
+        try {
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode get(String path) {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private JsonNode send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return objectMapper.createObjectNode().put("errorCode", "HTTP_" + response.statusCode());
+            }
+            return objectMapper.readTree(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void report(WorkerStats total) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.toString());
+
+        System.out.printf("%n%-8s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Map.Entry<Operation, LatencyHistogram> entry : total.latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            double throughput = histogram.getTotalCount() / (double) config.durationSeconds;
+            System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(), histogram.getTotalCount(), throughput,
+                    histogram.percentile(50) / 1000.0, histogram.percentile(99) / 1000.0,
+                    histogram.percentile(99.9) / 1000.0, histogram.getMax() / 1000.0);
+
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("count", histogram.getTotalCount());
+            operation.put("throughput", throughput);
+            operation.put("p50Micros", histogram.percentile(50));
+            operation.put("p99Micros", histogram.percentile(99));
+            operation.put("p999Micros", histogram.percentile(99.9));
+            operation.put("maxMicros", histogram.getMax());
+            operation.put("outcomes", total.outcomes.getOrDefault(entry.getKey(), Map.of()));
+            report.put(entry.getKey().name(), operation);
+        }
+
+        System.out.println();
+        total.outcomes.forEach((operation, outcomes) ->
+                outcomes.forEach((outcome, count) ->
+                        System.out.printf("%-8s %-32s %10d%n", operation, outcome, count)));
+
+        File file = new File(config.reportFile);
+        file.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+    }
+
+    private static class WorkerStats {
+        private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Map<String, Long>> outcomes = new EnumMap<>(Operation.class);
+
+        void record(Operation operation, String outcome, long micros) {
+            latencies.computeIfAbsent(operation, o -> new LatencyHistogram()).record(micros);
+            outcomes.computeIfAbsent(operation, o -> new TreeMap<>()).merge(outcome, 1L, Long::sum);
+        }
+
+        void merge(WorkerStats other) {
+            other.latencies.forEach((operation, histogram) ->
+                    latencies.computeIfAbsent(operation, o -> new LatencyHistogram()).merge(histogram));
+            other.outcomes.forEach((operation, counts) ->
+                    counts.forEach((outcome, count) ->
+                            outcomes.computeIfAbsent(operation, o -> new TreeMap<>()).merge(outcome, count, Long::sum)));
+        }
+    }
+
+    private record LoadAccount(long userId, String accountNumber) {
+    }
+
+    private record UsedTransaction(String transactionId, String accountNumber, long amount) {
+    }
+}
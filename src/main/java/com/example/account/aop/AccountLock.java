@@ -7,5 +7,15 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default 5000L;
+    /** 락 대기 시간 (ms) */
+    long tryLockTime() default 1000L;
+
+    /** 락 임대 시간 (ms). 이 시간이 지나면 Redis 에서 락이 자동으로 풀린다. */
+    long leaseTime() default 5000L;
+
+    /**
+     * true 면 이 라우트에서 관측된 락 보유 시간으로 대기/임대 시간을 정한다.
+     * 위의 두 값은 표본이 모이기 전까지의 기본값으로 쓰인다.
+     */
+    boolean adaptive() default false;
 }
@@ -1,5 +1,22 @@
 package com.example.account.aop;
 
+import java.util.List;
+
 public interface AccountLockIdInterface {
     String getAccountNumber();
+
+    /**
+     * 요청한 사용자. 사용자별 요청 제한(@RateLimit)에 쓰이며, 요청에 사용자가 없으면 null 이다.
+     */
+    default Long getUserId() {
+        return null;
+    }
+
+    /**
+     * 락을 걸어야 하는 계좌번호 목록. 기본은 요청 계좌 하나이며,
+     * 이체처럼 여러 계좌를 건드리는 요청은 관련 계좌를 모두 돌려준다.
+     */
+    default List<String> lockAccountNumbers() {
+        return List.of(getAccountNumber());
+    }
 }
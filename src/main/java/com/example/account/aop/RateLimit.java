@@ -0,0 +1,29 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 사용자(userId)와 계좌(accountNumber)별 요청 수를 token bucket 으로 제한한다.
+ * 아래 값은 기본값이고 account.rate-limit.routes.{value}.* 로 라우트마다 바꿀 수 있다.
+ * 0 이하의 rate 는 그 기준으로는 제한하지 않는다는 뜻이다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface RateLimit {
+    /** 라우트 이름 (설정 키에 쓰인다) */
+    String value();
+
+    /** 사용자별 초당 허용 요청 수 */
+    double userPerSecond() default 20;
+
+    /** 사용자별로 한 번에 몰려도 허용하는 요청 수 */
+    int userBurst() default 40;
+
+    /** 계좌별 초당 허용 요청 수 */
+    double accountPerSecond() default 5;
+
+    /** 계좌별로 한 번에 몰려도 허용하는 요청 수 */
+    int accountBurst() default 10;
+}
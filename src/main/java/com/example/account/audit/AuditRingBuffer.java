@@ -0,0 +1,81 @@
+package com.example.account.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 여러 요청 스레드가 쓰고 하나의 소비 스레드가 읽는 고정 크기 링 버퍼
+ * 1. 생산자는 CAS 로 시퀀스를 얻고 슬롯을 채운 뒤 published 에 시퀀스를 기록한다.
+ * 2. 버퍼가 가득 차면 기다리지 않고 이벤트를 버린다. (요청 스레드를 막지 않는다.)
+ * 3. 소비자는 published 된 슬롯을 순서대로 읽는다.
+ */
+class AuditRingBuffer {
+    private final BalanceAuditEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final AtomicLong dropped = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two : " + capacity);
+        }
+        slots = new BalanceAuditEvent[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new BalanceAuditEvent();
+            published.set(i, -1);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return 슬롯의 시퀀스, 버퍼가 가득 찼으면 -1
+     */
+    long claim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - consumed.get() > slots.length) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    BalanceAuditEvent slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * 소비 스레드에서만 호출한다.
+     *
+     * @return 처리한 이벤트 수
+     */
+    int drain(Consumer<BalanceAuditEvent> handler) {
+        long next = consumed.get() + 1;
+        int count = 0;
+        while (published.get((int) (next & mask)) == next) {
+            BalanceAuditEvent event = slot(next);
+            handler.accept(event);
+            event.clear();
+            consumed.lazySet(next);
+            next++;
+            count++;
+        }
+        return count;
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.account.audit;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+/**
+ * 링 버퍼의 슬롯
+ * 미리 만들어 두고 재사용하므로 요청마다 객체를 만들지 않는다.
+ */
+class BalanceAuditEvent {
+    long timestampMillis;
+    TransactionType transactionType;
+    TransactionResultType transactionResultType;
+    String accountNumber;
+    String transactionId;
+    long amount;
+    long balanceSnapshot;
+    ErrorCode errorCode;
+    long latencyNanos;
+
+    void clear() {
+        accountNumber = null;
+        transactionId = null;
+        errorCode = null;
+    }
+}
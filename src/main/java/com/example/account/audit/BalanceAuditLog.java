@@ -0,0 +1,286 @@
+package com.example.account.audit;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 잔액 사용/취소/실패 이벤트 감사 로그
+ * 요청 스레드는 링 버퍼에 값만 복사하고, audit-writer 스레드 하나가 NDJSON 파일로 쓴다.
+ * 파일이 account.audit.max-file-bytes 를 넘으면 새 파일로 넘어간다.
+ * 문자열 필드는 MAX_STRING_CHARS 자로 자르므로 이벤트 한 줄은 MAX_EVENT_BYTES 를 넘지 않는다.
+ * 쓰다가 실패한 이벤트는 버리고, 파일 쓰기가 실패하면 새 파일로 넘어가 계속 쓴다.
+ *
+ * {"ts":1697000000000,"type":"USE","result":"S","accountNumber":"1234567890",
+ *  "transactionId":"...","amount":1000,"balanceSnapshot":9000,"errorCode":null,"latencyMicros":1234}
+ */
+@Slf4j
+@Component
+public class BalanceAuditLog {
+    public static final long UNKNOWN_BALANCE = -1L;
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    static final int MAX_STRING_CHARS = 64;
+    // 고정 문자열 + 문자열 4개(모두 escape 돼도 2배) + 숫자 4개
+    static final int MAX_EVENT_BYTES = 256 + 4 * (2 * MAX_STRING_CHARS + 2) + 4 * 20;
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final AuditRingBuffer ringBuffer;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(256 * 1024);
+    private final Consumer<BalanceAuditEvent> eventWriter = this::write;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private FileChannel channel;
+    private long fileBytes;
+    private int fileIndex;
+
+    public BalanceAuditLog(
+            @Value("${account.audit.enabled:true}") boolean enabled,
+            @Value("${account.audit.directory:logs/audit}") String directory,
+            @Value("${account.audit.buffer-size:65536}") int bufferSize,
+            @Value("${account.audit.max-file-bytes:67108864}") long maxFileBytes) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxFileBytes = maxFileBytes;
+        this.ringBuffer = new AuditRingBuffer(bufferSize);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        roll();
+        running = true;
+        startWriter();
+    }
+
+    private synchronized void startWriter() {
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        // 예상 못 한 오류로 스레드가 죽으면 이벤트가 링 버퍼에 쌓이기만 하므로 크게 남기고 다시 띄운다.
+        writerThread.setUncaughtExceptionHandler((thread, e) -> {
+            log.error("Audit writer died, restarting", e);
+            if (running) {
+                LockSupport.parkNanos(RETRY_NANOS);
+                startWriter();
+            }
+        });
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        if (ringBuffer.getDroppedCount() > 0) {
+            log.warn("Audit events dropped because the ring buffer was full : {}", ringBuffer.getDroppedCount());
+        }
+    }
+
+    public void publish(TransactionType transactionType,
+                        TransactionResultType transactionResultType,
+                        String accountNumber,
+                        String transactionId,
+                        long amount,
+                        long balanceSnapshot,
+                        ErrorCode errorCode,
+                        long latencyNanos) {
+        if (!running) {
+            return;
+        }
+        long sequence = ringBuffer.claim();
+        if (sequence < 0) {
+            return;
+        }
+        BalanceAuditEvent event = ringBuffer.slot(sequence);
+        event.timestampMillis = System.currentTimeMillis();
+        event.transactionType = transactionType;
+        event.transactionResultType = transactionResultType;
+        event.accountNumber = accountNumber;
+        event.transactionId = transactionId;
+        event.amount = amount;
+        event.balanceSnapshot = balanceSnapshot;
+        event.errorCode = errorCode;
+        event.latencyNanos = latencyNanos;
+        ringBuffer.publish(sequence);
+    }
+
+    public long getDroppedCount() {
+        return ringBuffer.getDroppedCount();
+    }
+
+    private void runWriter() {
+        while (running) {
+            try {
+                if (ringBuffer.drain(eventWriter) == 0) {
+                    flush();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            } catch (IOException e) {
+                recover(e);
+            }
+        }
+        try {
+            ringBuffer.drain(eventWriter);
+            flush();
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.error("Failed to close audit log", e);
+        }
+    }
+
+    /**
+     * 버퍼에 남은 이벤트는 버리고 새 파일로 넘어간다. 새 파일도 열 수 없으면 잠시 뒤 다시 시도한다.
+     */
+    private void recover(IOException cause) {
+        log.error("Failed to write audit log, rolling to a new file", cause);
+        writeBuffer.clear();
+        try {
+            roll();
+        } catch (IOException e) {
+            log.error("Failed to open audit log file", e);
+            channel = null;
+            LockSupport.parkNanos(RETRY_NANOS);
+        }
+    }
+
+    private void write(BalanceAuditEvent event) {
+        int start = writeBuffer.position();
+        try {
+            if (writeBuffer.remaining() < MAX_EVENT_BYTES) {
+                flush();
+                start = writeBuffer.position();
+            }
+            putAscii("{\"ts\":");
+            putLong(event.timestampMillis);
+            putAscii(",\"type\":");
+            putString(event.transactionType == null ? null : event.transactionType.name());
+            putAscii(",\"result\":");
+            putString(event.transactionResultType == null ? null : event.transactionResultType.name());
+            putAscii(",\"accountNumber\":");
+            putString(event.accountNumber);
+            putAscii(",\"transactionId\":");
+            putString(event.transactionId);
+            putAscii(",\"amount\":");
+            putLong(event.amount);
+            putAscii(",\"balanceSnapshot\":");
+            if (event.balanceSnapshot == UNKNOWN_BALANCE) {
+                putAscii("null");
+            } else {
+                putLong(event.balanceSnapshot);
+            }
+            putAscii(",\"errorCode\":");
+            putString(event.errorCode == null ? null : event.errorCode.name());
+            putAscii(",\"latencyMicros\":");
+            putLong(event.latencyNanos / 1000);
+            putAscii("}\n");
+        } catch (IOException e) {
+            recover(e);
+        } catch (RuntimeException e) {
+            // 반쯤 쓴 줄은 지우고 다음 이벤트를 계속 쓴다.
+            log.error("Failed to write audit event", e);
+            writeBuffer.position(start);
+        }
+    }
+
+    private void flush() throws IOException {
+        if (channel == null) {
+            roll();
+        }
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            fileBytes += channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+        if (fileBytes >= maxFileBytes) {
+            roll();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close audit log file : {}", e.toString());
+            }
+        }
+        Path file = directory.resolve(
+                "audit-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + "-" + (fileIndex++) + ".ndjson");
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileBytes = 0;
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            putAscii("null");
+            return;
+        }
+        writeBuffer.put((byte) '"');
+        int length = Math.min(value.length(), MAX_STRING_CHARS);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // 계좌번호, 거래 ID, enum 이름만 들어오므로 ASCII 가 아닌 문자는 '?' 로 바꾼다.
+            if (c == '"' || c == '\\') {
+                writeBuffer.put((byte) '\\');
+            }
+            writeBuffer.put(c < 0x20 || c > 0x7e ? (byte) '?' : (byte) c);
+        }
+        writeBuffer.put((byte) '"');
+    }
+
+    private void putAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            writeBuffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            putAscii("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            writeBuffer.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            writeBuffer.put((byte) ('0' + (value / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+}
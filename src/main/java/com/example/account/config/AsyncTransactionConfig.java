@@ -0,0 +1,29 @@
+package com.example.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncTransactionConfig {
+    @Value("${account.async.db-threads:10}")
+    private int dbThreads;
+
+    @Value("${account.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * 비동기 API 에서 JPA 호출을 넘겨받는 스레드 풀
+     * 커넥션 풀 크기에 맞춰 두어 요청이 몰려도 커넥션 대기로 스레드가 쌓이지 않게 한다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transactionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dbThreads);
+        executor.setMaxPoolSize(dbThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("transaction-db-");
+        return executor;
+    }
+}
@@ -6,23 +6,62 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 로컬 실행용 embedded Redis. 락 노드(account.redis.nodes)마다 서버를 하나씩 띄운다.
+ * account.redis.embedded.async-start 가 true 면 별도 스레드에서 띄워 JPA 부트스트랩과 겹치게 한다.
+ * Redis 에 붙는 쪽은 awaitStarted 로 기동이 끝나기를 기다린다.
+ */
 @Configuration
 public class LocalRedisConfig {
-    @Value("${spring.data.redis.port}")
-    private int redisPort;
+    @Value("${account.redis.nodes:${spring.data.redis.host}:${spring.data.redis.port}}")
+    private List<String> redisNodes;
+
+    @Value("${account.redis.embedded.async-start:false}")
+    private boolean asyncStart;
 
-    private RedisServer redisServer;
+    private final List<RedisServer> redisServers = new ArrayList<>();
+    private final CompletableFuture<Void> started = new CompletableFuture<>();
 
     @PostConstruct
     public void startRedis(){
-        redisServer = new RedisServer(redisPort);
-        redisServer.start();
+        if (asyncStart) {
+            Thread starter = new Thread(this::startServers, "embedded-redis-start");
+            starter.setDaemon(true);
+            starter.start();
+        } else {
+            startServers();
+            started.join();
+        }
+    }
+
+    public void awaitStarted(){
+        started.join();
     }
 
     @PreDestroy
     public void stopRedis(){
-        if(redisServer != null){
-            redisServer.stop();
+        started.exceptionally(e -> null).join();
+        redisServers.forEach(RedisServer::stop);
+    }
+
+    private void startServers() {
+        try {
+            redisNodes.stream().map(String::trim).distinct().forEach(node -> {
+                RedisServer redisServer = new RedisServer(portOf(node));
+                redisServer.start();
+                redisServers.add(redisServer);
+            });
+            started.complete(null);
+        } catch (RuntimeException e) {
+            started.completeExceptionally(e);
         }
     }
+
+    private static int portOf(String node) {
+        return Integer.parseInt(node.substring(node.lastIndexOf(':') + 1));
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.account.config;
+
+import com.example.account.metrics.RequestMetricsInterceptor;
+import com.example.account.metrics.TimedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)))
+                .addPathPatterns("/account", "/account/**", "/transaction/**", "/async/transaction/**");
+    }
+
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return TimedDataSource.wrap(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,24 +1,68 @@
 package com.example.account.config;
 
+import com.example.account.service.RedisLockRing;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class RedisrepositoryConfig {
-    @Value("${spring.data.redis.host}")
-    private String redisHost;
+    // 락용 Redis 노드 목록(host:port). 지정하지 않으면 spring.data.redis 한 대만 쓴다.
+    @Value("${account.redis.nodes:${spring.data.redis.host}:${spring.data.redis.port}}")
+    private List<String> redisNodes;
+
+    // Redis 가 느릴 때 요청마다 Redisson 기본값(3초 x 재시도 3회)을 다 기다리지 않도록 짧게 잡는다.
+    @Value("${account.redis.timeout-ms:500}")
+    private int timeoutMillis;
+
+    @Value("${account.redis.retry-attempts:1}")
+    private int retryAttempts;
+
+    @Value("${account.redis.retry-interval-ms:100}")
+    private int retryIntervalMillis;
+
+    // true 면 기동 때 Redis 에 붙지 않고 노드별 첫 락 요청 때 연결한다.
+    @Value("${account.redis.lazy-connect:false}")
+    private boolean lazyConnect;
 
-    @Value("${spring.data.redis.port}")
-    private int redisPort;
+    @Bean(destroyMethod = "shutdown")
+    public RedisLockRing redisLockRing(ObjectProvider<LocalRedisConfig> localRedisConfig){
+        List<String> nodes = redisNodes.stream().map(String::trim).distinct().toList();
+        if (lazyConnect) {
+            return RedisLockRing.connectLazily(nodes, node -> createClient(node, localRedisConfig));
+        }
+        Map<String, RedissonClient> clients = new LinkedHashMap<>();
+        nodes.forEach(node -> clients.put(node, createClient(node, localRedisConfig)));
+
+        return new RedisLockRing(clients);
+    }
+
+    /**
+     * 락 외의 용도로 쓰는 클라이언트. 첫 번째 노드에 붙으며 종료는 링이 맡는다.
+     */
+    @Bean(destroyMethod = "")
+    @Lazy
+    public RedissonClient redissonClient(RedisLockRing redisLockRing){
+        return redisLockRing.node(redisNodes.get(0).trim());
+    }
 
-    @Bean
-    public RedissonClient redissonClient(){
+    private RedissonClient createClient(String node, ObjectProvider<LocalRedisConfig> localRedisConfig) {
+        // embedded Redis 를 비동기로 띄우는 중이면 다 뜰 때까지 기다린 뒤 연결한다.
+        localRedisConfig.ifAvailable(LocalRedisConfig::awaitStarted);
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        config.useSingleServer().setAddress("redis://" + node)
+                .setTimeout(timeoutMillis)
+                .setRetryAttempts(retryAttempts)
+                .setRetryInterval(retryIntervalMillis);
 
         return Redisson.create(config);
     }
@@ -0,0 +1,66 @@
+package com.example.account.config;
+
+import com.example.account.shard.ShardRoutingDataSource;
+import com.example.account.shard.ShardSchemaReplicator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * account.sharding.enabled=true 일 때 샤드 수만큼 H2 데이터베이스를 만들고
+ * ShardRoutingDataSource 하나로 묶어 기본 데이터소스로 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+    @Value("${account.sharding.shard-count:4}")
+    private int shardCount;
+
+    @Value("${account.sharding.url-pattern:jdbc:h2:mem:shard%d;DB_CLOSE_DELAY=-1}")
+    private String urlPattern;
+
+    @Value("${spring.datasource.username:sa}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Bean
+    public ShardDataSources shardDataSources() {
+        List<DataSource> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(DataSourceBuilder.create()
+                    .url(String.format(urlPattern, shard))
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        return new ShardDataSources(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new ShardRoutingDataSource(shardDataSources.shards());
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public ShardSchemaReplicator shardSchemaReplicator(ShardDataSources shardDataSources) {
+        return new ShardSchemaReplicator(shardDataSources.shards());
+    }
+
+    /**
+     * 샤드별 데이터소스 목록. DataSource 빈이 아니므로 DataSource 후처리(계측 프록시 등)를 받지 않는다.
+     */
+    public record ShardDataSources(List<DataSource> shards) {
+    }
+}
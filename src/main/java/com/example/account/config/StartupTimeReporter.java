@@ -0,0 +1,38 @@
+package com.example.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * 기동 시간을 남긴다. JVM 시작부터 트래픽을 받을 수 있게 될 때까지가 오토스케일러가 기다리는 시간이다.
+ * account.startup.exit-on-ready 가 true 면 기동 직후 종료한다. CDS 아카이브 생성과 기동 벤치마크에서 쓴다.
+ */
+@Slf4j
+@Component
+public class StartupTimeReporter implements ApplicationListener<ApplicationReadyEvent> {
+    private final boolean exitOnReady;
+
+    public StartupTimeReporter(@Value("${account.startup.exit-on-ready:false}") boolean exitOnReady) {
+        this.exitOnReady = exitOnReady;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long jvmUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Application ready in {} ms (spring {} ms, profiles {})",
+                jvmUptimeMillis,
+                event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(),
+                Arrays.toString(event.getApplicationContext().getEnvironment().getActiveProfiles()));
+
+        if (exitOnReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.account.config;
+
+import com.example.account.trace.Tracer;
+import com.example.account.trace.TracingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class TracingConfig implements WebMvcConfigurer {
+    private final ObjectProvider<Tracer> tracer;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        tracer.ifAvailable(t -> registry.addInterceptor(new TracingInterceptor(t))
+                .addPathPatterns("/account", "/account/**", "/transaction/**", "/async/transaction/**"));
+    }
+}
@@ -1,22 +1,51 @@
 package com.example.account.controller;
 
-import com.example.account.domain.Account;
+import com.example.account.dto.AccountDetail;
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CreateAccount;
+import com.example.account.dto.DailySummary;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.dto.ImportAccounts;
+import com.example.account.event.AccountEvent;
+import com.example.account.event.AccountEventHub;
+import com.example.account.readmodel.AccountReadModel;
+import com.example.account.service.AccountImportService;
 import com.example.account.service.AccountService;
+import com.example.account.service.SingleFlight;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class AccountController {
+    static final String SOURCE_HEADER = "X-Account-Source";
+    static final String STALENESS_HEADER = "X-Read-Model-Staleness-Ms";
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String CSV_VALUE = "text/csv";
+    static final String READ_MODEL_FLIGHT = "account.read-model";
+    static final String PRIMARY_FLIGHT = "account.primary";
+
     private final AccountService accountService;
+    private final AccountReadModel accountReadModel;
+    private final AccountImportService accountImportService;
+    private final SingleFlight singleFlight;
+    private final AccountEventHub accountEventHub;
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(
@@ -41,21 +70,103 @@ public class AccountController {
                 )
         );
     }
+
+    /**
+     * 요청 본문을 메모리에 올리지 않고 줄 단위로 읽어 계좌를 일괄 생성한다.
+     * 실패한 줄은 응답의 failures 에 줄 번호와 함께 담긴다.
+     */
+    @PostMapping(value = "/account/import", consumes = {CSV_VALUE, NDJSON_VALUE})
+    public ImportAccounts.Response importAccounts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        AccountImportService.Format format =
+                MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))
+                        ? AccountImportService.Format.NDJSON
+                        : AccountImportService.Format.CSV;
+        return accountImportService.importAccounts(body, format);
+    }
+
+    /**
+     * 읽기 모델(AccountBalanceView)에서 답하고, 읽기 모델이 너무 뒤처졌거나 비어 있으면 원본에서 읽는다.
+     * X-Account-Source 는 read-model / primary, X-Read-Model-Staleness-Ms 는
+     * 응답에 빠졌을 수 있는 변경의 최대 나이다. 원본에서 읽었으면 0 이다.
+     * 같은 사용자의 조회가 동시에 몰리면 한 번만 읽어 나눠 준다.
+     */
     @GetMapping("/account")
-    public List<AccountInfo> getAccountsByUserId(
+    public ResponseEntity<List<AccountInfo>> getAccountsByUserId(
             @RequestParam("user_id") Long userId
     ){
-        return accountService.getAccountsByUserId(userId)
-                .stream().map(accountDto -> AccountInfo.builder()
-                        .accountNumber(accountDto.getAccountNumber())
-                        .balance(accountDto.getBalance())
+        long stalenessMillis = accountReadModel.getStalenessMillis();
+        Optional<List<AccountInfo>> fromReadModel = singleFlight.execute(READ_MODEL_FLIGHT, userId,
+                        () -> accountReadModel.findAccounts(userId))
+                .map(views -> views.stream().map(view -> AccountInfo.builder()
+                        .accountNumber(view.getAccountNumber())
+                        .balance(view.getBalance())
                         .build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        if (fromReadModel.isPresent()) {
+            return ResponseEntity.ok()
+                    .header(SOURCE_HEADER, "read-model")
+                    .header(STALENESS_HEADER, String.valueOf(stalenessMillis))
+                    .body(fromReadModel.get());
+        }
+
+        return ResponseEntity.ok()
+                .header(SOURCE_HEADER, "primary")
+                .header(STALENESS_HEADER, "0")
+                .body(singleFlight.execute(PRIMARY_FLIGHT, userId,
+                                () -> accountService.getAccountsByUserId(userId))
+                        .stream().map(accountDto -> AccountInfo.builder()
+                                .accountNumber(accountDto.getAccountNumber())
+                                .balance(accountDto.getBalance())
+                                .build())
+                        .collect(Collectors.toList()));
     }
 
 
+    /**
+     * 계좌의 잔액/거래 변경을 커밋된 뒤 SSE 로 보낸다. (event: balance, transaction, overflow)
+     * 구독하자마자 현재 잔액을 balance 이벤트로 한 번 보낸다.
+     */
+    @GetMapping(value = "/account/{accountNumber}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter accountEvents(@PathVariable String accountNumber) {
+        return accountEventHub.subscribe(accountNumber,
+                () -> AccountEvent.from(accountService.getAccountByNumber(accountNumber)));
+    }
+
+    /**
+     * 계좌의 일별 사용/취소 금액과 실패 건수. 기간(from, to)은 yyyy-MM-dd 이고 둘 다 포함한다.
+     */
+    @GetMapping("/account/{accountNumber}/daily-summary")
+    public List<DailySummary> getDailySummaries(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return accountService.getDailySummaries(accountNumber, from, to);
+    }
+
+    /**
+     * 계좌와 사용자의 변경 정보만 먼저 읽어 ETag 를 만들고, If-None-Match 와 같으면 본문 없이 304 로 답한다.
+     * Cache-Control: no-cache 라 캐시는 응답을 저장해 두되 매번 ETag 로 확인받는다.
+     */
     @GetMapping("/account/{id}")
-    public Account getAccount(@PathVariable Long id) {
-        return accountService.getAccount(id);
+    public ResponseEntity<AccountDetail> getAccount(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Optional<String> etag = accountService.getAccountVersion(id)
+                .map(version -> ETags.of(id, version.getUpdatedAt(),
+                        version.getUserUpdatedAt(), version.getAccountCount()));
+        if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag.get())
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        etag.ifPresent(response::eTag);
+        return response.body(accountService.getAccount(id));
     }
 }
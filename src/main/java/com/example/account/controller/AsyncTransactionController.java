@@ -0,0 +1,129 @@
+package com.example.account.controller;
+
+import com.example.account.aop.RateLimit;
+import com.example.account.audit.BalanceAuditLog;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.service.LockService;
+import com.example.account.service.SingleFlight;
+import com.example.account.service.TransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+
+/**
+ * 잔액 관련 비동기 컨트롤러
+ * TransactionController 와 같은 기능을 servlet 스레드를 막지 않고 처리한다.
+ * 1. Redisson 비동기 락으로 계좌 락을 잡고
+ * 2. JPA 호출은 transactionExecutor 로 넘기고
+ * 3. CompletableFuture 로 응답한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class AsyncTransactionController {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final BalanceAuditLog balanceAuditLog;
+    private final ThreadPoolTaskExecutor transactionExecutor;
+    private final SingleFlight singleFlight;
+
+    @Value("${account.transaction.use-delay-ms:3000}")
+    private long useDelayMillis;
+
+    @PostMapping("/async/transaction/use")
+    @RateLimit("use")
+    public CompletableFuture<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request
+    ) {
+        long start = System.nanoTime();
+        Executor executor = useDelayMillis > 0
+                ? CompletableFuture.delayedExecutor(useDelayMillis, TimeUnit.MILLISECONDS, transactionExecutor)
+                : transactionExecutor;
+
+        return lockService.executeWithLockAsync(request.getAccountNumber(), () ->
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        TransactionDto transactionDto = transactionService.useBalance(request.getUserId(),
+                                request.getAccountNumber(), request.getAmount());
+                        audit(transactionDto, start);
+                        return UseBalance.Response.from(transactionDto);
+                    } catch (AccountException e) {
+                        log.debug("Failed to use balance. {}", e.getErrorCode());
+                        balanceAuditLog.publish(USE, F, request.getAccountNumber(), null, request.getAmount(),
+                                BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(), System.nanoTime() - start);
+
+                        transactionService.saveFailedUseTransaction(
+                                request.getAccountNumber(),
+                                request.getAmount()
+                        );
+                        throw e;
+                    }
+                }, executor));
+    }
+
+    @PostMapping("/async/transaction/cancel")
+    @RateLimit("cancel")
+    public CompletableFuture<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        long start = System.nanoTime();
+
+        return lockService.executeWithLockAsync(request.getAccountNumber(), () ->
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        TransactionDto transactionDto = transactionService.cancelBalance(
+                                request.getTransactionId(), request.getAccountNumber(), request.getAmount());
+                        audit(transactionDto, start);
+                        return CancelBalance.Response.from(transactionDto);
+                    } catch (AccountException e) {
+                        log.debug("Failed to cancel balance. {}", e.getErrorCode());
+                        balanceAuditLog.publish(CANCEL, F, request.getAccountNumber(), request.getTransactionId(),
+                                request.getAmount(), BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(),
+                                System.nanoTime() - start);
+
+                        transactionService.saveFailedCancelTransaction(
+                                request.getAccountNumber(),
+                                request.getAmount()
+                        );
+                        throw e;
+                    }
+                }, transactionExecutor));
+    }
+
+    @GetMapping("/async/transaction/{transactionId}")
+    public CompletableFuture<QueryTransactionResponse> queryTransaction(
+            @PathVariable String transactionId) {
+        return singleFlight.executeAsync(TransactionController.QUERY_FLIGHT, transactionId, () ->
+                        CompletableFuture.supplyAsync(() -> transactionService.queryTransaction(transactionId),
+                                transactionExecutor))
+                .thenApply(QueryTransactionResponse::from);
+    }
+
+    private void audit(TransactionDto transactionDto, long start) {
+        balanceAuditLog.publish(
+                transactionDto.getTrasactionType(),
+                transactionDto.getTransactionResultType(),
+                transactionDto.getAccountNumber(),
+                transactionDto.getTransactionId(),
+                transactionDto.getAmount() == null ? 0L : transactionDto.getAmount(),
+                transactionDto.getBalanceSnapshot() == null
+                        ? BalanceAuditLog.UNKNOWN_BALANCE : transactionDto.getBalanceSnapshot(),
+                null,
+                System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.account.controller;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+/**
+ * 조건부 GET 용 strong ETag 생성과 If-None-Match 비교
+ * ETag 는 응답 내용을 바꾸는 값(변경 시각, 계좌 수 등)을 이어 붙여 만들어 해시 충돌이 없다.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String of(Object... parts) {
+        StringJoiner etag = new StringJoiner(".", "\"", "\"");
+        for (Object part : parts) {
+            etag.add(part instanceof LocalDateTime time ? encode(time) : String.valueOf(part));
+        }
+        return etag.toString();
+    }
+
+    /**
+     * If-None-Match 의 태그 중 하나가 etag 와 같거나 * 이면 true. (RFC 9110 의 weak 비교)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String encode(LocalDateTime time) {
+        return Long.toString(time.toEpochSecond(ZoneOffset.UTC), 36) + "-" + Integer.toString(time.getNano(), 36);
+    }
+}
@@ -1,39 +1,91 @@
 package com.example.account.controller;
 
 import com.example.account.aop.AccountLock;
+import com.example.account.aop.RateLimit;
+import com.example.account.audit.BalanceAuditLog;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureHold;
+import com.example.account.dto.HoldBalance;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.ReleaseHold;
+import com.example.account.dto.SearchTransactions;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.Transfer;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.service.SingleFlight;
+import com.example.account.service.TransactionSearchService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.CAPTURE;
+import static com.example.account.type.TransactionType.HOLD;
+import static com.example.account.type.TransactionType.RELEASE;
+import static com.example.account.type.TransactionType.TRANSFER_OUT;
+import static com.example.account.type.TransactionType.USE;
+
 /**
  * 잔액 관련 컨트롤러
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
- * 3. 거래 확인
+ * 3. 계좌 간 이체
+ * 4. 잔액 홀드 / 홀드 확정 / 홀드 해제
+ * 5. 거래 확인
+ * 6. 거래 검색
  */
 @Slf4j
 @RequiredArgsConstructor
 @RestController
 public class TransactionController {
+    // 동기/비동기 거래 확인이 같은 조회를 나눠 쓴다.
+    static final String QUERY_FLIGHT = "transaction.query";
+
     private final TransactionService transactionService;
+    private final TransactionSearchService transactionSearchService;
+    private final BalanceAuditLog balanceAuditLog;
+    private final SingleFlight singleFlight;
+
+    @Value("${account.transaction.use-delay-ms:3000}")
+    private long useDelayMillis;
+
+    @Value("${account.hold.default-ttl-seconds:600}")
+    private long defaultHoldTtlSeconds;
+
     @PostMapping("/transaction/use")
-    @AccountLock
+    @RateLimit("use")
+    @AccountLock(adaptive = true)
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
     ) throws InterruptedException {
+        long start = System.nanoTime();
         try {
-            Thread.sleep(3000L);
-            return UseBalance.Response.from(transactionService.useBalance(request.getUserId(),
-                    request.getAccountNumber(), request.getAmount()));
+            Thread.sleep(useDelayMillis);
+            TransactionDto transactionDto = transactionService.useBalance(request.getUserId(),
+                    request.getAccountNumber(), request.getAmount());
+            audit(transactionDto, start);
+            return UseBalance.Response.from(transactionDto);
         }catch (AccountException e){
-            log.error("Failed to use balance.");
+            log.debug("Failed to use balance. {}", e.getErrorCode());
+            balanceAuditLog.publish(USE, F, request.getAccountNumber(), null, request.getAmount(),
+                    BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(), System.nanoTime() - start);
 
             transactionService.saveFailedUseTransaction(
                     request.getAccountNumber(),
@@ -44,15 +96,22 @@ public class TransactionController {
     }
 
     @PostMapping("/transaction/cancel")
+    @RateLimit("cancel")
     @AccountLock
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ){
+        long start = System.nanoTime();
         try {
-            return CancelBalance.Response.from(transactionService.cancelBalance(request.getTransactionId(),
-                    request.getAccountNumber(), request.getAmount()));
+            TransactionDto transactionDto = transactionService.cancelBalance(request.getTransactionId(),
+                    request.getAccountNumber(), request.getAmount());
+            audit(transactionDto, start);
+            return CancelBalance.Response.from(transactionDto);
         }catch (AccountException e){
-            log.error("Failed to use balance.");
+            log.debug("Failed to cancel balance. {}", e.getErrorCode());
+            balanceAuditLog.publish(CANCEL, F, request.getAccountNumber(), request.getTransactionId(),
+                    request.getAmount(), BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(),
+                    System.nanoTime() - start);
 
             transactionService.saveFailedCancelTransaction(
                     request.getAccountNumber(),
@@ -62,9 +121,174 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/transaction/transfer")
+    @RateLimit("transfer")
+    @AccountLock
+    public Transfer.Response transfer(
+            @Valid @RequestBody Transfer.Request request
+    ){
+        long start = System.nanoTime();
+        try {
+            TransactionDto transactionDto = transactionService.transfer(request.getUserId(),
+                    request.getAccountNumber(), request.getTargetAccountNumber(), request.getAmount());
+            audit(transactionDto, start);
+            return Transfer.Response.from(transactionDto, request.getTargetAccountNumber());
+        }catch (AccountException e){
+            log.debug("Failed to transfer. {}", e.getErrorCode());
+            balanceAuditLog.publish(TRANSFER_OUT, F, request.getAccountNumber(), null, request.getAmount(),
+                    BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(), System.nanoTime() - start);
+
+            transactionService.saveFailedTransferTransaction(
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+            throw e;
+        }
+    }
+
+    @PostMapping("/transaction/hold")
+    @RateLimit("hold")
+    @AccountLock
+    public HoldBalance.Response holdBalance(
+            @Valid @RequestBody HoldBalance.Request request
+    ){
+        long start = System.nanoTime();
+        try {
+            HoldDto holdDto = transactionService.holdBalance(request.getUserId(), request.getAccountNumber(),
+                    request.getAmount(),
+                    request.getTtlSeconds() == null ? defaultHoldTtlSeconds : request.getTtlSeconds());
+            auditHold(HOLD, holdDto, holdDto.getAmount(), start);
+            return HoldBalance.Response.from(holdDto);
+        }catch (AccountException e){
+            log.debug("Failed to hold balance. {}", e.getErrorCode());
+            balanceAuditLog.publish(HOLD, F, request.getAccountNumber(), null, request.getAmount(),
+                    BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(), System.nanoTime() - start);
+
+            transactionService.saveFailedHoldTransaction(
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+            throw e;
+        }
+    }
+
+    @PostMapping("/transaction/hold/capture")
+    @RateLimit("capture")
+    @AccountLock
+    public CaptureHold.Response captureHold(
+            @Valid @RequestBody CaptureHold.Request request
+    ){
+        long start = System.nanoTime();
+        try {
+            HoldDto holdDto = transactionService.captureHold(request.getHoldId(), request.getAccountNumber(),
+                    request.getAmount());
+            auditHold(CAPTURE, holdDto, holdDto.getCapturedAmount(), start);
+            return CaptureHold.Response.from(holdDto);
+        }catch (AccountException e){
+            log.debug("Failed to capture hold. {}", e.getErrorCode());
+            balanceAuditLog.publish(CAPTURE, F, request.getAccountNumber(), request.getHoldId(), request.getAmount(),
+                    BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(), System.nanoTime() - start);
+
+            transactionService.saveFailedCaptureTransaction(
+                    request.getHoldId(),
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+            throw e;
+        }
+    }
+
+    @PostMapping("/transaction/hold/release")
+    @RateLimit("release")
+    @AccountLock
+    public ReleaseHold.Response releaseHold(
+            @Valid @RequestBody ReleaseHold.Request request
+    ){
+        long start = System.nanoTime();
+        try {
+            HoldDto holdDto = transactionService.releaseHold(request.getHoldId(), request.getAccountNumber());
+            auditHold(RELEASE, holdDto, holdDto.getAmount(), start);
+            return ReleaseHold.Response.from(holdDto);
+        }catch (AccountException e){
+            log.debug("Failed to release hold. {}", e.getErrorCode());
+            balanceAuditLog.publish(RELEASE, F, request.getAccountNumber(), request.getHoldId(), 0L,
+                    BalanceAuditLog.UNKNOWN_BALANCE, e.getErrorCode(), System.nanoTime() - start);
+
+            transactionService.saveFailedReleaseTransaction(
+                    request.getHoldId(),
+                    request.getAccountNumber()
+            );
+            throw e;
+        }
+    }
+
+    private void auditHold(TransactionType transactionType, HoldDto holdDto, long amount, long start) {
+        balanceAuditLog.publish(transactionType, S, holdDto.getAccountNumber(), holdDto.getHoldId(), amount,
+                holdDto.getBalance(), null, System.nanoTime() - start);
+    }
+
+    private void audit(TransactionDto transactionDto, long start) {
+        balanceAuditLog.publish(
+                transactionDto.getTrasactionType(),
+                transactionDto.getTransactionResultType(),
+                transactionDto.getAccountNumber(),
+                transactionDto.getTransactionId(),
+                transactionDto.getAmount() == null ? 0L : transactionDto.getAmount(),
+                transactionDto.getBalanceSnapshot() == null
+                        ? BalanceAuditLog.UNKNOWN_BALANCE : transactionDto.getBalanceSnapshot(),
+                null,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * 계좌번호나 기간 중 하나는 있어야 한다. 다음 페이지는 응답의 nextCursor 를 cursor 로 넘겨 읽는다.
+     */
+    @GetMapping("/transaction/search")
+    public SearchTransactions.Response searchTransactions(
+            @RequestParam(name = "account_number", required = false) String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "type", required = false) Set<TransactionType> transactionTypes,
+            @RequestParam(name = "result", required = false) Set<TransactionResultType> transactionResultTypes,
+            @RequestParam(name = "min_amount", required = false) Long minAmount,
+            @RequestParam(name = "max_amount", required = false) Long maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return transactionSearchService.search(SearchTransactions.Condition.builder()
+                .accountNumber(accountNumber)
+                .from(from)
+                .to(to)
+                .transactionTypes(transactionTypes)
+                .transactionResultTypes(transactionResultTypes)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .cursor(cursor)
+                .limit(limit)
+                .build());
+    }
+
+    /**
+     * 거래의 변경 시각만 먼저 읽어 ETag 를 만들고, If-None-Match 와 같으면 본문 없이 304 로 답한다.
+     */
     @GetMapping("/transaction/{transactionId}")
-    public QueryTransactionResponse queryTransaction(
-            @PathVariable String transactionId){
-        return QueryTransactionResponse.from(transactionService.queryTransaction(transactionId));
+    public ResponseEntity<QueryTransactionResponse> queryTransaction(
+            @PathVariable String transactionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        String etag = transactionService.getTransactionVersion(transactionId)
+                .map(updatedAt -> ETags.of(transactionId, updatedAt))
+                .orElse(null);
+        if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(QueryTransactionResponse.from(singleFlight.execute(QUERY_FLIGHT, transactionId,
+                () -> transactionService.queryTransaction(transactionId))));
     }
 }
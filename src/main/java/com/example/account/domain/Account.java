@@ -3,8 +3,12 @@ package com.example.account.domain;
 import com.example.account.exception.AccountException;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,10 +21,18 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_account_account_number", columnNames = "accountNumber"))
 @EntityListeners(AuditingEntityListener.class)
 public class Account {
+    // id 에 저장한 샤드 번호가 들어 있어 id 로 조회할 때 샤드를 고를 수 있다.
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "account_id")
+    @GenericGenerator(name = "account_id", strategy = "com.example.account.shard.ShardedIdGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "account_seq"),
+                    @Parameter(name = "increment_size", value = "50")
+            })
     private Long id;
 
     @ManyToOne
@@ -29,9 +41,21 @@ public class Account {
     @Enumerated(EnumType.STRING)
     private AccountStatus accountStatus;
     private Long balance;
+    // 홀드로 묶여 아직 확정/해제되지 않은 금액. balance 는 이 금액을 뺀 사용 가능 잔액이다.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long heldBalance;
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    // Redis 서킷이 열려 계좌 락이 노드 로컬로만 잡히면 다른 노드가 같은 계좌를 함께 고칠 수 있다.
+    // 그때 나중에 커밋하는 쪽은 덮어쓰지 않고 낙관적 락 실패로 끝난다. 응답에는 싣지 않는다.
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -52,4 +76,42 @@ public class Account {
         balance += amount;
     }
 
+    public void depositBalance(Long amount){
+        if(amount < 0){
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        balance += amount;
+    }
+
+    /**
+     * 사용 가능 잔액에서 amount 를 빼 홀드로 묶는다.
+     */
+    public void holdBalance(Long amount){
+        if(amount > balance){
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        balance -= amount;
+        heldBalance += amount;
+    }
+
+    /**
+     * 묶어 둔 금액 중 amount 를 실제로 빼 간다. 사용 가능 잔액은 바뀌지 않는다.
+     */
+    public void captureHeldBalance(Long amount){
+        if(amount < 0 || amount > heldBalance){
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        heldBalance -= amount;
+    }
+
+    /**
+     * 묶어 둔 금액 중 amount 를 사용 가능 잔액으로 돌려놓는다.
+     */
+    public void releaseHeldBalance(Long amount){
+        if(amount < 0 || amount > heldBalance){
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        heldBalance -= amount;
+        balance += amount;
+    }
 }
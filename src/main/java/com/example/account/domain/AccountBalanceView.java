@@ -0,0 +1,30 @@
+package com.example.account.domain;
+
+import com.example.account.type.AccountStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 목록 조회용 읽기 모델. 사용자별 계좌번호/잔액/상태를 Account 와 별도 테이블에 둔다.
+ * AccountReadModel 이 커밋된 잔액 변경 이벤트로 비동기 갱신한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "idx_account_balance_view_user_id", columnList = "userId"))
+public class AccountBalanceView {
+    @Id
+    private String accountNumber;
+    private Long userId;
+    private Long balance;
+    @Enumerated(EnumType.STRING)
+    private AccountStatus accountStatus;
+
+    // 마지막으로 반영한 변경 시각. 늦게 도착한 이전 변경이 덮어쓰지 않게 한다.
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,83 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌별 하루 거래 집계. 거래를 기록하는 DB 트랜잭션 안에서 같이 더하므로 Transaction 과 어긋나지 않는다.
+ * - used: 성공한 잔액 사용(USE)
+ * - cancelled: 성공한 사용 취소(CANCEL)
+ * - failed: 유형과 관계없이 실패(F)로 남은 거래 수
+ * 이체와 홀드 거래는 집계하지 않는다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_account_daily_summary_account_date", columnNames = {"account_id", "summaryDate"}))
+@EntityListeners(AuditingEntityListener.class)
+public class AccountDailySummary {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @ManyToOne
+    private Account account;
+
+    private LocalDate summaryDate;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long usedCount;
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long usedAmount;
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long cancelledCount;
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long cancelledAmount;
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long failedCount;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    /**
+     * 거래 한 건만 담은 집계. 그날 첫 거래면 그대로 저장하고, 아니면 이 값만큼 더한다.
+     * 집계하지 않는 거래면 null.
+     */
+    public static AccountDailySummary of(Transaction transaction) {
+        long amount = transaction.getAmount() == null ? 0L : transaction.getAmount();
+        AccountDailySummaryBuilder summary = AccountDailySummary.builder()
+                .account(transaction.getAccount())
+                .summaryDate(transaction.getTransactedAt().toLocalDate());
+        if (transaction.getTransactionResultType() == TransactionResultType.F) {
+            return summary.failedCount(1).build();
+        }
+        if (transaction.getTrasactionType() == TransactionType.USE) {
+            return summary.usedCount(1).usedAmount(amount).build();
+        }
+        if (transaction.getTrasactionType() == TransactionType.CANCEL) {
+            return summary.cancelledCount(1).cancelledAmount(amount).build();
+        }
+        return null;
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.account.domain;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -24,6 +26,11 @@ public class AccountUser {
     private Long id;
     private String name;
 
+    // 계좌를 만들 때마다 조건부 update 로 올리는 계좌 수. 해지된 계좌도 포함한다.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int accountCount;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
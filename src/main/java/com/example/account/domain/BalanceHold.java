@@ -0,0 +1,56 @@
+package com.example.account.domain;
+
+import com.example.account.type.HoldStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 확정 전까지 잔액을 묶어 두는 홀드. holdId 는 홀드를 건 HOLD 거래의 transactionId 와 같다.
+ * 만료는 테이블을 훑지 않고 HoldExpiryScheduler 의 timing wheel 이 holdId 로 처리한다.
+ * (status, expiresAt) 인덱스는 재시작할 때 남은 홀드를 다시 올리고, 주기적으로 만료가 지난 홀드를 찾는 데만 쓴다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_balance_hold_hold_id", columnList = "holdId", unique = true),
+        @Index(name = "idx_balance_hold_status_expires_at", columnList = "status, expiresAt")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class BalanceHold {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String holdId;
+
+    @ManyToOne
+    private Account account;
+
+    private Long amount;
+    private Long capturedAmount;
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime closedAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public void close(HoldStatus status, long capturedAmount) {
+        this.status = status;
+        this.capturedAmount = capturedAmount;
+        this.closedAt = LocalDateTime.now();
+    }
+}
@@ -17,6 +17,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
+// 거래 검색(TransactionSearchService)용. 쓰기마다 인덱스 유지 비용이 붙으므로 검색 계획에 쓰는 것만 둔다.
+@Table(indexes = {
+        @Index(name = "idx_transaction_transaction_id", columnList = "transactionId"),
+        @Index(name = "idx_transaction_account_transacted_at", columnList = "account_id, transactedAt, id"),
+        @Index(name = "idx_transaction_transacted_at", columnList = "transactedAt, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction {
     @Id
@@ -34,6 +40,8 @@ public class Transaction {
     private Long amount;
     private Long balanceSnapshot;
     private String transactionId;
+    // 이체 거래는 출금/입금 두 건이 서로의 transactionId 를 가리킨다.
+    private String linkedTransactionId;
     private LocalDateTime transactedAt;
 
     @CreatedDate
@@ -0,0 +1,125 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.type.AccountStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static com.example.account.dto.LeanJson.*;
+
+/**
+ * GET /account/{id} 응답. 예전에 내보내던 Account 엔티티와 같은 JSON 모양을 유지한다.
+ * 엔티티를 읽은 트랜잭션 안에서 만들어 연관관계가 lazy 여도 응답을 만들 때 DB 에 가지 않고,
+ * serializer 는 리플렉션 없이 필드를 직접 쓴다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonSerialize(using = AccountDetail.Serializer.class)
+public class AccountDetail {
+    private Long id;
+    private User accountUser;
+    private String accountNumber;
+    private AccountStatus accountStatus;
+    private Long balance;
+    private long heldBalance;
+    private LocalDateTime registeredAt;
+    private LocalDateTime unRegisteredAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static AccountDetail fromEntity(Account account) {
+        AccountUser accountUser = account.getAccountUser();
+        return AccountDetail.builder()
+                .id(account.getId())
+                .accountUser(accountUser == null ? null : User.builder()
+                        .id(accountUser.getId())
+                        .name(accountUser.getName())
+                        .accountCount(accountUser.getAccountCount())
+                        .createdAt(accountUser.getCreatedAt())
+                        .updatedAt(accountUser.getUpdatedAt())
+                        .build())
+                .accountNumber(account.getAccountNumber())
+                .accountStatus(account.getAccountStatus())
+                .balance(account.getBalance())
+                .heldBalance(account.getHeldBalance())
+                .registeredAt(account.getRegisteredAt())
+                .unRegisteredAt(account.getUnRegisteredAt())
+                .createdAt(account.getCreatedAt())
+                .updatedAt(account.getUpdatedAt())
+                .build();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class User {
+        private Long id;
+        private String name;
+        private int accountCount;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+    }
+
+    static class Serializer extends StdSerializer<AccountDetail> {
+        private static final SerializedString ID = name("id");
+        private static final SerializedString ACCOUNT_USER = name("accountUser");
+        private static final SerializedString NAME = name("name");
+        private static final SerializedString ACCOUNT_COUNT = name("accountCount");
+        private static final SerializedString ACCOUNT_NUMBER = name("accountNumber");
+        private static final SerializedString ACCOUNT_STATUS = name("accountStatus");
+        private static final SerializedString BALANCE = name("balance");
+        private static final SerializedString HELD_BALANCE = name("heldBalance");
+        private static final SerializedString REGISTERED_AT = name("registeredAt");
+        private static final SerializedString UN_REGISTERED_AT = name("unRegisteredAt");
+        private static final SerializedString CREATED_AT = name("createdAt");
+        private static final SerializedString UPDATED_AT = name("updatedAt");
+
+        Serializer() {
+            super(AccountDetail.class);
+        }
+
+        @Override
+        public void serialize(AccountDetail value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] buffer = new char[DATE_TIME_BUFFER_SIZE];
+            gen.writeStartObject();
+            writeNumber(gen, ID, value.id);
+            gen.writeFieldName(ACCOUNT_USER);
+            if (value.accountUser == null) {
+                gen.writeNull();
+            } else {
+                User user = value.accountUser;
+                gen.writeStartObject();
+                writeNumber(gen, ID, user.id);
+                writeString(gen, NAME, user.name);
+                gen.writeFieldName(ACCOUNT_COUNT);
+                gen.writeNumber(user.accountCount);
+                writeDateTime(gen, CREATED_AT, user.createdAt, buffer);
+                writeDateTime(gen, UPDATED_AT, user.updatedAt, buffer);
+                gen.writeEndObject();
+            }
+            writeString(gen, ACCOUNT_NUMBER, value.accountNumber);
+            writeEnum(gen, ACCOUNT_STATUS, value.accountStatus);
+            writeNumber(gen, BALANCE, value.balance);
+            gen.writeFieldName(HELD_BALANCE);
+            gen.writeNumber(value.heldBalance);
+            writeDateTime(gen, REGISTERED_AT, value.registeredAt, buffer);
+            writeDateTime(gen, UN_REGISTERED_AT, value.unRegisteredAt, buffer);
+            writeDateTime(gen, CREATED_AT, value.createdAt, buffer);
+            writeDateTime(gen, UPDATED_AT, value.updatedAt, buffer);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.account.dto;
 
 import com.example.account.domain.Account;
+import com.example.account.type.AccountStatus;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -14,6 +15,7 @@ public class AccountDto {
     private Long userId;
     private String accountNumber;
     private Long balance;
+    private AccountStatus accountStatus;
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
@@ -22,6 +24,7 @@ public class AccountDto {
                 .userId(account.getAccountUser().getId())
                 .accountNumber(account.getAccountNumber())
                 .balance(account.getBalance())
+                .accountStatus(account.getAccountStatus())
                 .registeredAt(account.getRegisteredAt())
                 .unRegisteredAt(account.getUnRegisteredAt())
                 .build();
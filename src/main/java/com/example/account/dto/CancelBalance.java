@@ -13,6 +13,7 @@ public class CancelBalance {
     @AllArgsConstructor
     public static class Request implements AccountLockIdInterface {
         @NotBlank
+        @Size(max = 64)
         private String transactionId;
 
         @NotNull
@@ -0,0 +1,58 @@
+package com.example.account.dto;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.type.HoldStatus;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+public class CaptureHold {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotBlank
+        @Size(max = 64)
+        private String holdId;
+
+        @NotNull
+        @Size(min=10, max=10)
+        private String accountNumber;
+
+        // 홀드 금액 이하. 남은 금액은 사용 가능 잔액으로 돌아간다.
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private String holdId;
+        private HoldStatus status;
+        private Long amount;
+        private Long capturedAmount;
+        private Long balance;
+        private Long heldBalance;
+        private LocalDateTime capturedAt;
+
+        public static Response from(HoldDto holdDto) {
+            return Response.builder()
+                    .accountNumber(holdDto.getAccountNumber())
+                    .holdId(holdDto.getHoldId())
+                    .status(holdDto.getStatus())
+                    .amount(holdDto.getAmount())
+                    .capturedAmount(holdDto.getCapturedAmount())
+                    .balance(holdDto.getBalance())
+                    .heldBalance(holdDto.getHeldBalance())
+                    .capturedAt(holdDto.getUpdatedAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.account.dto;
+
+import com.example.account.domain.AccountDailySummary;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * GET /account/{accountNumber}/daily-summary 의 하루치. 거래가 없던 날은 응답에 없다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DailySummary {
+    private LocalDate date;
+    private long usedCount;
+    private long usedAmount;
+    private long cancelledCount;
+    private long cancelledAmount;
+    private long failedCount;
+
+    public static DailySummary fromEntity(AccountDailySummary summary) {
+        return DailySummary.builder()
+                .date(summary.getSummaryDate())
+                .usedCount(summary.getUsedCount())
+                .usedAmount(summary.getUsedAmount())
+                .cancelledCount(summary.getCancelledCount())
+                .cancelledAmount(summary.getCancelledAmount())
+                .failedCount(summary.getFailedCount())
+                .build();
+    }
+}
@@ -4,12 +4,13 @@ import com.example.account.type.ErrorCode;
 import lombok.*;
 
 
+/**
+ * GlobalExceptionHandler 가 ErrorCode 별로 한 인스턴스를 모든 요청에 나눠 쓰므로 바꿀 수 없게 둔다.
+ */
 @Getter
-@Setter
 @AllArgsConstructor
-@NoArgsConstructor
 @Builder
 public class ErrorResponse {
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private final ErrorCode errorCode;
+    private final String errorMessage;
 }
@@ -0,0 +1,63 @@
+package com.example.account.dto;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.type.HoldStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+public class HoldBalance {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotNull
+        @Size(min=10, max=10)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+
+        // 비우면 account.hold.default-ttl-seconds
+        @Min(1)
+        @Max(7 * 24 * 60 * 60)
+        private Long ttlSeconds;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private String holdId;
+        private HoldStatus status;
+        private Long amount;
+        private Long balance;
+        private Long heldBalance;
+        private LocalDateTime expiresAt;
+
+        public static Response from(HoldDto holdDto) {
+            return Response.builder()
+                    .accountNumber(holdDto.getAccountNumber())
+                    .holdId(holdDto.getHoldId())
+                    .status(holdDto.getStatus())
+                    .amount(holdDto.getAmount())
+                    .balance(holdDto.getBalance())
+                    .heldBalance(holdDto.getHeldBalance())
+                    .expiresAt(holdDto.getExpiresAt())
+                    .build();
+        }
+    }
+}
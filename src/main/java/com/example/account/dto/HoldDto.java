@@ -0,0 +1,39 @@
+package com.example.account.dto;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HoldDto {
+    private String holdId;
+    private String accountNumber;
+    private HoldStatus status;
+    private Long amount;
+    private Long capturedAmount;
+    // 처리 직후 계좌의 사용 가능 잔액과 홀드로 묶인 금액
+    private Long balance;
+    private Long heldBalance;
+    private LocalDateTime expiresAt;
+    private LocalDateTime updatedAt;
+
+    public static HoldDto fromEntity(BalanceHold hold) {
+        return HoldDto.builder()
+                .holdId(hold.getHoldId())
+                .accountNumber(hold.getAccount().getAccountNumber())
+                .status(hold.getStatus())
+                .amount(hold.getAmount())
+                .capturedAmount(hold.getCapturedAmount())
+                .balance(hold.getAccount().getBalance())
+                .heldBalance(hold.getAccount().getHeldBalance())
+                .expiresAt(hold.getExpiresAt())
+                .updatedAt(hold.getClosedAt() == null ? hold.getCreatedAt() : hold.getClosedAt())
+                .build();
+    }
+}
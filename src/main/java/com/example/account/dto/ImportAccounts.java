@@ -0,0 +1,43 @@
+package com.example.account.dto;
+
+import com.example.account.type.ErrorCode;
+import lombok.*;
+
+import java.util.List;
+
+public class ImportAccounts {
+    /**
+     * NDJSON 한 줄. CSV 는 userId,initialBalance 순서다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row{
+        private Long userId;
+        private Long initialBalance;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response{
+        private long imported;
+        private long failed;
+        // 앞에서부터 account.import.max-reported-failures 개까지만 담는다.
+        private List<Failure> failures;
+        private long elapsedMillis;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure{
+        private long line;
+        private Long userId;
+        private ErrorCode errorCode;
+    }
+}
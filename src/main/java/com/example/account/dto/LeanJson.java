@@ -0,0 +1,104 @@
+package com.example.account.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 자주 나가는 응답을 직접 쓰는 serializer 용 도우미
+ * 필드 이름은 미리 인코딩한 SerializedString 을 쓰고, 날짜는 JavaTimeModule 과 같은 ISO 형식
+ * (초는 항상, 소수점 아래는 끝의 0 을 뺀 만큼)을 DateTimeFormatter 없이 버퍼에 바로 쓴다.
+ * 값이 null 이어도 필드를 쓴다. (Jackson 기본 동작과 같다)
+ */
+final class LeanJson {
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    static final int DATE_TIME_BUFFER_SIZE = 29;
+
+    private LeanJson() {
+    }
+
+    static SerializedString name(String name) {
+        SerializedString serialized = new SerializedString(name);
+        // 인코딩 결과를 미리 만들어 둔다.
+        serialized.asQuotedUTF8();
+        serialized.asQuotedChars();
+        return serialized;
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    static void writeEnum(JsonGenerator gen, SerializableString name, Enum<?> value) throws IOException {
+        writeString(gen, name, value == null ? null : value.name());
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * buffer 는 DATE_TIME_BUFFER_SIZE 이상이어야 하며 응답 하나를 쓰는 동안 재사용한다.
+     */
+    static void writeDateTime(JsonGenerator gen, SerializableString name, LocalDateTime value, char[] buffer)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            gen.writeString(buffer, 0, formatDateTime(value, buffer));
+        }
+    }
+
+    static int formatDateTime(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        write2(buffer, 0, year / 100);
+        write2(buffer, 2, year % 100);
+        buffer[4] = '-';
+        write2(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        write2(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        write2(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        write2(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        write2(buffer, 17, value.getSecond());
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        int length = 29;
+        for (int i = 28; i > 19; i--) {
+            int digit = nano % 10;
+            nano /= 10;
+            if (digit == 0 && length == i + 1) {
+                length = i;
+            }
+            buffer[i] = (char) ('0' + digit);
+        }
+        return length;
+    }
+
+    private static void write2(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
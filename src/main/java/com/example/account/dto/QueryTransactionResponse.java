@@ -2,15 +2,24 @@ package com.example.account.dto;
 
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import lombok.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 
+import static com.example.account.dto.LeanJson.*;
+
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonSerialize(using = QueryTransactionResponse.Serializer.class)
 public class QueryTransactionResponse {
     private String accountNumber;
     private TransactionType transactionType;
@@ -30,4 +39,34 @@ public class QueryTransactionResponse {
                 .build();
 
     }
+
+    /**
+     * 거래 확인은 폴링이 잦아 리플렉션 없이 필드를 직접 쓴다.
+     */
+    static class Serializer extends StdSerializer<QueryTransactionResponse> {
+        private static final SerializedString ACCOUNT_NUMBER = name("accountNumber");
+        private static final SerializedString TRANSACTION_TYPE = name("transactionType");
+        private static final SerializedString TRANSACTION_RESULT_TYPE = name("transactionResultType");
+        private static final SerializedString TRANSACTION_ID = name("transactionId");
+        private static final SerializedString AMOUNT = name("amount");
+        private static final SerializedString TRANSACTED_AT = name("transactedAt");
+
+        Serializer() {
+            super(QueryTransactionResponse.class);
+        }
+
+        @Override
+        public void serialize(QueryTransactionResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            char[] buffer = new char[DATE_TIME_BUFFER_SIZE];
+            gen.writeStartObject();
+            writeString(gen, ACCOUNT_NUMBER, value.accountNumber);
+            writeEnum(gen, TRANSACTION_TYPE, value.transactionType);
+            writeEnum(gen, TRANSACTION_RESULT_TYPE, value.transactionResultType);
+            writeString(gen, TRANSACTION_ID, value.transactionId);
+            writeNumber(gen, AMOUNT, value.amount);
+            writeDateTime(gen, TRANSACTED_AT, value.transactedAt, buffer);
+            gen.writeEndObject();
+        }
+    }
 }
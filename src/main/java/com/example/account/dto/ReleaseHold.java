@@ -0,0 +1,52 @@
+package com.example.account.dto;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.type.HoldStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+public class ReleaseHold {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotBlank
+        @Size(max = 64)
+        private String holdId;
+
+        @NotNull
+        @Size(min=10, max=10)
+        private String accountNumber;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private String holdId;
+        private HoldStatus status;
+        private Long amount;
+        private Long balance;
+        private Long heldBalance;
+        private LocalDateTime releasedAt;
+
+        public static Response from(HoldDto holdDto) {
+            return Response.builder()
+                    .accountNumber(holdDto.getAccountNumber())
+                    .holdId(holdDto.getHoldId())
+                    .status(holdDto.getStatus())
+                    .amount(holdDto.getAmount())
+                    .balance(holdDto.getBalance())
+                    .heldBalance(holdDto.getHeldBalance())
+                    .releasedAt(holdDto.getUpdatedAt())
+                    .build();
+        }
+    }
+}
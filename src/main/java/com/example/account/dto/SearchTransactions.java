@@ -0,0 +1,41 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+public class SearchTransactions {
+    /**
+     * 비어 있는(null) 조건은 걸지 않는다. 기간은 from 이상 to 미만이다.
+     */
+    @Getter
+    @AllArgsConstructor
+    @Builder
+    public static class Condition {
+        private String accountNumber;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private Set<TransactionType> transactionTypes;
+        private Set<TransactionResultType> transactionResultTypes;
+        private Long minAmount;
+        private Long maxAmount;
+        private String cursor;
+        private Integer limit;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        // 최근 거래부터
+        private List<QueryTransactionResponse> transactions;
+        // 다음 페이지를 읽을 때 cursor 로 넘긴다. 마지막 페이지면 null.
+        private String nextCursor;
+    }
+}
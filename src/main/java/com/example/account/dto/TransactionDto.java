@@ -22,6 +22,7 @@ public class TransactionDto {
     private Long amount;
     private Long balanceSnapshot;
     private String transactionId;
+    private String linkedTransactionId;
     private LocalDateTime transactedAt;
 
     public static TransactionDto fromEntity(Transaction transaction){
@@ -32,6 +33,7 @@ public class TransactionDto {
                 .amount(transaction.getAmount())
                 .balanceSnapshot(transaction.getBalanceSnapshot())
                 .transactionId(transaction.getTransactionId())
+                .linkedTransactionId(transaction.getLinkedTransactionId())
                 .transactedAt(transaction.getTransactedAt())
                 .build();
     }
@@ -0,0 +1,68 @@
+package com.example.account.dto;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.type.TransactionResultType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class Transfer {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotNull
+        @Size(min=10, max=10)
+        private String accountNumber;
+
+        @NotNull
+        @Size(min=10, max=10)
+        private String targetAccountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+
+        @Override
+        public List<String> lockAccountNumbers() {
+            return List.of(accountNumber, targetAccountNumber);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private String targetAccountNumber;
+        private TransactionResultType transactionResultType;
+        private String transactionId;
+        private String targetTransactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+
+        public static Response from(TransactionDto transactionDto, String targetAccountNumber) {
+            return Response.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .targetAccountNumber(targetAccountNumber)
+                    .transactionResultType(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .targetTransactionId(transactionDto.getLinkedTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+    }
+}
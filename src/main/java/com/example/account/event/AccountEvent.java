@@ -0,0 +1,54 @@
+package com.example.account.event;
+
+import com.example.account.dto.AccountDto;
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * GET /account/{accountNumber}/events 로 내보내는 이벤트. SSE event 이름은 type(balance, transaction) 이다.
+ * balance 는 잔액/상태의 최신 값이라 밀리면 마지막 것만 보내고, transaction 은 건마다 보낸다.
+ * 노드 간에는 이 모양 그대로 JSON 으로 주고받는다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountEvent(
+        String type,
+        String accountNumber,
+        Long balance,
+        AccountStatus accountStatus,
+        String transactionId,
+        String linkedTransactionId,
+        TransactionType transactionType,
+        TransactionResultType transactionResultType,
+        Long amount,
+        LocalDateTime at) {
+    public static final String BALANCE = "balance";
+    public static final String TRANSACTION = "transaction";
+
+    public static AccountEvent from(AccountBalanceChanged changed) {
+        return new AccountEvent(BALANCE, changed.accountNumber(), changed.balance(), changed.accountStatus(),
+                null, null, null, null, null, changed.changedAt());
+    }
+
+    public static AccountEvent from(AccountDto account) {
+        return new AccountEvent(BALANCE, account.getAccountNumber(), account.getBalance(),
+                account.getAccountStatus(), null, null, null, null, null, LocalDateTime.now());
+    }
+
+    public static AccountEvent from(TransactionRecorded recorded) {
+        return new AccountEvent(TRANSACTION, recorded.accountNumber(), recorded.balanceSnapshot(), null,
+                recorded.transactionId(), recorded.linkedTransactionId(), recorded.transactionType(),
+                recorded.transactionResultType(), recorded.amount(), recorded.transactedAt());
+    }
+
+    /**
+     * 아직 보내지 못한 같은 종류의 이벤트를 이 이벤트로 덮어써도 되는지
+     */
+    public boolean coalesces() {
+        return BALANCE.equals(type);
+    }
+}
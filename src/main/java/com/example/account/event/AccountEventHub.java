@@ -0,0 +1,433 @@
+package com.example.account.event;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 이벤트 SSE 구독자 관리와 전달
+ * 구독자마다 보낼 이벤트를 담는 작은 버퍼만 두고 스레드는 두지 않는다. 버퍼도 보낼 것이 생길 때 만든다.
+ * 이벤트가 들어오면 그 구독자의 전달 작업을 account-events 스레드 풀에 한 번만 올리고,
+ * 작업은 버퍼가 빌 때까지 보낸 뒤 끝난다.
+ * 느린 구독자는 아래처럼 다룬다.
+ * - balance: 보내지 못한 것이 있으면 새 값으로 덮어쓴다. (coalesce)
+ * - transaction: buffer-size 개까지 쌓고, 넘치면 overflow 정책에 따라
+ *   drop-oldest 는 가장 오래된 것을 버리고 다음에 overflow 이벤트로 버린 개수를 알리며,
+ *   disconnect 는 연결을 끊어 클라이언트가 다시 구독하게 한다.
+ * 연결이 끊긴 것은 heartbeat-ms 마다 보내는 SSE 주석으로 알아챈다.
+ * 보내기는 막히는 쓰기라 받지 않는 클라이언트 하나가 전달 스레드를 잡고 있으면 다른 구독자가 모두 밀린다.
+ * 그래서 send-timeout-ms 가 넘도록 끝나지 않는 보내기는 그 구독자를 끊고 전달 스레드를 하나 더 띄워
+ * 나머지 구독자를 계속 보내게 한다. 늘린 스레드는 막힌 보내기가 끝나면 다시 줄인다.
+ */
+@Slf4j
+@Component
+public class AccountEventHub {
+    public enum Overflow {
+        DROP_OLDEST,
+        DISCONNECT
+    }
+
+    private static final String OVERFLOW_EVENT = "overflow";
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Overflow overflow;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor deliveryExecutor;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final Counter droppedEvents;
+    // 계좌에 구독자가 생기거나 마지막 구독자가 빠질 때 계좌 번호를 받는다. (AccountEventRelay 가 Redis 구독을 맞춘다)
+    private volatile Consumer<String> subscriptionListener = accountNumber -> {
+    };
+
+    public AccountEventHub(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${account.events.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${account.events.buffer-size:64}") int bufferSize,
+            @Value("${account.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${account.events.overflow:drop-oldest}") String overflow,
+            @Value("${account.events.delivery-threads:2}") int deliveryThreads,
+            @Value("${account.events.heartbeat-ms:15000}") long heartbeatMillis,
+            @Value("${account.events.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.overflow = Overflow.valueOf(overflow.trim().toUpperCase().replace('-', '_'));
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = new ThreadPoolExecutor(deliveryThreads, deliveryThreads,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "account-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatMillis > 0) {
+            heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat,
+                    heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        }
+        if (sendTimeoutMillis > 0) {
+            long checkMillis = Math.max(1, sendTimeoutMillis / 2);
+            heartbeatExecutor.scheduleWithFixedDelay(this::checkSends,
+                    checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("account.events.subscribers", subscriberCount, AtomicInteger::get)
+                    .register(registry);
+            this.droppedEvents = Counter.builder("account.events.dropped").register(registry);
+        } else {
+            this.droppedEvents = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatExecutor.shutdownNow();
+        deliveryExecutor.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    void setSubscriptionListener(Consumer<String> subscriptionListener) {
+        this.subscriptionListener = subscriptionListener;
+    }
+
+    /**
+     * 이 노드에 계좌의 구독자가 있는지
+     */
+    boolean hasSubscribers(String accountNumber) {
+        return subscribers.containsKey(accountNumber);
+    }
+
+    /**
+     * 계좌 이벤트를 구독한다. 등록한 뒤에 snapshot 으로 현재 잔액을 읽어 첫 이벤트로 보내므로
+     * 등록과 조회 사이에 커밋된 변경도 놓치지 않는다. snapshot 이 실패하면 구독도 취소된다.
+     * 다른 노드의 변경도 놓치지 않도록 subscriptionListener 도 snapshot 전에 부른다.
+     */
+    public SseEmitter subscribe(String accountNumber, Supplier<AccountEvent> snapshot) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new AccountException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        Subscriber subscriber = new Subscriber(accountNumber, newEmitter());
+        // 마지막 구독자가 빠지며 집합을 지우는 것과 겹치지 않게 compute 안에서 더한다.
+        subscribers.compute(accountNumber, (key, set) -> {
+            Set<Subscriber> targets = set == null ? ConcurrentHashMap.newKeySet() : set;
+            targets.add(subscriber);
+            return targets;
+        });
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+
+        AccountEvent initial;
+        try {
+            subscriptionListener.accept(accountNumber);
+            initial = snapshot.get();
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        if (subscriber.offerSnapshot(initial)) {
+            deliveryExecutor.execute(subscriber::drain);
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * 이 노드의 구독자에게 이벤트를 넘긴다. 보내는 일은 account-events 스레드가 한다.
+     */
+    public void deliver(AccountEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.accountNumber());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            if (subscriber.offer(event)) {
+                deliveryExecutor.execute(subscriber::drain);
+            }
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.offerHeartbeat()) {
+                deliveryExecutor.execute(subscriber::drain);
+            }
+        }));
+    }
+
+    private void checkSends() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.timeOutSend(now)) {
+                log.debug("Disconnecting subscriber of account {} : send timed out", subscriber.accountNumber);
+                remove(subscriber);
+            }
+        }));
+    }
+
+    /**
+     * 막힌 보내기가 잡고 있는 스레드만큼 전달 스레드 수를 늘리거나 줄인다.
+     */
+    private synchronized void resizeDelivery(int delta) {
+        int size = deliveryExecutor.getCorePoolSize() + delta;
+        if (delta > 0) {
+            deliveryExecutor.setMaximumPoolSize(size);
+            deliveryExecutor.setCorePoolSize(size);
+        } else {
+            deliveryExecutor.setCorePoolSize(size);
+            deliveryExecutor.setMaximumPoolSize(size);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        Set<Subscriber> remaining = subscribers.computeIfPresent(subscriber.accountNumber, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (remaining == null) {
+            subscriptionListener.accept(subscriber.accountNumber);
+        }
+    }
+
+    private void countDropped() {
+        if (droppedEvents != null) {
+            droppedEvents.increment();
+        }
+    }
+
+    private final class Subscriber {
+        private final String accountNumber;
+        private final SseEmitter emitter;
+        // 아래는 모두 this 로 잠그고 쓴다.
+        private ArrayDeque<AccountEvent> transactions;
+        private AccountEvent balance;
+        private boolean balanceSeen;
+        // balance 가 아직 보내지 않은 snapshot 이면 true. snapshot 은 먼저 쌓인 거래 이벤트보다 앞서 보낸다.
+        private boolean snapshotPending;
+        private boolean heartbeatDue;
+        private long dropped;
+        private boolean scheduled;
+        private boolean closed;
+        // 보내는 중인 전달 스레드와 시작 시각. 보내기가 send-timeout-ms 를 넘기면 sendTimedOut 이 된다.
+        private Thread sender;
+        private long sendStartedAt;
+        private boolean sendTimedOut;
+
+        private Subscriber(String accountNumber, SseEmitter emitter) {
+            this.accountNumber = accountNumber;
+            this.emitter = emitter;
+        }
+
+        /**
+         * 전달 작업을 새로 올려야 하면 true
+         */
+        private boolean offer(AccountEvent event) {
+            boolean disconnect = false;
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                if (event.coalesces()) {
+                    balance = event;
+                    balanceSeen = true;
+                    snapshotPending = false;
+                } else {
+                    if (transactions == null) {
+                        transactions = new ArrayDeque<>(Math.min(bufferSize, 8));
+                    }
+                    if (transactions.size() >= bufferSize) {
+                        countDropped();
+                        if (overflow == Overflow.DISCONNECT) {
+                            disconnect = true;
+                        } else {
+                            transactions.poll();
+                            dropped++;
+                        }
+                    }
+                    if (!disconnect) {
+                        transactions.add(event);
+                    }
+                }
+            }
+            if (disconnect) {
+                log.debug("Disconnecting slow subscriber of account {}", accountNumber);
+                emitter.complete();
+                remove(this);
+                return false;
+            }
+            return schedule();
+        }
+
+        /**
+         * 구독 뒤에 이미 balance 이벤트가 왔다면 그것이 snapshot 보다 새 값이므로 snapshot 은 버린다.
+         */
+        private boolean offerSnapshot(AccountEvent event) {
+            synchronized (this) {
+                if (closed || balanceSeen) {
+                    return false;
+                }
+                balance = event;
+                balanceSeen = true;
+                snapshotPending = true;
+            }
+            return schedule();
+        }
+
+        private boolean offerHeartbeat() {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                heartbeatDue = true;
+            }
+            return schedule();
+        }
+
+        private synchronized boolean schedule() {
+            if (scheduled || closed) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        private synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            transactions = null;
+            balance = null;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                List<AccountEvent> events;
+                AccountEvent latestBalance;
+                long droppedCount;
+                boolean heartbeat;
+                boolean snapshotFirst;
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    events = transactions == null || transactions.isEmpty() ? List.of() : new ArrayList<>(transactions);
+                    latestBalance = balance;
+                    droppedCount = dropped;
+                    heartbeat = heartbeatDue;
+                    snapshotFirst = snapshotPending;
+                    if (events.isEmpty() && latestBalance == null && droppedCount == 0 && !heartbeat) {
+                        // 쉬는 구독자는 버퍼를 들고 있지 않는다.
+                        transactions = null;
+                        scheduled = false;
+                        return;
+                    }
+                    if (transactions != null) {
+                        transactions.clear();
+                    }
+                    balance = null;
+                    snapshotPending = false;
+                    dropped = 0;
+                    heartbeatDue = false;
+                    sender = Thread.currentThread();
+                    sendStartedAt = System.nanoTime();
+                }
+                boolean timedOut;
+                try {
+                    if (droppedCount > 0) {
+                        emitter.send(SseEmitter.event().name(OVERFLOW_EVENT)
+                                .data(Map.of("dropped", droppedCount), MediaType.APPLICATION_JSON));
+                    }
+                    if (snapshotFirst) {
+                        send(latestBalance);
+                    }
+                    for (AccountEvent event : events) {
+                        send(event);
+                    }
+                    if (latestBalance != null && !snapshotFirst) {
+                        send(latestBalance);
+                    }
+                    if (heartbeat && events.isEmpty() && latestBalance == null) {
+                        emitter.send(SseEmitter.event().comment(""));
+                    }
+                } catch (Exception e) {
+                    log.debug("Account event subscriber gone for account {} : {}", accountNumber, e.toString());
+                    emitter.completeWithError(e);
+                    remove(this);
+                    return;
+                } finally {
+                    synchronized (this) {
+                        sender = null;
+                        timedOut = sendTimedOut;
+                    }
+                    // 시간이 넘어 끊으며 건 interrupt 가 다음 구독자의 보내기에 남지 않게 지운다.
+                    Thread.interrupted();
+                    if (timedOut) {
+                        resizeDelivery(-1);
+                    }
+                }
+                if (timedOut) {
+                    emitter.completeWithError(new TimeoutException("Account event send timed out"));
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 보내기가 send-timeout-ms 를 넘겼으면 끊을 것으로 표시하고 true 를 돌려준다.
+         * emitter 는 보내는 스레드가 잡고 있을 수 있으므로 여기서 건드리지 않고, 보내는 스레드를 깨운 뒤
+         * 그 스레드가 돌아올 때까지 일할 전달 스레드를 하나 더 띄운다.
+         */
+        private synchronized boolean timeOutSend(long now) {
+            if (sender == null || sendTimedOut || now - sendStartedAt < sendTimeoutNanos) {
+                return false;
+            }
+            sendTimedOut = true;
+            resizeDelivery(1);
+            sender.interrupt();
+            return true;
+        }
+
+        private void send(AccountEvent event) throws IOException {
+            emitter.send(SseEmitter.event().name(event.type()).data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.account.event;
+
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.service.RedisCircuitBreaker;
+import com.example.account.service.RedisLockRing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 커밋된 잔액/거래 변경을 계좌 이벤트로 바꿔 구독자에게 보낸다.
+ * 이 노드의 구독자에게는 바로 넘기고, cluster.enabled 면 계좌별 Redis pub/sub 채널로 다른 노드에도 알린다.
+ * 노드는 자기에게 SSE 구독자가 있는 계좌의 채널만 구독하므로, 구독자가 없는 계좌의 이벤트는 어느 노드도 받지 않는다.
+ * 메시지에 보낸 노드 id 를 담아 자기가 보낸 것은 다시 넘기지 않는다.
+ * Redis 호출은 락과 따로 자기 서킷(account.events.cluster.circuit)으로 막고,
+ * Redis 를 쓸 수 없으면(서킷 OPEN, 발행/구독 실패) 이 노드의 구독자만 받는다.
+ */
+@Slf4j
+@Component
+public class AccountEventRelay {
+    private static final String CHANNEL_PREFIX = "ACEV : ";
+
+    private final AccountEventHub accountEventHub;
+    private final RedisLockRing redisLockRing;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final boolean cluster;
+    private final String nodeId = UUID.randomUUID().toString();
+    // 이 노드가 구독 중인 계좌 채널
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AccountEventRelay(
+            AccountEventHub accountEventHub,
+            RedisLockRing redisLockRing,
+            Environment environment,
+            ObjectMapper objectMapper,
+            @Value("${account.events.cluster.enabled:false}") boolean cluster) {
+        this(accountEventHub, redisLockRing,
+                RedisCircuitBreaker.of(environment, "account.events.cluster.circuit", "event-relay",
+                        "delivering account events locally only"),
+                objectMapper, cluster);
+    }
+
+    AccountEventRelay(AccountEventHub accountEventHub, RedisLockRing redisLockRing,
+                      RedisCircuitBreaker redisCircuitBreaker, ObjectMapper objectMapper, boolean cluster) {
+        this.accountEventHub = accountEventHub;
+        this.redisLockRing = redisLockRing;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.objectMapper = objectMapper;
+        this.cluster = cluster;
+        if (cluster) {
+            accountEventHub.setSubscriptionListener(this::syncSubscription);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBalanceChanged(AccountBalanceChanged event) {
+        publish(AccountEvent.from(event));
+    }
+
+    @TransactionalEventListener
+    public void onTransactionRecorded(TransactionRecorded event) {
+        publish(AccountEvent.from(event));
+    }
+
+    private void publish(AccountEvent event) {
+        accountEventHub.deliver(event);
+        if (!cluster || !redisCircuitBreaker.allowRequest()) {
+            return;
+        }
+        String message;
+        try {
+            message = objectMapper.writeValueAsString(new Envelope(nodeId, event));
+        } catch (JsonProcessingException e) {
+            redisCircuitBreaker.onIgnored();
+            log.warn("Failed to serialize account event : {}", e.toString());
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // 커밋한 요청 스레드를 Redis 왕복만큼 붙잡지 않는다.
+            topic(event.accountNumber()).publishAsync(message).whenComplete((receivers, e) -> {
+                if (e == null) {
+                    redisCircuitBreaker.onSuccess(System.nanoTime() - start);
+                } else {
+                    redisCircuitBreaker.onError();
+                    log.debug("Failed to publish account event : {}", e.toString());
+                }
+            });
+        } catch (RuntimeException e) {
+            redisCircuitBreaker.onError();
+            log.debug("Failed to publish account event : {}", e.toString());
+        }
+    }
+
+    /**
+     * 이 노드에 계좌 구독자가 있으면 계좌 채널을 구독하고, 없으면 구독을 푼다.
+     * 구독은 hub 가 snapshot 을 읽기 전에 끝나므로 그 사이 다른 노드에서 커밋된 변경도 받는다.
+     * 구독에 실패하면 다음 구독자가 올 때 다시 시도한다.
+     */
+    private void syncSubscription(String accountNumber) {
+        subscriptions.compute(accountNumber, (key, current) -> {
+            boolean wanted = accountEventHub.hasSubscribers(key);
+            if (wanted && current == null) {
+                return subscribe(key);
+            }
+            if (!wanted && current != null) {
+                unsubscribe(current);
+                return null;
+            }
+            return current;
+        });
+    }
+
+    private Subscription subscribe(String accountNumber) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            RTopic topic = topic(accountNumber);
+            int listenerId = topic.addListener(String.class, (channel, message) -> receive(message));
+            redisCircuitBreaker.onSuccess(System.nanoTime() - start);
+            return new Subscription(topic, listenerId);
+        } catch (RuntimeException e) {
+            redisCircuitBreaker.onError();
+            log.warn("Failed to subscribe account events of {}, delivering locally only : {}",
+                    accountNumber, e.toString());
+            return null;
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        // 서킷이 열려 있어도 푼다. 실패하면 Redisson 이 연결을 다시 맺을 때까지 받는 메시지는 hub 가 버린다.
+        subscription.topic().removeListenerAsync(subscription.listenerId()).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.debug("Failed to unsubscribe account events : {}", e.toString());
+            }
+        });
+    }
+
+    private RTopic topic(String accountNumber) {
+        String channel = CHANNEL_PREFIX + accountNumber;
+        return redisLockRing.clientFor(channel).getTopic(channel, StringCodec.INSTANCE);
+    }
+
+    private void receive(String message) {
+        try {
+            Envelope envelope = objectMapper.readValue(message, Envelope.class);
+            if (!nodeId.equals(envelope.origin())) {
+                accountEventHub.deliver(envelope.event());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed account event : {}", e.toString());
+        }
+    }
+
+    private record Subscription(RTopic topic, int listenerId) {
+    }
+
+    record Envelope(String origin, AccountEvent event) {
+    }
+}
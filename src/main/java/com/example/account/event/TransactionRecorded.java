@@ -0,0 +1,34 @@
+package com.example.account.event;
+
+import com.example.account.domain.Transaction;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 한 건이 기록됐다는 이벤트. 실패 거래도 포함한다.
+ * 서비스가 트랜잭션 안에서 발행하고, AccountEventRelay 는 커밋된 것만 받는다.
+ */
+public record TransactionRecorded(
+        String accountNumber,
+        String transactionId,
+        String linkedTransactionId,
+        TransactionType transactionType,
+        TransactionResultType transactionResultType,
+        Long amount,
+        Long balanceSnapshot,
+        LocalDateTime transactedAt) {
+
+    public static TransactionRecorded from(Transaction transaction) {
+        return new TransactionRecorded(
+                transaction.getAccount().getAccountNumber(),
+                transaction.getTransactionId(),
+                transaction.getLinkedTransactionId(),
+                transaction.getTrasactionType(),
+                transaction.getTransactionResultType(),
+                transaction.getAmount(),
+                transaction.getBalanceSnapshot(),
+                transaction.getTransactedAt());
+    }
+}
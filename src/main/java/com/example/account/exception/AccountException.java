@@ -1,7 +1,6 @@
 package com.example.account.exception;
 
 import com.example.account.type.ErrorCode;
-import jakarta.annotation.PreDestroy;
 import lombok.*;
 
 
@@ -18,4 +17,12 @@ public class AccountException extends RuntimeException{
         this.errorCode = errorCode;
         this.errorMessage = errorCode.getDescription();
     }
+
+    /**
+     * 잔액 부족, 락 획득 실패 등 정상 흐름에서 자주 발생하는 예외라 스택 트레이스를 만들지 않는다.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
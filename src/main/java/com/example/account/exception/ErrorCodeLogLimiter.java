@@ -0,0 +1,40 @@
+package com.example.account.exception;
+
+import com.example.account.type.ErrorCode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ErrorCode 별로 interval 마다 한 번만 로그를 남기도록 제한한다.
+ * 건너뛴 횟수는 다음 로그에 함께 남긴다.
+ */
+class ErrorCodeLogLimiter {
+    private final long intervalNanos;
+    private final AtomicLongArray nextLogAt = new AtomicLongArray(ErrorCode.values().length);
+    private final AtomicLong[] suppressed = new AtomicLong[ErrorCode.values().length];
+
+    ErrorCodeLogLimiter(long interval, TimeUnit unit) {
+        this.intervalNanos = unit.toNanos(interval);
+        long now = System.nanoTime();
+        for (int i = 0; i < suppressed.length; i++) {
+            nextLogAt.set(i, now);
+            suppressed[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * @return 이번에 로그를 남겨야 하면 그동안 건너뛴 횟수(0 이상), 아니면 -1
+     */
+    long tryAcquire(ErrorCode errorCode) {
+        int index = errorCode.ordinal();
+        long now = System.nanoTime();
+        long next = nextLogAt.get(index);
+        if (now - next >= 0 && nextLogAt.compareAndSet(index, next, now + intervalNanos)) {
+            return suppressed[index].getAndSet(0);
+        }
+        suppressed[index].incrementAndGet();
+        return -1;
+    }
+}
@@ -1,46 +1,86 @@
 package com.example.account.exception;
 
 import com.example.account.dto.ErrorResponse;
+import com.example.account.metrics.RequestTimings;
 import com.example.account.type.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    // 응답 본문은 ErrorCode 별로 미리 만들어 재사용한다.
+    private static final Map<ErrorCode, ErrorResponse> ERROR_RESPONSES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            ERROR_RESPONSES.put(errorCode, new ErrorResponse(errorCode, errorCode.getDescription()));
+        }
+    }
+
+    private final ErrorCodeLogLimiter logLimiter = new ErrorCodeLogLimiter(1, TimeUnit.SECONDS);
+
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e){
-        log.error("{} is occurred",e.getErrorCode());
+        long suppressed = e.getErrorCode() == null ? 0 : logLimiter.tryAcquire(e.getErrorCode());
+        if (suppressed >= 0) {
+            log.warn("{} is occurred (suppressed {} since last log)", e.getErrorCode(), suppressed);
+        }
+        RequestTimings.setErrorCode(e.getErrorCode());
 
-        return new ErrorResponse(e.getErrorCode(),e.getErrorMessage());
+        return errorResponse(e.getErrorCode(), e.getErrorMessage());
+    }
+
+    static ErrorResponse errorResponse(ErrorCode errorCode, String errorMessage) {
+        if (errorCode != null && Objects.equals(errorCode.getDescription(), errorMessage)) {
+            return ERROR_RESPONSES.get(errorCode);
+        }
+        return new ErrorResponse(errorCode, errorMessage);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException e){
         log.error("MethodArgumentNotValidException is occurred",e);
+        RequestTimings.setErrorCode(ErrorCode.INVALID_REQUEST);
 
-        return new ErrorResponse(ErrorCode.INVALID_REQUEST,
-                ErrorCode.INVALID_REQUEST.getDescription());
+        return ERROR_RESPONSES.get(ErrorCode.INVALID_REQUEST);
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e){
         log.error("DataIntegrityViolationException is occurred",e);
+        RequestTimings.setErrorCode(ErrorCode.INVALID_REQUEST);
+
+        return ERROR_RESPONSES.get(ErrorCode.INVALID_REQUEST);
+    }
+
+    /**
+     * 다른 노드가 같은 계좌를 먼저 고쳐 커밋한 경우. 계좌 락을 얻지 못한 것과 같이 답한다.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException e){
+        log.warn("OptimisticLockingFailureException is occurred : {}", e.getMessage());
+        RequestTimings.setErrorCode(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
 
-        return new ErrorResponse(ErrorCode.INVALID_REQUEST,
-                ErrorCode.INVALID_REQUEST.getDescription());
+        return ERROR_RESPONSES.get(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
     }
 
-    @ExceptionHandler(Exception.class)
+        @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e){
         log.error("Exception is occurred",e);
+        RequestTimings.setErrorCode(ErrorCode.INTERNAL_SERVER_ERROR);
 
-        return new ErrorResponse(ErrorCode.INTERNAL_SERVER_ERROR,
-                ErrorCode.INTERNAL_SERVER_ERROR.getDescription());
+        return ERROR_RESPONSES.get(ErrorCode.INTERNAL_SERVER_ERROR);
     }
 }
@@ -0,0 +1,57 @@
+package com.example.account.hotaccount;
+
+import com.example.account.util.KeyHash;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정 크기 count-min sketch
+ * 키마다 depth 개의 칸에 값을 더하고, 그중 가장 작은 값을 추정치로 쓴다.
+ * 추정치는 실제보다 작지 않고, 전체 합의 (depth 개 칸이 모두 겹칠 확률만큼) 일부를 넘게 부풀려지지 않는다.
+ * 락 없이 여러 스레드가 동시에 더할 수 있다.
+ */
+final class CountMinSketch {
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * width 는 2 의 거듭제곱으로 올림한다.
+     */
+    CountMinSketch(int depth, int width) {
+        int roundedWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(depth * roundedWidth);
+    }
+
+    void add(String key, long weight) {
+        long hash = KeyHash.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(index(row, h1, h2), weight);
+        }
+    }
+
+    long estimate(String key) {
+        long hash = KeyHash.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0L);
+        }
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.account.hotaccount;
+
+/**
+ * 구간 안의 추정 합계와 초당 값. 요청은 건수, 락 대기는 밀리초 단위다.
+ */
+public record HotAccount(String accountNumber, double total, double perSecond) {
+}
@@ -0,0 +1,178 @@
+package com.example.account.hotaccount;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 계좌별 요청 수와 락 대기 시간을 고정 메모리로 세어 가장 무거운 계좌를 찾는다.
+ * window-seconds 를 slots 개의 시간 칸으로 나누고, 칸마다 count-min sketch 와 상위 top-k 후보를 둔다.
+ * 오래된 칸은 다시 쓸 때 비우므로 메모리는 계좌 수와 상관없이 (칸 수 x sketch 크기) 로 고정이다.
+ * 조회할 때는 최근 칸들의 후보를 모아 sketch 추정치의 합으로 순위를 매긴다.
+ */
+@Component
+public class HotAccountTracker {
+    public enum Metric {
+        REQUESTS,
+        LOCK_WAIT
+    }
+
+    private final boolean enabled;
+    private final int windowSeconds;
+    private final long slotNanos;
+    private final int topK;
+    private final LongSupplier nanoClock;
+    private final Map<Metric, Slot[]> slots = new EnumMap<>(Metric.class);
+
+    @Autowired
+    public HotAccountTracker(
+            @Value("${account.hot-accounts.enabled:true}") boolean enabled,
+            @Value("${account.hot-accounts.window-seconds:60}") int windowSeconds,
+            @Value("${account.hot-accounts.slots:6}") int slotCount,
+            @Value("${account.hot-accounts.sketch-depth:4}") int depth,
+            @Value("${account.hot-accounts.sketch-width:2048}") int width,
+            @Value("${account.hot-accounts.top-k:32}") int topK) {
+        this(enabled, windowSeconds, slotCount, depth, width, topK, System::nanoTime);
+    }
+
+    HotAccountTracker(boolean enabled, int windowSeconds, int slotCount, int depth, int width, int topK,
+                      LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.windowSeconds = windowSeconds;
+        this.slotNanos = TimeUnit.SECONDS.toNanos(windowSeconds) / slotCount;
+        this.topK = topK;
+        this.nanoClock = nanoClock;
+        for (Metric metric : Metric.values()) {
+            Slot[] ring = new Slot[slotCount];
+            for (int i = 0; i < slotCount; i++) {
+                ring[i] = new Slot(depth, width, topK);
+            }
+            slots.put(metric, ring);
+        }
+    }
+
+    public void recordRequest(Collection<String> accountNumbers) {
+        record(Metric.REQUESTS, accountNumbers, 1L);
+    }
+
+    /**
+     * 락을 잡거나 포기할 때까지 기다린 시간. 계좌 여러 개를 함께 잠갔으면 각 계좌에 모두 더한다.
+     */
+    public void recordLockWait(Collection<String> accountNumbers, long waitNanos) {
+        record(Metric.LOCK_WAIT, accountNumbers, TimeUnit.NANOSECONDS.toMicros(waitNanos));
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * 최근 windowSeconds 동안(칸 단위로 올림, 1초 ~ window-seconds) 가장 무거운 계좌 limit 개.
+     */
+    public List<HotAccount> top(Metric metric, int limit, long windowSeconds) {
+        long now = nanoClock.getAsLong();
+        long currentEpoch = Math.floorDiv(now, slotNanos);
+        Slot[] ring = slots.get(metric);
+        // 나노초로 바꾸기 전에 줄여야 큰 값이 넘쳐 칸 하나로 계산되지 않는다.
+        long window = Math.min(Math.max(windowSeconds, 1L), this.windowSeconds);
+        int slotCount = (int) Math.min(ring.length,
+                Math.max(1, (TimeUnit.SECONDS.toNanos(window) + slotNanos - 1) / slotNanos));
+
+        List<Slot> live = new ArrayList<>(slotCount);
+        for (long epoch = currentEpoch - slotCount + 1; epoch <= currentEpoch; epoch++) {
+            Slot slot = ring[(int) Math.floorMod(epoch, (long) ring.length)];
+            if (slot.epoch == epoch) {
+                live.add(slot);
+            }
+        }
+        Set<String> candidates = new HashSet<>();
+        live.forEach(slot -> candidates.addAll(slot.candidates.keySet()));
+
+        // 지금 칸은 시작한 지 얼마 안 됐을 수 있어 실제로 지난 시간으로 나눈다.
+        double seconds = ((slotCount - 1) * slotNanos + (now - currentEpoch * slotNanos)) / 1e9;
+        double scale = metric == Metric.LOCK_WAIT ? 1000.0 : 1.0;
+        return candidates.stream()
+                .map(accountNumber -> {
+                    long total = 0;
+                    for (Slot slot : live) {
+                        total += slot.sketch.estimate(accountNumber);
+                    }
+                    return new HotAccount(accountNumber, total / scale, total / scale / seconds);
+                })
+                .filter(hotAccount -> hotAccount.total() > 0)
+                .sorted(Comparator.comparingDouble(HotAccount::total).reversed())
+                .limit(Math.max(0, Math.min(limit, topK)))
+                .toList();
+    }
+
+    private void record(Metric metric, Collection<String> accountNumbers, long weight) {
+        if (!enabled || weight <= 0) {
+            return;
+        }
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), slotNanos);
+        Slot[] ring = slots.get(metric);
+        Slot slot = ring[(int) Math.floorMod(epoch, (long) ring.length)];
+        slot.rollTo(epoch);
+        for (String accountNumber : accountNumbers) {
+            slot.sketch.add(accountNumber, weight);
+            slot.offer(accountNumber, slot.sketch.estimate(accountNumber));
+        }
+    }
+
+    private static final class Slot {
+        private final CountMinSketch sketch;
+        private final int capacity;
+        // 이 칸에서 추정치가 큰 계좌 후보. capacity 개를 넘으면 가장 작은 것을 뺀다.
+        private final ConcurrentHashMap<String, Long> candidates = new ConcurrentHashMap<>();
+        private volatile long epoch = Long.MIN_VALUE;
+        private volatile long floor;
+
+        private Slot(int depth, int width, int capacity) {
+            this.sketch = new CountMinSketch(depth, width);
+            this.capacity = capacity;
+        }
+
+        /**
+         * 칸이 이전 구간의 것이면 비운다. 비우는 동안 들어온 기록 몇 건은 잃을 수 있다.
+         */
+        private void rollTo(long target) {
+            if (epoch == target) {
+                return;
+            }
+            synchronized (this) {
+                if (epoch != target) {
+                    sketch.clear();
+                    candidates.clear();
+                    floor = 0L;
+                    epoch = target;
+                }
+            }
+        }
+
+        private void offer(String accountNumber, long estimate) {
+            // 이미 후보면 값만 올린다. 값은 커지기만 하므로 floor 는 여전히 하한이다.
+            if (candidates.computeIfPresent(accountNumber, (key, value) -> Math.max(value, estimate)) != null) {
+                return;
+            }
+            if (candidates.size() >= capacity && estimate <= floor) {
+                return;
+            }
+            synchronized (this) {
+                candidates.merge(accountNumber, estimate, Math::max);
+                if (candidates.size() > capacity) {
+                    candidates.entrySet().stream()
+                            .min(Map.Entry.comparingByValue())
+                            .ifPresent(min -> candidates.remove(min.getKey(), min.getValue()));
+                }
+                if (candidates.size() >= capacity) {
+                    floor = candidates.values().stream().mapToLong(Long::longValue).min().orElse(0L);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.account.hotaccount;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/hotaccounts?limit=10&windowSeconds=60
+ * 최근 구간에서 요청이 가장 많은 계좌와 락 대기 시간이 가장 긴 계좌를 보여준다.
+ * windowSeconds 를 주지 않으면 설정한 window-seconds 전체를 보고, 그보다 길게 주면 window-seconds 로 줄인다.
+ * slowtraces 처럼 범위를 벗어난 값은 오류 대신 가까운 값(limit 0, windowSeconds 1)으로 맞춘다.
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountsEndpoint {
+    private final HotAccountTracker hotAccountTracker;
+
+    @ReadOperation
+    public Report hotAccounts(@Nullable Integer limit, @Nullable Long windowSeconds) {
+        int top = limit == null ? 10 : Math.max(limit, 0);
+        long window = windowSeconds == null ? hotAccountTracker.getWindowSeconds() : Math.max(windowSeconds, 1);
+        return new Report(
+                hotAccountTracker.top(HotAccountTracker.Metric.REQUESTS, top, window),
+                hotAccountTracker.top(HotAccountTracker.Metric.LOCK_WAIT, top, window));
+    }
+
+    /**
+     * requests 는 초당 요청 수, lockWaitMillis 는 초당 락 대기 밀리초 순이다.
+     */
+    public record Report(List<HotAccount> requests, List<HotAccount> lockWaitMillis) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌/거래 API 요청 시간을 route 와 결과 ErrorCode 별로 기록한다.
+ * GlobalExceptionHandler 는 항상 200 을 돌려주므로 HTTP status 대신 ErrorCode 로 결과를 구분한다.
+ *
+ * account.api.requests  : 전체 요청 시간 (method, uri, errorCode)
+ * account.api.db        : 요청 중 JDBC 실행/커밋에 쓴 시간 (method, uri)
+ * account.api.lock      : 요청 중 Redis 락 획득/해제에 쓴 시간 (method, uri)
+ *
+ * 비동기 요청은 async dispatch 가 끝날 때 한 번 기록한다.
+ * 다른 스레드에서 쓴 DB/락 시간은 집계되지 않는다.
+ */
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    static final String REQUESTS = "account.api.requests";
+    static final String DB = "account.api.db";
+    static final String LOCK = "account.api.lock";
+    static final String NONE = "NONE";
+
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+    private static final String TIMINGS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".timings";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(TIMINGS_ATTRIBUTE) instanceof RequestTimings timings) {
+            RequestTimings.resume(timings);
+            return true;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        request.setAttribute(TIMINGS_ATTRIBUTE, RequestTimings.start());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestTimings.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        RequestTimings timings = RequestTimings.current();
+        RequestTimings.clear();
+        if (start == null || timings == null) {
+            return;
+        }
+
+        String method = request.getMethod();
+        String uri = route(request);
+        ErrorCode errorCode = timings.getErrorCode();
+        if (errorCode == null && ex != null) {
+            errorCode = ErrorCode.INTERNAL_SERVER_ERROR;
+        }
+
+        timer(REQUESTS, method, uri, errorCode == null ? NONE : errorCode.name())
+                .record(System.nanoTime() - (long) start, TimeUnit.NANOSECONDS);
+        timer(DB, method, uri, null).record(timings.getDbNanos(), TimeUnit.NANOSECONDS);
+        timer(LOCK, method, uri, null).record(timings.getLockNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String method, String uri, String errorCode) {
+        String key = name + ' ' + method + ' ' + uri + ' ' + errorCode;
+        return timers.computeIfAbsent(key, k -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .tag("method", method)
+                    .tag("uri", uri);
+            if (errorCode != null) {
+                builder.tag("errorCode", errorCode);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
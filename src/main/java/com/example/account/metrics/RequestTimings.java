@@ -0,0 +1,69 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+
+/**
+ * 요청 스레드 단위로 DB 시간, 락 시간, 결과 ErrorCode 를 모아둔다.
+ * RequestMetricsInterceptor 가 요청 시작 시 열고 완료 시 닫는다.
+ */
+public final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private long dbNanos;
+    private long lockNanos;
+    private ErrorCode errorCode;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void resume(RequestTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void addDbTime(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.dbNanos += nanos;
+        }
+    }
+
+    public static void addLockTime(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.lockNanos += nanos;
+        }
+    }
+
+    public static void setErrorCode(ErrorCode errorCode) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.errorCode = errorCode;
+        }
+    }
+
+    long getDbNanos() {
+        return dbNanos;
+    }
+
+    long getLockNanos() {
+        return lockNanos;
+    }
+
+    ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
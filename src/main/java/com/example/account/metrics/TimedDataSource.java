@@ -0,0 +1,76 @@
+package com.example.account.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * DataSource 를 감싸 Statement 실행과 commit/rollback 에 걸린 시간을 RequestTimings 에 더한다.
+ * 요청 밖(스케줄러, 초기화 스크립트 등)의 호출은 RequestTimings 가 없으므로 무시된다.
+ */
+public final class TimedDataSource {
+    private TimedDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, new TimingHandler(target));
+    }
+
+    private static class TimingHandler implements InvocationHandler {
+        private final Object target;
+
+        TimingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args[0] instanceof Class<?> type && type.isInstance(target)) {
+                return target;
+            }
+            boolean timed = target instanceof Statement && name.startsWith("execute")
+                    || target instanceof Connection && (name.equals("commit") || name.equals("rollback"));
+            long start = timed ? System.nanoTime() : 0L;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (timed) {
+                    RequestTimings.addDbTime(System.nanoTime() - start);
+                }
+            }
+            return wrapResult(result);
+        }
+
+        private static Object wrapResult(Object result) {
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection);
+            }
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement);
+            }
+            return result;
+        }
+    }
+}
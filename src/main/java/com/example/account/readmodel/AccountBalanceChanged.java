@@ -0,0 +1,27 @@
+package com.example.account.readmodel;
+
+import com.example.account.domain.Account;
+import com.example.account.type.AccountStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 잔액이나 상태가 바뀌었다는 이벤트. 바뀐 뒤의 값을 그대로 담는다.
+ * 서비스가 트랜잭션 안에서 발행하고, AccountReadModel 은 커밋된 것만 받는다.
+ */
+public record AccountBalanceChanged(
+        Long userId,
+        String accountNumber,
+        Long balance,
+        AccountStatus accountStatus,
+        LocalDateTime changedAt) {
+
+    public static AccountBalanceChanged from(Account account) {
+        return new AccountBalanceChanged(
+                account.getAccountUser().getId(),
+                account.getAccountNumber(),
+                account.getBalance(),
+                account.getAccountStatus(),
+                LocalDateTime.now());
+    }
+}
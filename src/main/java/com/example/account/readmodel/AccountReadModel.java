@@ -0,0 +1,223 @@
+package com.example.account.readmodel;
+
+import com.example.account.domain.AccountBalanceView;
+import com.example.account.dto.AccountDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountBalanceViewRepository;
+import com.example.account.service.AccountService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 계좌 목록 조회용 읽기 모델(AccountBalanceView) 갱신과 조회
+ * 커밋된 AccountBalanceChanged 를 큐에 넣고, read-model-applier 스레드 하나가 묶어서 반영한다.
+ * 큐에 남은 가장 오래된 변경의 나이가 staleness 이고, account.read-model.max-staleness-ms 를 넘으면
+ * 조회는 읽기 모델 대신 원본 Account 로 간다.
+ * 큐가 가득 차거나 반영에 실패한 사용자는 원본에서 다시 읽어 채울 때까지 읽기 모델로 답하지 않는다.
+ */
+@Slf4j
+@Component
+public class AccountReadModel {
+    private static final long REPAIR_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AccountBalanceViewRepository viewRepository;
+    private final AccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long maxStalenessMillis;
+    private final int batchSize;
+    private final LinkedBlockingQueue<PendingChange> queue;
+    // 사용자 id -> 표시한 횟수. 복구 중 다시 표시되면 복구가 끝나도 지우지 않는다.
+    private final Map<Long, Long> dirtyUsers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread applierThread;
+    private long lastRepairNanos;
+
+    public AccountReadModel(
+            AccountBalanceViewRepository viewRepository,
+            AccountService accountService,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${account.read-model.enabled:true}") boolean enabled,
+            @Value("${account.read-model.max-staleness-ms:2000}") long maxStalenessMillis,
+            @Value("${account.read-model.queue-capacity:65536}") int queueCapacity,
+            @Value("${account.read-model.batch-size:256}") int batchSize) {
+        this.viewRepository = viewRepository;
+        this.accountService = accountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("account.readmodel.staleness", this, AccountReadModel::getStalenessMillis)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("account.readmodel.pending", queue, Collection::size)
+                    .register(registry);
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        applierThread = new Thread(this::runApplier, "read-model-applier");
+        applierThread.setDaemon(true);
+        applierThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (applierThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(applierThread);
+        applierThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @TransactionalEventListener
+    public void onBalanceChanged(AccountBalanceChanged event) {
+        if (!running) {
+            return;
+        }
+        if (!queue.offer(new PendingChange(event, System.nanoTime()))) {
+            markDirty(event.userId());
+        }
+    }
+
+    /**
+     * 일괄 생성된 사용자는 계좌별 변경 대신 원본에서 다시 읽어 채운다. 그때까지는 원본으로 답한다.
+     */
+    @TransactionalEventListener
+    public void onAccountsImported(AccountsImported event) {
+        if (!running) {
+            return;
+        }
+        event.userIds().forEach(this::markDirty);
+    }
+
+    /**
+     * 읽기 모델로 답할 수 있으면 계좌번호 순 목록을, 아니면 empty 를 돌려준다.
+     * 읽기 모델에 없는 사용자(계좌가 없거나 없는 사용자)도 empty 라서 원본이 판단한다.
+     */
+    public Optional<List<AccountBalanceView>> findAccounts(Long userId) {
+        if (!running || dirtyUsers.containsKey(userId) || getStalenessMillis() > maxStalenessMillis) {
+            return Optional.empty();
+        }
+        List<AccountBalanceView> views = viewRepository.findByUserIdOrderByAccountNumber(userId);
+        return views.isEmpty() ? Optional.empty() : Optional.of(views);
+    }
+
+    /**
+     * 커밋됐지만 아직 반영되지 않은 가장 오래된 변경의 나이. 다 반영했으면 0.
+     */
+    public long getStalenessMillis() {
+        PendingChange oldest = queue.peek();
+        return oldest == null ? 0L : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.committedNanos());
+    }
+
+    private void runApplier() {
+        List<PendingChange> batch = new ArrayList<>(batchSize);
+        while (running) {
+            // 반영이 끝날 때까지 큐에 남겨 두어 staleness 가 반영 중인 변경까지 센다.
+            Iterator<PendingChange> pending = queue.iterator();
+            while (pending.hasNext() && batch.size() < batchSize) {
+                batch.add(pending.next());
+            }
+            if (batch.isEmpty()) {
+                repairDirtyUsers();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                continue;
+            }
+            apply(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                queue.poll();
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(List<PendingChange> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batch.forEach(change -> upsert(change.event())));
+        } catch (RuntimeException e) {
+            log.warn("Read model update failed, rebuilding affected users : {}", e.toString());
+            batch.forEach(change -> markDirty(change.event().userId()));
+        }
+    }
+
+    private void upsert(AccountBalanceChanged event) {
+        Optional<AccountBalanceView> current = viewRepository.findById(event.accountNumber());
+        if (current.isEmpty()) {
+            viewRepository.save(AccountBalanceView.builder()
+                    .accountNumber(event.accountNumber())
+                    .userId(event.userId())
+                    .balance(event.balance())
+                    .accountStatus(event.accountStatus())
+                    .changedAt(event.changedAt())
+                    .build());
+            return;
+        }
+        AccountBalanceView view = current.get();
+        if (view.getChangedAt().isAfter(event.changedAt())) {
+            return;
+        }
+        view.setBalance(event.balance());
+        view.setAccountStatus(event.accountStatus());
+        view.setChangedAt(event.changedAt());
+    }
+
+    private void markDirty(Long userId) {
+        dirtyUsers.merge(userId, 1L, Long::sum);
+    }
+
+    private void repairDirtyUsers() {
+        if (dirtyUsers.isEmpty() || System.nanoTime() - lastRepairNanos < REPAIR_INTERVAL_NANOS) {
+            return;
+        }
+        lastRepairNanos = System.nanoTime();
+        for (Map.Entry<Long, Long> dirty : new ArrayList<>(dirtyUsers.entrySet())) {
+            repair(dirty.getKey(), dirty.getValue());
+        }
+    }
+
+    private void repair(Long userId, Long mark) {
+        LocalDateTime readAt = LocalDateTime.now();
+        try {
+            List<AccountDto> accounts = accountService.getAccountsByUserId(userId);
+            transactionTemplate.executeWithoutResult(status -> accounts.forEach(account ->
+                    upsert(new AccountBalanceChanged(userId, account.getAccountNumber(),
+                            account.getBalance(), account.getAccountStatus(), readAt))));
+            dirtyUsers.remove(userId, mark);
+        } catch (AccountException e) {
+            dirtyUsers.remove(userId, mark);
+        } catch (RuntimeException e) {
+            log.warn("Read model rebuild failed for userId : {} : {}", userId, e.toString());
+        }
+    }
+
+    private record PendingChange(AccountBalanceChanged event, long committedNanos) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.account.readmodel;
+
+import java.util.Set;
+
+/**
+ * 일괄 생성으로 계좌가 생긴 사용자들. 계좌마다 AccountBalanceChanged 를 내면 큐가 넘치므로
+ * 묶음마다 한 번만 내고, AccountReadModel 은 이 사용자들을 원본에서 다시 읽어 채운다.
+ */
+public record AccountsImported(Set<Long> userIds) {
+}
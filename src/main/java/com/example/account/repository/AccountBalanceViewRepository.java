@@ -0,0 +1,12 @@
+package com.example.account.repository;
+
+import com.example.account.domain.AccountBalanceView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountBalanceViewRepository extends JpaRepository<AccountBalanceView, String> {
+    List<AccountBalanceView> findByUserIdOrderByAccountNumber(Long userId);
+}
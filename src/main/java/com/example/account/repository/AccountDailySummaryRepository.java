@@ -0,0 +1,32 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountDailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountDailySummaryRepository extends JpaRepository<AccountDailySummary, Long> {
+    List<AccountDailySummary> findByAccountAndSummaryDateBetweenOrderBySummaryDate(
+            Account account, LocalDate from, LocalDate to);
+
+    /**
+     * 읽지 않고 한 문장으로 더한다. 그날 행이 아직 없으면 0 을 돌려주고, 호출하는 쪽이 계좌 행을 잠근 뒤 다시 더하거나 행을 만든다.
+     */
+    @Modifying
+    @Query("update AccountDailySummary s set"
+            + " s.usedCount = s.usedCount + :#{#delta.usedCount},"
+            + " s.usedAmount = s.usedAmount + :#{#delta.usedAmount},"
+            + " s.cancelledCount = s.cancelledCount + :#{#delta.cancelledCount},"
+            + " s.cancelledAmount = s.cancelledAmount + :#{#delta.cancelledAmount},"
+            + " s.failedCount = s.failedCount + :#{#delta.failedCount},"
+            + " s.updatedAt = local datetime"
+            + " where s.account = :#{#delta.account} and s.summaryDate = :#{#delta.summaryDate}")
+    int add(@Param("delta") AccountDailySummary delta);
+}
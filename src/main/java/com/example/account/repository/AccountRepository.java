@@ -3,18 +3,43 @@ package com.example.account.repository;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findFirstByOrderByIdDesc();
-
-    Integer countByAccountUser(AccountUser accountUser);
+    /**
+     * 계좌번호는 모두 10자리라 문자열 순서가 숫자 순서와 같다. account_number 유니크 인덱스 끝에서 한 행만 읽는다.
+     */
+    Optional<Account> findFirstByOrderByAccountNumberDesc();
 
     Optional<Account> findByAccountNumber(String AccountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    /**
+     * 조건부 GET 용. 엔티티를 만들지 않고 GET /account/{id} 응답에 담기는 계좌/사용자의 변경 정보만 읽는다.
+     */
+    @Query("select a.updatedAt as updatedAt, u.updatedAt as userUpdatedAt, u.accountCount as accountCount"
+            + " from Account a left join a.accountUser u where a.id = :id")
+    Optional<AccountVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * 계좌 행을 트랜잭션이 끝날 때까지 잠근다. 엔티티를 읽지 않으므로 @Version 검사 없이 잠그기만 한다.
+     */
+    @Query(value = "select id from account where id = :id for update", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+
+    interface AccountVersion {
+        LocalDateTime getUpdatedAt();
+
+        LocalDateTime getUserUpdatedAt();
+
+        Integer getAccountCount();
+    }
 }
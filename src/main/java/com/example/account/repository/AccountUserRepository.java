@@ -2,8 +2,27 @@ package com.example.account.repository;
 
 import com.example.account.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AccountUserRepository extends JpaRepository<AccountUser,Long> {
+    /**
+     * 계좌 수가 max 보다 작을 때만 1 올린다. 올렸으면 1, 한도에 걸렸으면 0 을 돌려준다.
+     * 사용자 행에 쓰기 락이 걸리므로 같은 사용자의 계좌 생성은 트랜잭션이 끝날 때까지 줄을 선다.
+     */
+    @Modifying
+    @Query("update AccountUser u set u.accountCount = u.accountCount + 1"
+            + " where u.id = :userId and u.accountCount < :max")
+    int incrementAccountCount(@Param("userId") Long userId, @Param("max") int max);
+
+    /**
+     * 일괄 생성용. 계좌 수에 count 를 더해도 max 이하일 때만 더한다.
+     */
+    @Modifying
+    @Query("update AccountUser u set u.accountCount = u.accountCount + :count"
+            + " where u.id = :userId and u.accountCount + :count <= :max")
+    int addAccountCount(@Param("userId") Long userId, @Param("count") int count, @Param("max") int max);
 }
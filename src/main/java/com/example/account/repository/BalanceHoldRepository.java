@@ -0,0 +1,54 @@
+package com.example.account.repository;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+    Optional<BalanceHold> findByHoldId(String holdId);
+
+    /**
+     * 재시작 후 timing wheel 을 다시 채울 때만 쓴다. 엔티티 대신 만료에 필요한 값만 읽는다.
+     * 한 번에 다 읽지 않도록 (expiresAt, holdId) 순으로 pageable 만큼 읽고, 다음 페이지는 findExpiriesByStatusAfter 로 읽는다.
+     */
+    @Query("select h.holdId as holdId, a.accountNumber as accountNumber, h.expiresAt as expiresAt"
+            + " from BalanceHold h join h.account a where h.status = :status"
+            + " order by h.expiresAt, h.holdId")
+    List<HoldExpiry> findExpiriesByStatus(@Param("status") HoldStatus status, Pageable pageable);
+
+    /**
+     * 앞 페이지의 마지막 (expiresAt, holdId) 다음부터 읽는다. offset 없이 (status, expiresAt) 인덱스 범위만 읽는다.
+     */
+    @Query("select h.holdId as holdId, a.accountNumber as accountNumber, h.expiresAt as expiresAt"
+            + " from BalanceHold h join h.account a where h.status = :status"
+            + " and (h.expiresAt > :expiresAt or (h.expiresAt = :expiresAt and h.holdId > :holdId))"
+            + " order by h.expiresAt, h.holdId")
+    List<HoldExpiry> findExpiriesByStatusAfter(@Param("status") HoldStatus status,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("holdId") String holdId, Pageable pageable);
+
+    /**
+     * 만료 시각이 before 이전인데 아직 HELD 인 홀드를 만료 시각 순으로 읽는다. (status, expiresAt) 인덱스 범위만 읽는다.
+     */
+    @Query("select h.holdId as holdId, a.accountNumber as accountNumber, h.expiresAt as expiresAt"
+            + " from BalanceHold h join h.account a where h.status = :status and h.expiresAt <= :before"
+            + " order by h.expiresAt")
+    List<HoldExpiry> findExpiriesByStatusAndExpiresAtBefore(
+            @Param("status") HoldStatus status, @Param("before") LocalDateTime before, Pageable pageable);
+
+    interface HoldExpiry {
+        String getHoldId();
+
+        String getAccountNumber();
+
+        LocalDateTime getExpiresAt();
+    }
+}
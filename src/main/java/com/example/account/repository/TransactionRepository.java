@@ -4,12 +4,21 @@ import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    /**
+     * 조건부 GET 용. 엔티티를 만들지 않고 변경 시각만 읽는다.
+     */
+    @Query("select t.updatedAt from Transaction t where t.transactionId = :transactionId")
+    Optional<LocalDateTime> findUpdatedAtByTransactionId(@Param("transactionId") String transactionId);
 }
@@ -0,0 +1,283 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.ImportAccounts;
+import com.example.account.readmodel.AccountsImported;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.example.account.type.AccountStatus.IN_USE;
+
+/**
+ * 계좌 일괄 생성
+ * CSV(userId,initialBalance) 나 NDJSON 을 줄 단위로 읽어 chunk-size 줄씩 처리한다.
+ * chunk 마다 사용자를 한 번에 읽어 계좌 한도를 메모리에서 검사하고, 사용자별 계좌 수를 한 번에 올린 뒤
+ * 계좌번호를 묶음으로 할당해 JDBC batch 로 넣는다. 실패한 줄은 줄 번호와 ErrorCode 로 보고한다.
+ * 샤딩을 쓰지 않으면 chunk 하나가 트랜잭션 하나이며, 한 chunk 가 실패해도 나머지는 계속 진행한다.
+ * 샤딩을 쓰면 계좌 수(0번 샤드)와 샤드별 계좌가 서로 다른 트랜잭션이라 chunk 가 일부만 들어갈 수 있다.
+ * 이때는 계좌 수를 먼저 올려 커밋하고 샤드마다 따로 넣어, 실패한 샤드의 줄만 실패로 보고하고 그만큼 계좌 수를 되돌린다.
+ */
+@Slf4j
+@Service
+public class AccountImportService {
+    public enum Format { CSV, NDJSON }
+
+    private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public AccountImportService(
+            AccountUserRepository accountUserRepository,
+            AccountNumberAllocator accountNumberAllocator,
+            ShardRouter shardRouter,
+            ApplicationEventPublisher eventPublisher,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.import.chunk-size:1000}") int chunkSize,
+            @Value("${account.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public ImportAccounts.Response importAccounts(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        Result result = new Result();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isCsvHeader(line))) {
+                continue;
+            }
+            Row row = parse(line, lineNumber, format);
+            if (row == null) {
+                result.fail(lineNumber, null, ErrorCode.INVALID_REQUEST);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+
+        return ImportAccounts.Response.builder()
+                .imported(result.imported)
+                .failed(result.failed)
+                .failures(result.failures)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private void importChunk(List<Row> rows, Result result) {
+        List<ImportAccounts.Failure> chunkFailures = new ArrayList<>();
+        int imported;
+        try {
+            imported = transactionTemplate.execute(status -> insertChunk(rows, chunkFailures));
+        } catch (RuntimeException e) {
+            log.warn("Account import chunk failed from line {} : {}", rows.get(0).line, e.toString());
+            rows.forEach(row -> result.fail(row.line, row.userId, ErrorCode.INTERNAL_SERVER_ERROR));
+            return;
+        }
+        result.imported += imported;
+        chunkFailures.forEach(failure -> result.fail(failure.getLine(), failure.getUserId(), failure.getErrorCode()));
+    }
+
+    private int insertChunk(List<Row> rows, List<ImportAccounts.Failure> failures) {
+        Map<Long, AccountUser> users = accountUserRepository.findAllById(
+                        rows.stream().map(row -> row.userId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(AccountUser::getId, user -> user));
+
+        List<Row> accepted = shardRouter.executeInShard(0, () -> reserveAccountCounts(rows, users, failures));
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        long accountNumber = accountNumberAllocator.allocate(accepted.size());
+        Map<Integer, List<Row>> rowsByShard = new TreeMap<>();
+        Map<Integer, List<Account>> accountsByShard = new TreeMap<>();
+        LocalDateTime registeredAt = LocalDateTime.now();
+        for (Row row : accepted) {
+            String number = String.valueOf(accountNumber++);
+            int shard = shardRouter.shardOf(number);
+            rowsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(row);
+            accountsByShard.computeIfAbsent(shard, key -> new ArrayList<>())
+                    .add(Account.builder()
+                            .accountStatus(IN_USE)
+                            .accountNumber(number)
+                            .balance(row.initialBalance)
+                            .registeredAt(registeredAt)
+                            .accountUser(AccountUser.builder().id(row.userId).build())
+                            .build());
+        }
+
+        int imported = 0;
+        for (Map.Entry<Integer, List<Account>> entry : accountsByShard.entrySet()) {
+            try {
+                shardRouter.executeInShard(entry.getKey(), () -> persist(entry.getValue()));
+                imported += entry.getValue().size();
+            } catch (RuntimeException e) {
+                // 샤딩을 쓰지 않으면 chunk 트랜잭션 전체가 되돌아가야 하므로 그대로 던진다.
+                if (!shardRouter.isSharded()) {
+                    throw e;
+                }
+                List<Row> failed = rowsByShard.get(entry.getKey());
+                log.warn("Account import failed on shard {} from line {} : {}",
+                        entry.getKey(), failed.get(0).line, e.toString());
+                failed.forEach(row -> failures.add(
+                        new ImportAccounts.Failure(row.line, row.userId, ErrorCode.INTERNAL_SERVER_ERROR)));
+                shardRouter.executeInShard(0, () -> releaseAccountCounts(failed));
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * 사용자별 계좌 수 한도를 메모리에서 검사한 뒤 같은 조건부 update 로 계좌 수를 올리고, 올린 줄만 돌려준다.
+     * 그사이 다른 요청이 계좌를 만들어 한도를 넘으면 그 사용자 줄은 모두 실패다.
+     */
+    private List<Row> reserveAccountCounts(List<Row> rows, Map<Long, AccountUser> users,
+                                           List<ImportAccounts.Failure> failures) {
+        Map<Long, List<Row>> acceptedByUser = new LinkedHashMap<>();
+        for (Row row : rows) {
+            AccountUser user = users.get(row.userId);
+            if (user == null) {
+                failures.add(new ImportAccounts.Failure(row.line, row.userId, ErrorCode.USER_NOT_FOUND));
+                continue;
+            }
+            List<Row> accepted = acceptedByUser.computeIfAbsent(row.userId, id -> new ArrayList<>());
+            if (user.getAccountCount() + accepted.size() >= AccountService.MAX_ACCOUNT_PER_USER) {
+                failures.add(new ImportAccounts.Failure(row.line, row.userId, ErrorCode.MAX_ACCOUNT_PER_USER_10));
+                continue;
+            }
+            accepted.add(row);
+        }
+
+        List<Row> accepted = new ArrayList<>(rows.size());
+        acceptedByUser.forEach((userId, userRows) -> {
+            if (accountUserRepository.addAccountCount(
+                    userId, userRows.size(), AccountService.MAX_ACCOUNT_PER_USER) == 0) {
+                userRows.forEach(row -> failures.add(
+                        new ImportAccounts.Failure(row.line, userId, ErrorCode.MAX_ACCOUNT_PER_USER_10)));
+            } else {
+                accepted.addAll(userRows);
+            }
+        });
+        return accepted;
+    }
+
+    private Void releaseAccountCounts(List<Row> rows) {
+        rows.stream()
+                .collect(Collectors.groupingBy(row -> row.userId, Collectors.counting()))
+                .forEach((userId, count) -> accountUserRepository.addAccountCount(
+                        userId, -count.intValue(), AccountService.MAX_ACCOUNT_PER_USER));
+        return null;
+    }
+
+    private Void persist(List<Account> accounts) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(chunkSize);
+        for (Account account : accounts) {
+            account.setAccountUser(entityManager.getReference(AccountUser.class, account.getAccountUser().getId()));
+            entityManager.persist(account);
+        }
+        // 읽기 모델에는 계좌마다가 아니라 묶음마다 한 번만 알린다.
+        eventPublisher.publishEvent(new AccountsImported(accounts.stream()
+                .map(account -> account.getAccountUser().getId())
+                .collect(Collectors.toSet())));
+        entityManager.flush();
+        entityManager.clear();
+        return null;
+    }
+
+    private Row parse(String line, long lineNumber, Format format) {
+        try {
+            Long userId;
+            Long initialBalance;
+            if (format == Format.NDJSON) {
+                ImportAccounts.Row row = objectMapper.readValue(line, ImportAccounts.Row.class);
+                // "null" 한 줄은 예외 없이 null 로 읽힌다.
+                if (row == null) {
+                    return null;
+                }
+                userId = row.getUserId();
+                initialBalance = row.getInitialBalance();
+            } else {
+                String[] columns = line.split(",", -1);
+                if (columns.length != 2) {
+                    return null;
+                }
+                userId = Long.valueOf(columns[0].trim());
+                initialBalance = Long.valueOf(columns[1].trim());
+            }
+            // CreateAccount.Request 와 같은 검증
+            if (userId == null || userId < 1 || initialBalance == null || initialBalance < 0) {
+                return null;
+            }
+            return new Row(lineNumber, userId, initialBalance);
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String first = line.trim();
+        return !first.isEmpty() && !Character.isDigit(first.charAt(0));
+    }
+
+    private record Row(long line, Long userId, Long initialBalance) {
+    }
+
+    private class Result {
+        private long imported;
+        private long failed;
+        private final List<ImportAccounts.Failure> failures = new ArrayList<>();
+
+        void fail(long line, Long userId, ErrorCode errorCode) {
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                failures.add(new ImportAccounts.Failure(line, userId, errorCode));
+            }
+        }
+    }
+}
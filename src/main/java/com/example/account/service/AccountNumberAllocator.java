@@ -0,0 +1,38 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountRepository;
+import com.example.account.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * 계좌번호 할당. 계좌 생성과 일괄 생성이 같이 쓴다.
+ * 샤드마다 가장 큰 계좌번호를 보고 그중 가장 큰 번호 다음부터 준다.
+ * 아직 커밋되지 않은 번호를 다시 주지 않도록 이 노드에서 마지막으로 준 번호도 기억한다.
+ * 다른 노드와 같은 번호를 받으면 account_number 유니크 제약에 걸려 저장이 실패한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+
+    private long lastAllocated;
+
+    /**
+     * count 개의 연속된 계좌번호를 할당하고 첫 번호를 돌려준다.
+     */
+    public synchronized long allocate(int count) {
+        long latest = shardRouter.fanOut(accountRepository::findFirstByOrderByAccountNumberDesc).stream()
+                .flatMap(Optional::stream)
+                .map(account -> Long.parseLong(account.getAccountNumber()))
+                .max(Comparator.naturalOrder())
+                .orElse(Long.parseLong(AccountService.FIRST_ACCOUNT_NUMBER) - 1);
+        long first = Math.max(latest, lastAllocated) + 1;
+        lastAllocated = first + count - 1;
+        return first;
+    }
+}
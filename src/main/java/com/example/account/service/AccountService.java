@@ -2,19 +2,29 @@ package com.example.account.service;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDetail;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.DailySummary;
 import com.example.account.exception.AccountException;
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.repository.AccountDailySummaryRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.shard.ShardKey;
+import com.example.account.shard.ShardRouter;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.example.account.type.AccountStatus.IN_USE;
@@ -25,49 +35,92 @@ import static com.example.account.type.ErrorCode.USER_NOT_FOUND;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountDailySummaryRepository accountDailySummaryRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+
+    static final int MAX_ACCOUNT_PER_USER = 10;
+    static final String FIRST_ACCOUNT_NUMBER = "1234567890";
+    static final int DEFAULT_DAILY_SUMMARY_DAYS = 30;
+    static final int MAX_DAILY_SUMMARY_DAYS = 366;
 
     /**
      *
      *  사용자가 있는지 조회
      *  계좌의 번호를 생성하고
      *  계좌를 저장하고 그 정보를 넘긴다.
+     *  샤딩을 쓰면 계좌 수(0번 샤드)와 계좌(계좌번호의 샤드)가 다른 데이터베이스에 있어 한 트랜잭션으로 묶을 수 없다.
+     *  그래서 계좌 수를 먼저 올려 커밋하고, 계좌 저장이 실패하면 올린 계좌 수를 되돌린다.
+     *  되돌리기 전에 노드가 죽으면 계좌 수가 실제보다 하나 많게 남을 뿐 한도를 넘겨 만들지는 않는다.
      */
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBanlance){
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
 
-        validateCreateAccount(accountUser);
-
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1234567890");
-
-        return AccountDto.fromEntity(accountRepository.save(
-                Account.builder()
-                        .accountUser(accountUser)
-                        .accountStatus(IN_USE)
-                        .accountNumber(newAccountNumber)
-                        .balance(initialBanlance)
-                        .registeredAt(LocalDateTime.now())
-                        .build())
-        );
+        shardRouter.executeInShard(0, () -> {
+            validateCreateAccount(accountUser);
+            return null;
+        });
+        try {
+            return saveNewAccount(accountUser, initialBanlance);
+        } catch (RuntimeException e) {
+            if (shardRouter.isSharded()) {
+                shardRouter.executeInShard(0, () ->
+                        accountUserRepository.addAccountCount(accountUser.getId(), -1, MAX_ACCOUNT_PER_USER));
+            }
+            throw e;
+        }
     }
 
-    @Transactional
-    public Account getAccount(Long id){
+    private AccountDto saveNewAccount(AccountUser accountUser, Long initialBanlance) {
+        String newAccountNumber = String.valueOf(accountNumberAllocator.allocate(1));
+
+        return shardRouter.executeInShard(shardRouter.shardOf(newAccountNumber), () -> {
+            Account account = accountRepository.save(
+                    Account.builder()
+                            .accountUser(accountUser)
+                            .accountStatus(IN_USE)
+                            .accountNumber(newAccountNumber)
+                            .balance(initialBanlance)
+                            .registeredAt(LocalDateTime.now())
+                            .build());
+            eventPublisher.publishEvent(AccountBalanceChanged.from(account));
+            return AccountDto.fromEntity(account);
+        });
+    }
 
-        return accountRepository.findById(id).get();
+    /**
+     * 계좌 조회 응답의 ETag 를 만드는 데 쓰는 변경 정보. 계좌가 없으면 empty.
+     */
+    public Optional<AccountRepository.AccountVersion> getAccountVersion(@ShardKey(ShardKey.Type.ACCOUNT_ID) Long id) {
+        return accountRepository.findVersionById(id);
     }
 
+    /**
+     * 응답 DTO 는 엔티티를 읽은 트랜잭션 안에서 만든다.
+     */
+    @Transactional
+    public AccountDetail getAccount(@ShardKey(ShardKey.Type.ACCOUNT_ID) Long id){
+        return accountRepository.findById(id)
+                .map(AccountDetail::fromEntity)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    /**
+     * 계좌 수를 세지 않고 사용자 행의 계좌 수를 한도 안에서만 올린다.
+     * 샤딩을 쓰지 않으면 계좌 저장과 같은 트랜잭션이라 저장이 실패하면 함께 되돌아간다.
+     * account_user 는 모든 샤드에 복제되지만 계좌 수는 기본 샤드(0) 의 행에서만 관리한다.
+     */
     private void validateCreateAccount(AccountUser accountUser){
-        if(accountRepository.countByAccountUser(accountUser) >= 10){
+        if(accountUserRepository.incrementAccountCount(accountUser.getId(), MAX_ACCOUNT_PER_USER) == 0){
             throw new AccountException(ErrorCode.MAX_ACCOUNT_PER_USER_10);
         }
     }
 
     @Transactional
-    public AccountDto deleteAccount(Long userId, String accountNumber) {
+    public AccountDto deleteAccount(Long userId, @ShardKey String accountNumber) {
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -79,6 +132,7 @@ public class AccountService {
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);// 테스트를 위한 코드
+        eventPublisher.publishEvent(AccountBalanceChanged.from(account));
 
         return AccountDto.fromEntity(account);
     }
@@ -90,19 +144,49 @@ public class AccountService {
         if(account.getAccountStatus() == AccountStatus.UNREGISTERED){
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
-        if(account.getBalance() > 0){
+        if(account.getBalance() > 0 || account.getHeldBalance() > 0){
             throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
         }
     }
 
+    @Transactional
+    public AccountDto getAccountByNumber(@ShardKey String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(AccountDto::fromEntity)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    /**
+     * 계좌의 일별 거래 집계를 날짜순으로 돌려준다. from, to 는 둘 다 포함한다.
+     * 기간이 없으면 to 는 오늘, from 은 to 부터 DEFAULT_DAILY_SUMMARY_DAYS 일 전까지로 본다.
+     * 거래를 훑지 않고 집계 행만 읽으므로 비용은 기간의 일수에 비례한다.
+     */
+    @Transactional
+    public List<DailySummary> getDailySummaries(@ShardKey String accountNumber, LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_DAILY_SUMMARY_DAYS - 1) : from;
+        if(start.isAfter(end) || start.plusDays(MAX_DAILY_SUMMARY_DAYS - 1).isBefore(end)){
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        return accountDailySummaryRepository.findByAccountAndSummaryDateBetweenOrderBySummaryDate(account, start, end)
+                .stream()
+                .map(DailySummary::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public List<AccountDto> getAccountsByUserId(Long userId) {
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
 
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+        List<List<Account>> accounts = shardRouter.fanOut(() -> accountRepository.findByAccountUser(accountUser));
 
         return accounts.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Account::getAccountNumber))
                 .map(AccountDto::fromEntity)
                 .collect(Collectors.toList());
     }
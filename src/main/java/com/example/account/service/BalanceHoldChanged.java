@@ -0,0 +1,25 @@
+package com.example.account.service;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 홀드가 생기거나 닫혔다는 이벤트. HoldExpiryScheduler 는 커밋된 것만 받아
+ * HELD 면 만료를 예약하고, 그 밖의 상태면 예약을 취소한다.
+ */
+public record BalanceHoldChanged(
+        String holdId,
+        String accountNumber,
+        HoldStatus status,
+        LocalDateTime expiresAt) {
+
+    public static BalanceHoldChanged from(BalanceHold hold) {
+        return new BalanceHoldChanged(
+                hold.getHoldId(),
+                hold.getAccount().getAccountNumber(),
+                hold.getStatus(),
+                hold.getExpiresAt());
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.repository.BalanceHoldRepository.HoldExpiry;
+import com.example.account.service.LockService.LockHandle;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.HoldStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 홀드 만료 처리
+ * 커밋된 홀드마다 만료 시각을 TimingWheel 에 예약하고, 확정/해제되면 예약을 취소한다.
+ * hold-expiry-ticker 스레드가 tick 마다 바퀴를 돌려 만료된 홀드를 hold-expiry 스레드들에 넘기고,
+ * 그 스레드가 계좌 락을 잡고 TransactionService.expireHold 를 부른다.
+ * 락을 못 잡거나 실패하면 retry-ms 뒤에 다시 예약한다.
+ * 예약은 메모리에만 있으므로 시작할 때 HELD 상태인 홀드를 reconcile-batch-size 개씩 나눠 읽어 다시 올린다.
+ * 홀드를 예약한 노드가 죽으면 그 예약도 사라지므로, reconcile-ms 마다 만료 시각이 지났는데 HELD 인 홀드를
+ * (status, expiresAt) 인덱스로 reconcile-batch-size 개씩 읽어 예약한다. 그런 홀드도 reconcile-ms 안에는 풀린다.
+ * 여러 노드가 같은 홀드를 예약해도 expireHold 가 락 안에서 상태와 만료 시각을 보고 한 번만 푼다.
+ */
+@Slf4j
+@Component
+public class HoldExpiryScheduler {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final long retryNanos;
+    private final long reconcileNanos;
+    private final int reconcileBatchSize;
+    private final TimingWheel<Expiry> wheel;
+    private final ThreadPoolExecutor expiryExecutor;
+    // 확정/해제될 때 예약을 찾아 취소하기 위한 holdId -> 예약
+    private final ConcurrentHashMap<String, TimingWheel.Timeout<Expiry>> timeouts = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread tickerThread;
+
+    public HoldExpiryScheduler(
+            TransactionService transactionService,
+            LockService lockService,
+            BalanceHoldRepository balanceHoldRepository,
+            ShardRouter shardRouter,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${account.hold.expiry.enabled:true}") boolean enabled,
+            @Value("${account.hold.expiry.tick-ms:100}") long tickMillis,
+            @Value("${account.hold.expiry.wheel-size:512}") int wheelSize,
+            @Value("${account.hold.expiry.threads:2}") int threads,
+            @Value("${account.hold.expiry.retry-ms:1000}") long retryMillis,
+            @Value("${account.hold.expiry.reconcile-ms:60000}") long reconcileMillis,
+            @Value("${account.hold.expiry.reconcile-batch-size:1000}") int reconcileBatchSize) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.balanceHoldRepository = balanceHoldRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMillis);
+        this.reconcileNanos = TimeUnit.MILLISECONDS.toNanos(reconcileMillis);
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.wheel = new TimingWheel<>(TimeUnit.MILLISECONDS.toNanos(tickMillis), wheelSize, System.nanoTime());
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 큐가 차면 ticker 스레드가 직접 처리해 만료가 밀리는 만큼 tick 도 늦춘다.
+        this.expiryExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1024),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hold-expiry-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        meterRegistry.ifAvailable(registry ->
+                Gauge.builder("account.hold.scheduled", wheel, TimingWheel::size)
+                        .register(registry));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        tickerThread = new Thread(this::runTicker, "hold-expiry-ticker");
+        tickerThread.setDaemon(true);
+        tickerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (tickerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(tickerThread);
+        tickerThread.join(TimeUnit.SECONDS.toMillis(5));
+        expiryExecutor.shutdown();
+        expiryExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 재시작 전에 걸린 홀드를 다시 예약한다. 이미 만료 시각이 지난 홀드는 첫 tick 에 풀린다.
+     * 샤드마다 만료 시각 순으로 reconcile-batch-size 개씩 읽어, 열린 홀드가 많아도 한 번에 다 올리지 않는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!running) {
+            return;
+        }
+        int scheduled = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            scheduled += recoverShard(shard);
+        }
+        log.info("Scheduled expiry of {} open holds", scheduled);
+    }
+
+    private int recoverShard(int shard) {
+        PageRequest page = PageRequest.of(0, reconcileBatchSize);
+        int scheduled = 0;
+        List<HoldExpiry> holds = shardRouter.executeInShard(shard, () ->
+                balanceHoldRepository.findExpiriesByStatus(HoldStatus.HELD, page));
+        while (true) {
+            holds.forEach(hold -> scheduleIfAbsent(hold.getHoldId(), hold.getAccountNumber(), hold.getExpiresAt()));
+            scheduled += holds.size();
+            if (holds.size() < reconcileBatchSize) {
+                return scheduled;
+            }
+            HoldExpiry last = holds.get(holds.size() - 1);
+            holds = shardRouter.executeInShard(shard, () -> balanceHoldRepository.findExpiriesByStatusAfter(
+                    HoldStatus.HELD, last.getExpiresAt(), last.getHoldId(), page));
+        }
+    }
+
+    /**
+     * 만료가 지났는데 아무 노드도 풀지 않은 홀드를 예약한다. 이미 이 노드가 예약한 홀드는 그대로 둔다.
+     */
+    void reconcile() {
+        if (!running) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<HoldExpiry> holds = shardRouter.fanOut(() -> balanceHoldRepository
+                            .findExpiriesByStatusAndExpiresAtBefore(
+                                    HoldStatus.HELD, now, PageRequest.of(0, reconcileBatchSize)))
+                    .stream()
+                    .flatMap(List::stream)
+                    .toList();
+            holds.forEach(hold -> scheduleIfAbsent(hold.getHoldId(), hold.getAccountNumber(), hold.getExpiresAt()));
+            if (!holds.isEmpty()) {
+                log.info("Found {} overdue holds", holds.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile hold expiries : {}", e.toString());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onHoldChanged(BalanceHoldChanged event) {
+        if (!running) {
+            return;
+        }
+        if (event.status() == HoldStatus.HELD) {
+            scheduleIfAbsent(event.holdId(), event.accountNumber(), event.expiresAt());
+            return;
+        }
+        TimingWheel.Timeout<Expiry> timeout = timeouts.remove(event.holdId());
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void scheduleIfAbsent(String holdId, String accountNumber, LocalDateTime expiresAt) {
+        long delayNanos = Math.max(0L, Duration.between(LocalDateTime.now(), expiresAt).toNanos());
+        timeouts.computeIfAbsent(holdId, key ->
+                wheel.schedule(new Expiry(holdId, accountNumber), System.nanoTime() + delayNanos));
+    }
+
+    private void runTicker() {
+        long nextReconcile = System.nanoTime() + reconcileNanos;
+        while (running) {
+            long now = System.nanoTime();
+            wheel.advance(now, this::dispatch);
+            if (reconcileNanos > 0 && now - nextReconcile >= 0) {
+                nextReconcile = now + reconcileNanos;
+                expiryExecutor.execute(this::reconcile);
+            }
+            LockSupport.parkNanos(wheel.nanosUntilNextTick(now));
+        }
+    }
+
+    private void dispatch(Expiry expiry) {
+        if (!running) {
+            return;
+        }
+        expiryExecutor.execute(() -> expire(expiry));
+    }
+
+    private void expire(Expiry expiry) {
+        LockHandle lockHandle;
+        try {
+            lockHandle = lockService.lock(expiry.accountNumber());
+        } catch (AccountException e) {
+            log.debug("Hold {} is busy, retrying expiry : {}", expiry.holdId(), e.getErrorCode());
+            retry(expiry);
+            return;
+        }
+        try {
+            if (transactionService.expireHold(expiry.holdId())) {
+                log.debug("Hold {} expired", expiry.holdId());
+            }
+            timeouts.remove(expiry.holdId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to expire hold {}, retrying : {}", expiry.holdId(), e.toString());
+            retry(expiry);
+        } finally {
+            lockService.unlock(lockHandle);
+        }
+    }
+
+    private void retry(Expiry expiry) {
+        if (running) {
+            timeouts.put(expiry.holdId(), wheel.schedule(expiry, System.nanoTime() + retryNanos));
+        }
+    }
+
+    private record Expiry(String holdId, String accountNumber) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.account.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 를 쓸 수 없을 때 쓰는 노드 로컬 계좌 락.
+ * 요청이 아닌 스레드에 묶이지 않도록 계좌별 Semaphore(1) 를 쓰고,
+ * 아무도 쓰지 않는 계좌의 항목은 바로 지운다.
+ */
+class LocalAccountLocks {
+    private final ConcurrentHashMap<String, Entry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * accountNumbers 는 정렬된 순서로 넘겨야 교착되지 않는다.
+     */
+    boolean tryLock(List<String> accountNumbers, long waitMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        for (int i = 0; i < accountNumbers.size(); i++) {
+            Entry entry = retain(accountNumbers.get(i));
+            boolean acquired = false;
+            try {
+                acquired = entry.semaphore.tryAcquire(
+                        Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } finally {
+                if (!acquired) {
+                    release(accountNumbers.get(i));
+                    unlock(accountNumbers.subList(0, i));
+                }
+            }
+            if (!acquired) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void unlock(List<String> accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            Entry entry = locks.get(accountNumber);
+            if (entry != null) {
+                entry.semaphore.release();
+                release(accountNumber);
+            }
+        }
+    }
+
+    int size() {
+        return locks.size();
+    }
+
+    private Entry retain(String accountNumber) {
+        return locks.compute(accountNumber, (key, entry) -> {
+            Entry retained = entry == null ? new Entry() : entry;
+            retained.references++;
+            return retained;
+        });
+    }
+
+    private void release(String accountNumber) {
+        locks.computeIfPresent(accountNumber, (key, entry) -> --entry.references == 0 ? null : entry);
+    }
+
+    private static final class Entry {
+        private final Semaphore semaphore = new Semaphore(1);
+        private int references;
+    }
+}
@@ -1,33 +1,68 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
-import com.example.account.dto.UseBalance;
+import com.example.account.hotaccount.HotAccountTracker;
+import com.example.account.metrics.RequestTimings;
+import com.example.account.service.LockHoldStats.LockBudget;
+import com.example.account.service.LockService.LockHandle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Aspect
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE)
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
 
     private final LockService lockService;
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    private final LockHoldStats lockHoldStats;
+    private final HotAccountTracker hotAccountTracker;
+
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        List<String> accountNumbers = request.lockAccountNumbers();
+        String route = accountLock.adaptive() ? pjp.getSignature().toShortString() : null;
+        LockBudget budget = route == null
+                ? new LockBudget(accountLock.tryLockTime(), accountLock.leaseTime())
+                : lockHoldStats.budget(route, accountLock.tryLockTime(), accountLock.leaseTime());
+
         //lock취득시도
-        lockService.lock(request.getAccountNumber());
+        LockHandle lockHandle;
+        long lockStart = System.nanoTime();
+        try {
+            lockHandle = accountNumbers.size() == 1
+                    ? lockService.lock(accountNumbers.get(0), budget.waitMillis(), budget.leaseMillis())
+                    : lockService.lockAll(accountNumbers, budget.waitMillis(), budget.leaseMillis());
+        } finally {
+            long waitNanos = System.nanoTime() - lockStart;
+            RequestTimings.addLockTime(waitNanos);
+            hotAccountTracker.recordLockWait(accountNumbers, waitNanos);
+        }
+        long acquiredAt = System.nanoTime();
         try {
             return pjp.proceed();
         } finally {
+            if (route != null) {
+                lockHoldStats.record(route, System.nanoTime() - acquiredAt);
+            }
             //lock 해제
-            lockService.unlock(request.getAccountNumber());
+            long unlockStart = System.nanoTime();
+            lockService.unlock(lockHandle);
+            RequestTimings.addLockTime(System.nanoTime() - unlockStart);
         }
     }
 }
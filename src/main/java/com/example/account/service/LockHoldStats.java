@@ -0,0 +1,113 @@
+package com.example.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 라우트별 실제 락 보유 시간을 최근 window 건만큼 모아
+ * adaptive 락의 대기/임대 시간을 정한다.
+ * - 임대 시간: p99 보유 시간의 2배 (최소 1초). max-lease-ms 를 넘으면 watchdog 갱신(-1)
+ * - 대기 시간: p95 보유 시간 (어노테이션 값 ~ max-wait-ms 사이)
+ * 표본이 min-samples 보다 적으면 어노테이션 값을 그대로 쓴다.
+ */
+@Component
+public class LockHoldStats {
+    public static final long WATCHDOG_LEASE = -1L;
+
+    private static final long MIN_LEASE_MILLIS = 1000L;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final int window;
+    private final int minSamples;
+    private final long maxLeaseMillis;
+    private final long maxWaitMillis;
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    public LockHoldStats(
+            @Value("${account.lock.adaptive.window:256}") int window,
+            @Value("${account.lock.adaptive.min-samples:20}") int minSamples,
+            @Value("${account.lock.adaptive.max-lease-ms:30000}") long maxLeaseMillis,
+            @Value("${account.lock.adaptive.max-wait-ms:10000}") long maxWaitMillis) {
+        this.window = window;
+        this.minSamples = minSamples;
+        this.maxLeaseMillis = maxLeaseMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public void record(String route, long holdNanos) {
+        routes.computeIfAbsent(route, key -> new Route(window)).add(holdNanos);
+    }
+
+    public LockBudget budget(String route, long defaultWaitMillis, long defaultLeaseMillis) {
+        Route stats = routes.get(route);
+        if (stats == null || stats.count.get() < minSamples) {
+            return new LockBudget(defaultWaitMillis, defaultLeaseMillis);
+        }
+        LockBudget budget = stats.budget;
+        long count = stats.count.get();
+        if (budget == null || count - stats.budgetCount >= RECOMPUTE_EVERY) {
+            budget = compute(stats.snapshot(), defaultWaitMillis);
+            stats.budget = budget;
+            stats.budgetCount = count;
+        }
+        return budget;
+    }
+
+    private LockBudget compute(long[] holdNanos, long defaultWaitMillis) {
+        Arrays.sort(holdNanos);
+        long p95 = toMillis(percentile(holdNanos, 0.95));
+        long p99 = toMillis(percentile(holdNanos, 0.99));
+
+        long lease = Math.max(MIN_LEASE_MILLIS, p99 * 2);
+        if (lease > maxLeaseMillis) {
+            lease = WATCHDOG_LEASE;
+        }
+        long wait = Math.min(maxWaitMillis, Math.max(defaultWaitMillis, p95));
+        return new LockBudget(wait, lease);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 락 대기/임대 시간 (ms). leaseMillis 가 -1 이면 Redisson watchdog 이 임대를 연장한다.
+     */
+    public record LockBudget(long waitMillis, long leaseMillis) {
+    }
+
+    private static final class Route {
+        private final AtomicLongArray samples;
+        private final AtomicLong count = new AtomicLong();
+        private volatile LockBudget budget;
+        private volatile long budgetCount;
+
+        private Route(int window) {
+            this.samples = new AtomicLongArray(window);
+        }
+
+        private void add(long holdNanos) {
+            long index = count.getAndIncrement();
+            samples.set((int) (index % samples.length()), holdNanos);
+        }
+
+        private long[] snapshot() {
+            int size = (int) Math.min(count.get(), samples.length());
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = samples.get(i);
+            }
+            return copy;
+        }
+    }
+}
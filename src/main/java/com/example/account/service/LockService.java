@@ -5,40 +5,278 @@ import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+/**
+ * 계좌 락 서비스
+ * 항상 노드 로컬 락을 먼저 잡고, 그 위에 Redis 분산 락을 잡는다.
+ * Redis 가 느리거나 죽어서 서킷이 열리면 Redis 락은 건너뛰고 로컬 락만 쥔다.
+ * 그래서 서킷이 바뀌는 동안 Redis 락을 쥔 요청과 로컬 락만 쥔 요청이 섞여도 같은 노드 안에서는 직렬화된다.
+ * 다른 노드와는 직렬화되지 않으므로, 그 사이 같은 계좌를 고치는 것은 Account 의 @Version 으로 막는다.
+ * 락을 잡으면 어떤 락을 잡았는지 담은 LockHandle 을 돌려주고, unlock 은 그 락을 푼다.
+ * 락 키는 RedisLockRing 으로 여러 Redis 노드에 나눠 둔다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
-    private final RedissonClient redissonClient;
+    private final RedisLockRing redisLockRing;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final LocalAccountLocks localAccountLocks = new LocalAccountLocks();
+    // 비동기 락은 스레드가 아닌 요청이 소유하므로 스레드 id 와 겹치지 않는 음수 id 를 쓴다.
+    private final AtomicLong asyncLockOwner = new AtomicLong();
 
-    public void lock(String accountNumber){
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+    private static final long DEFAULT_WAIT_MILLIS = 1000L;
+    private static final long DEFAULT_LEASE_MILLIS = 5000L;
+    private static final long LOCAL_RETRY_MILLIS = 10L;
+
+    public LockHandle lock(String accountNumber){
+        return lock(accountNumber, DEFAULT_WAIT_MILLIS, DEFAULT_LEASE_MILLIS);
+    }
+
+    /**
+     * leaseMillis 가 -1 이면 Redisson watchdog 이 락을 쥔 동안 임대를 계속 연장한다.
+     */
+    public LockHandle lock(String accountNumber, long waitMillis, long leaseMillis){
         log.debug("Trying lock for accountNumber : {}", accountNumber);
+        return acquire(List.of(accountNumber), waitMillis, leaseMillis);
+    }
 
-        try{
-            boolean isLock = lock.tryLock(1,5, TimeUnit.SECONDS);
-            if(!isLock){
-                log.error("==============Lock acquisition failed======");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    /**
+     * 여러 계좌를 한 번에 잠근다.
+     * 계좌번호를 정렬한 순서로 잡으므로 서로 다른 요청이 교차해서 잡아도 교착되지 않는다.
+     */
+    public LockHandle lockAll(Collection<String> accountNumbers, long waitMillis, long leaseMillis){
+        log.debug("Trying lock for accountNumbers : {}", accountNumbers);
+        return acquire(accountNumbers.stream().distinct().sorted().toList(), waitMillis, leaseMillis);
+    }
+
+    public void unlock(LockHandle handle){
+        log.debug("Unlock for accountNumbers : {}", handle.accountNumbers);
+        try {
+            if (!handle.isLocal()) {
+                unlockRedis(handle);
             }
-        }catch (AccountException e){
-          throw e;
+        } finally {
+            localAccountLocks.unlock(handle.accountNumbers);
+        }
+    }
+
+    private void unlockRedis(LockHandle handle) {
+        long start = System.nanoTime();
+        try {
+            handle.redisLock.unlock();
+            redisCircuitBreaker.onSuccess(System.nanoTime() - start);
+        } catch (IllegalMonitorStateException e) {
+            redisCircuitBreaker.onSuccess(System.nanoTime() - start);
+            log.warn("Lock already expired for accountNumbers : {}", handle.accountNumbers);
+        } catch (Exception e) {
+            redisCircuitBreaker.onError();
+            log.warn("Redis unlock failed, lock expires with its lease : {}", e.toString());
+        }
+    }
+
+    private LockHandle acquire(List<String> accountNumbers, long waitMillis, long leaseMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        lockLocally(accountNumbers, waitMillis);
+        try {
+            return new LockHandle(accountNumbers,
+                    lockRedis(accountNumbers, remainingMillis(deadline), leaseMillis), 0L);
+        } catch (RuntimeException e) {
+            localAccountLocks.unlock(accountNumbers);
+            throw e;
+        }
+    }
+
+    /**
+     * 로컬 락을 쥔 뒤에 부른다. 서킷이 열렸거나 Redis 호출이 실패하면 null 을 돌려주어 로컬 락만 쓰게 한다.
+     */
+    private RLock lockRedis(List<String> accountNumbers, long waitMillis, long leaseMillis) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            return null;
+        }
+        RLock lock;
+        boolean isLock;
+        try{
+            // 노드에 지연 연결하는 경우 연결 실패도 여기서 난다.
+            lock = accountNumbers.size() == 1
+                    ? getLock(accountNumbers.get(0))
+                    : getMultiLock(accountNumbers);
+            isLock = lock.tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
+            // tryLock 소요 시간에는 락 대기가 섞여 있어 느린 호출 판단에 쓰지 않는다.
+            redisCircuitBreaker.onSuccess(0L);
+        } catch (InterruptedException e){
+            redisCircuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         } catch (Exception e){
-            log.error("Redis lock failed", e);
+            redisCircuitBreaker.onError();
+            log.warn("Redis lock failed, using local lock : {}", e.toString());
+            return null;
+        }
+        if(!isLock){
+            log.debug("Lock acquisition failed for accountNumbers : {}", accountNumbers);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        return lock;
+    }
+
+    private void lockLocally(List<String> accountNumbers, long waitMillis) {
+        try {
+            if (localAccountLocks.tryLock(accountNumbers, waitMillis)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        log.debug("Local lock acquisition failed for accountNumbers : {}", accountNumbers);
+        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
     }
 
-    public void unlock(String accountNumber){
-        log.debug("Unlock for accountNumber : {}",accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+    private RLock getLock(String accountNumber) {
+        String lockKey = getLockKey(accountNumber);
+        return redisLockRing.clientFor(lockKey).getLock(lockKey);
+    }
+
+    // 멀티 락은 락마다 자기 노드에 요청하므로 계좌들이 서로 다른 노드에 있어도 된다.
+    private RLock getMultiLock(List<String> sortedAccountNumbers) {
+        RLock[] locks = sortedAccountNumbers.stream()
+                .map(this::getLock)
+                .toArray(RLock[]::new);
+        return redisLockRing.clientFor(getLockKey(sortedAccountNumbers.get(0))).getMultiLock(locks);
+    }
+
+    /**
+     * 비동기로 락을 잡고 action 이 만든 future 가 끝나면 락을 푼다.
+     * 락 대기 중에도 호출 스레드를 막지 않는다. 로컬 락은 짧은 간격으로 다시 시도하며 기다린다.
+     */
+    public <T> CompletableFuture<T> executeWithLockAsync(
+            String accountNumber, Supplier<CompletableFuture<T>> action) {
+        List<String> accountNumbers = List.of(accountNumber);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEFAULT_WAIT_MILLIS);
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+
+        return lockLocallyAsync(accountNumbers, deadline)
+                .thenCompose(locked -> lockRedisAsync(accountNumbers, remainingMillis(deadline))
+                        .whenComplete((handle, e) -> {
+                            if (e != null) {
+                                localAccountLocks.unlock(accountNumbers);
+                            }
+                        }))
+                .thenCompose(handle -> runLocked(handle, action));
+    }
+
+    private CompletableFuture<Void> lockLocallyAsync(List<String> accountNumbers, long deadline) {
+        try {
+            if (localAccountLocks.tryLock(accountNumbers, 0L)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+        if (System.nanoTime() >= deadline) {
+            log.debug("Local lock acquisition failed for accountNumbers : {}", accountNumbers);
+            return CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+        return CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(LOCAL_RETRY_MILLIS, TimeUnit.MILLISECONDS))
+                .thenCompose(retry -> lockLocallyAsync(accountNumbers, deadline));
+    }
+
+    private CompletableFuture<LockHandle> lockRedisAsync(List<String> accountNumbers, long waitMillis) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            return CompletableFuture.completedFuture(new LockHandle(accountNumbers, null, 0L));
+        }
+        RLock lock;
+        try {
+            lock = getLock(accountNumbers.get(0));
+        } catch (Exception e) {
+            redisCircuitBreaker.onError();
+            log.warn("Redis lock failed, using local lock : {}", e.toString());
+            return CompletableFuture.completedFuture(new LockHandle(accountNumbers, null, 0L));
+        }
+        long ownerId = asyncLockOwner.decrementAndGet();
+
+        return lock.tryLockAsync(waitMillis, DEFAULT_LEASE_MILLIS, TimeUnit.MILLISECONDS, ownerId)
+                .toCompletableFuture()
+                .handle((isLock, e) -> {
+                    if (e != null) {
+                        redisCircuitBreaker.onError();
+                        log.warn("Redis lock failed, using local lock : {}", e.toString());
+                        return new LockHandle(accountNumbers, null, 0L);
+                    }
+                    redisCircuitBreaker.onSuccess(0L);
+                    if (!isLock) {
+                        log.debug("Lock acquisition failed for accountNumbers : {}", accountNumbers);
+                        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    return new LockHandle(accountNumbers, lock, ownerId);
+                });
+    }
+
+    private <T> CompletableFuture<T> runLocked(LockHandle handle, Supplier<CompletableFuture<T>> action) {
+        return run(action).whenComplete((result, e) -> unlockAsync(handle));
+    }
+
+    private void unlockAsync(LockHandle handle) {
+        log.debug("Unlock for accountNumbers : {}", handle.accountNumbers);
+        if (handle.isLocal()) {
+            localAccountLocks.unlock(handle.accountNumbers);
+            return;
+        }
+        long start = System.nanoTime();
+        handle.redisLock.unlockAsync(handle.ownerId).whenComplete((result, e) -> {
+            if (e == null || e instanceof IllegalMonitorStateException) {
+                redisCircuitBreaker.onSuccess(System.nanoTime() - start);
+            } else {
+                redisCircuitBreaker.onError();
+                log.warn("Redis unlock failed, lock expires with its lease : {}", e.toString());
+            }
+            // Redis 락을 먼저 풀어야 로컬 락을 이어 받은 요청이 Redis 에서 기다리지 않는다.
+            localAccountLocks.unlock(handle.accountNumbers);
+        });
+    }
+
+    private static <T> CompletableFuture<T> run(Supplier<CompletableFuture<T>> action) {
+        try {
+            return action.get();
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     private static String getLockKey(String accountNumber) {
         return "ACLK : " + accountNumber;
     }
+
+    /**
+     * 잡은 락. 로컬 락은 늘 쥐고 있고, redisLock 이 null 이면 로컬 락만 쥔 것이다.
+     */
+    public static final class LockHandle {
+        private final List<String> accountNumbers;
+        private final RLock redisLock;
+        private final long ownerId;
+
+        LockHandle(List<String> accountNumbers, RLock redisLock, long ownerId) {
+            this.accountNumbers = accountNumbers;
+            this.redisLock = redisLock;
+            this.ownerId = ownerId;
+        }
+
+        public boolean isLocal() {
+            return redisLock == null;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.RateLimit;
+import com.example.account.exception.AccountException;
+import com.example.account.hotaccount.HotAccountTracker;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * @RateLimit 라우트의 요청 수를 제한한다.
+ * LockAopAspect 보다 바깥에서 동작해, 거절된 요청은 Redis 락이나 DB 에 닿지 않는다.
+ * 거래 요청이 처음 지나는 곳이라 계좌별 요청 수(HotAccountTracker)도 여기서 센다.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class RateLimitAspect {
+    private final RateLimiter rateLimiter;
+    private final HotAccountTracker hotAccountTracker;
+
+    @Around("@annotation(rateLimit) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            RateLimit rateLimit,
+            AccountLockIdInterface request
+    ) throws Throwable {
+        hotAccountTracker.recordRequest(request.lockAccountNumbers());
+        if (!rateLimiter.tryAcquire(rateLimit, request.getUserId(), request.getAccountNumber())) {
+            throw new AccountException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        return pjp.proceed();
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.account.service;
+
+import com.example.account.aop.RateLimit;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 사용자/계좌별 token bucket 요청 제한
+ * 버킷은 GCRA 방식으로 "다음 토큰이 찰 시각(tat)" 하나만 AtomicLong 에 두고 CAS 한 번으로 토큰을 꺼낸다.
+ * 버킷 테이블은 ConcurrentHashMap 이라 이미 있는 버킷은 락 없이 읽고,
+ * idle-evict-ms 동안 쓰이지 않아 가득 찬 버킷은 주기적으로 지운다.
+ * cluster.enabled 면 노드 버킷을 통과한 요청만 Redis 에서 한 번 더 검사한다.
+ * Redis 에도 같은 GCRA 로 tat 하나만 두고 스크립트 하나로 꺼내며, 키는 버킷이 다시 가득 차는 시각에 만료된다.
+ * 계좌 기준에서 거절되면 노드에서처럼 앞서 꺼낸 사용자 토큰을 노드와 Redis 모두 돌려놓는다.
+ * Redis 를 쓸 수 없으면(서킷 OPEN, 호출 실패) 노드 버킷 결과만으로 판단한다.
+ * 서킷은 락 서킷과 따로 둬서 요청 제한 쪽 지연이 계좌 락을 로컬로 돌리지 않게 한다.
+ * 노드마다 벽시계로 시각을 넘기므로 노드 간 시계 차이만큼 한도가 느슨하거나 빡빡해질 수 있다.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+    private static final String ROUTE_PROPERTY = "account.rate-limit.routes.";
+    private static final String CLUSTER_KEY_PREFIX = "ACRL : ";
+    // KEYS[1] 버킷 키, ARGV 는 지금, interval, tolerance (모두 마이크로초). 꺼냈으면 1, 아니면 0.
+    private static final String ACQUIRE_SCRIPT =
+            "local now = tonumber(ARGV[1]) "
+                    + "local tat = tonumber(redis.call('get', KEYS[1]) or ARGV[1]) "
+                    + "local nextTat = math.max(tat, now) + tonumber(ARGV[2]) "
+                    + "if nextTat - now > tonumber(ARGV[3]) then return 0 end "
+                    + "redis.call('set', KEYS[1], string.format('%.0f', nextTat), 'px', math.ceil((nextTat - now) / 1000)) "
+                    + "return 1";
+    // KEYS[1] 버킷 키, ARGV[1] 돌려놓을 interval (마이크로초). 남은 TTL 은 그대로 둔다.
+    private static final String REFUND_SCRIPT =
+            "local tat = redis.call('get', KEYS[1]) "
+                    + "local ttl = redis.call('pttl', KEYS[1]) "
+                    + "if tat and ttl > 0 then "
+                    + "redis.call('set', KEYS[1], string.format('%.0f', tonumber(tat) - tonumber(ARGV[1])), 'px', ttl) "
+                    + "end "
+                    + "return 0";
+
+    private final RedisLockRing redisLockRing;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final Environment environment;
+    private final boolean enabled;
+    private final boolean cluster;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Limits> routes = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+
+    @Autowired
+    public RateLimiter(
+            RedisLockRing redisLockRing,
+            Environment environment,
+            @Value("${account.rate-limit.enabled:true}") boolean enabled,
+            @Value("${account.rate-limit.cluster.enabled:false}") boolean cluster,
+            @Value("${account.rate-limit.idle-evict-ms:60000}") long idleEvictMillis) {
+        this(redisLockRing,
+                RedisCircuitBreaker.of(environment, "account.rate-limit.cluster.circuit", "rate-limit",
+                        "using node rate limits only"),
+                environment, enabled, cluster, idleEvictMillis, System::nanoTime);
+    }
+
+    RateLimiter(RedisLockRing redisLockRing, RedisCircuitBreaker redisCircuitBreaker, Environment environment,
+                boolean enabled, boolean cluster, long idleEvictMillis, LongSupplier nanoClock) {
+        this.redisLockRing = redisLockRing;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.cluster = cluster;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMillis);
+        this.nanoClock = nanoClock;
+        this.nextSweepNanos = new AtomicLong(nanoClock.getAsLong() + idleNanos);
+    }
+
+    /**
+     * 사용자와 계좌 버킷에서 토큰을 하나씩 꺼낸다. 하나라도 비어 있으면 false 이며 꺼낸 토큰은 돌려놓는다.
+     * userId 나 accountNumber 가 null 이면 그 기준은 검사하지 않는다.
+     */
+    public boolean tryAcquire(RateLimit rateLimit, Long userId, String accountNumber) {
+        if (!enabled) {
+            return true;
+        }
+        Limits limits = routes.computeIfAbsent(rateLimit.value(), route -> limits(route, rateLimit));
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+
+        String userKey = userId == null || limits.user() == null
+                ? null : limits.route() + ":u:" + userId;
+        String accountKey = accountNumber == null || limits.account() == null
+                ? null : limits.route() + ":a:" + accountNumber;
+
+        Bucket userBucket = userKey == null ? null : bucket(userKey, now);
+        if (userBucket != null && !userBucket.tryAcquire(now, limits.user())) {
+            return false;
+        }
+        Bucket accountBucket = accountKey == null ? null : bucket(accountKey, now);
+        if (accountBucket != null && !accountBucket.tryAcquire(now, limits.account())) {
+            if (userBucket != null) {
+                userBucket.refund(limits.user());
+            }
+            return false;
+        }
+        if (!cluster) {
+            return true;
+        }
+        // 노드 버킷은 클러스터 전체 한도보다 느슨하지 않으니, 여기서 걸러진 요청은 Redis 까지 가지 않는다.
+        long clusterNow = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        ClusterResult user = tryAcquireCluster(userKey, limits.user(), clusterNow);
+        if (user == ClusterResult.REJECTED) {
+            return false;
+        }
+        if (tryAcquireCluster(accountKey, limits.account(), clusterNow) != ClusterResult.REJECTED) {
+            return true;
+        }
+        // 노드 경로처럼 계좌 한도에 걸린 요청은 사용자 토큰을 돌려놓는다. 계좌 토큰은 그대로 두어
+        // 한도가 찬 계좌로 몰리는 요청은 계속 노드 버킷에서 걸러지게 한다.
+        if (user == ClusterResult.ACQUIRED) {
+            refundCluster(userKey, limits.user());
+        }
+        if (userBucket != null) {
+            userBucket.refund(limits.user());
+        }
+        return false;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private Bucket bucket(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        return bucket != null ? bucket : buckets.computeIfAbsent(key, k -> new Bucket(now));
+    }
+
+    /**
+     * 가득 찬 채로 idle-evict-ms 가 지난 버킷을 지운다. 요청 스레드 중 하나만 돈다.
+     * 지우는 순간 그 버킷을 쓰던 요청의 토큰은 잊히지만, 그 결과는 한 번 더 burst 를 허용하는 정도다.
+     */
+    private void sweepIfDue(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + idleNanos)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> now - bucket.tat.get() > idleNanos);
+    }
+
+    /**
+     * 검사하지 않는 기준이거나 Redis 를 쓸 수 없으면 SKIPPED 이고, 그때는 돌려놓을 토큰도 없다.
+     */
+    private ClusterResult tryAcquireCluster(String key, Rate rate, long nowMicros) {
+        if (key == null || !redisCircuitBreaker.allowRequest()) {
+            return ClusterResult.SKIPPED;
+        }
+        long start = System.nanoTime();
+        try {
+            String name = CLUSTER_KEY_PREFIX + key;
+            Long acquired = redisLockRing.clientFor(name).getScript(StringCodec.INSTANCE).eval(name,
+                    RScript.Mode.READ_WRITE, ACQUIRE_SCRIPT, RScript.ReturnType.INTEGER, List.of(name),
+                    nowMicros, toMicros(rate.intervalNanos()), toMicros(rate.toleranceNanos()));
+            redisCircuitBreaker.onSuccess(System.nanoTime() - start);
+            return acquired != null && acquired == 1L ? ClusterResult.ACQUIRED : ClusterResult.REJECTED;
+        } catch (RuntimeException e) {
+            redisCircuitBreaker.onError();
+            log.debug("Cluster rate limit check failed, using node limit only : {}", e.toString());
+            return ClusterResult.SKIPPED;
+        }
+    }
+
+    /**
+     * 다른 기준에서 거절된 요청이 꺼낸 토큰을 돌려놓는다. 기다리지 않고, 실패하면 그 토큰만 잃는다.
+     */
+    private void refundCluster(String key, Rate rate) {
+        String name = CLUSTER_KEY_PREFIX + key;
+        try {
+            redisLockRing.clientFor(name).getScript(StringCodec.INSTANCE).evalAsync(name,
+                    RScript.Mode.READ_WRITE, REFUND_SCRIPT, RScript.ReturnType.INTEGER, List.of(name),
+                    toMicros(rate.intervalNanos()));
+        } catch (RuntimeException e) {
+            log.debug("Cluster rate limit refund failed : {}", e.toString());
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private Limits limits(String route, RateLimit defaults) {
+        String prefix = ROUTE_PROPERTY + route + ".";
+        return new Limits(route,
+                rate(environment.getProperty(prefix + "user-per-second", Double.class, defaults.userPerSecond()),
+                        environment.getProperty(prefix + "user-burst", Integer.class, defaults.userBurst())),
+                rate(environment.getProperty(prefix + "account-per-second", Double.class, defaults.accountPerSecond()),
+                        environment.getProperty(prefix + "account-burst", Integer.class, defaults.accountBurst())));
+    }
+
+    private static Rate rate(double perSecond, int burst) {
+        if (perSecond <= 0) {
+            return null;
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+        int effectiveBurst = Math.max(1, burst);
+        return new Rate(intervalNanos, intervalNanos * effectiveBurst, effectiveBurst);
+    }
+
+    /**
+     * intervalNanos 마다 토큰 하나가 차고, 최대 burst 개(toleranceNanos 만큼)까지 쌓인다.
+     */
+    record Rate(long intervalNanos, long toleranceNanos, int burst) {
+    }
+
+    private record Limits(String route, Rate user, Rate account) {
+    }
+
+    private enum ClusterResult {
+        ACQUIRED,
+        REJECTED,
+        SKIPPED
+    }
+
+    private static final class Bucket {
+        // 버킷이 다시 가득 차는 시각. 지금보다 과거면 가득 찬 상태다.
+        private final AtomicLong tat;
+
+        private Bucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+
+        private boolean tryAcquire(long now, Rate rate) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + rate.intervalNanos();
+                if (next - now > rate.toleranceNanos()) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private void refund(Rate rate) {
+            tat.addAndGet(-rate.intervalNanos());
+        }
+    }
+}
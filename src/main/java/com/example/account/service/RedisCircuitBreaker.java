@@ -0,0 +1,208 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Redis 호출용 서킷 브레이커. 빈으로 쓰는 것은 락 호출용이고,
+ * 요청 제한이나 이벤트 전파처럼 락과 따로 판단해야 하는 호출은 of 로 자기 서킷을 만든다.
+ * 최근 window 건 중 실패 비율이나 느린 호출 비율이 기준을 넘으면 열린다(OPEN).
+ * open-ms 가 지나면 half-open 으로 바뀌어 half-open-probes 건만 Redis 로 보내 보고,
+ * 모두 성공하면 닫히고 하나라도 실패하면 다시 열린다.
+ * allowRequest 가 true 를 준 호출은 onSuccess, onError, onIgnored 중 하나로 반드시 결과를 알려야 한다.
+ * 그렇지 않으면 half-open 의 시험 허용이 돌아오지 않는다.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILURE = 2;
+
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final double slowRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    // 로그에 남기는 이름과 서킷이 열렸을 때 대신하는 동작
+    private final String name;
+    private final String fallback;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final byte[] outcomes;
+    private int position;
+    private int size;
+    private int failures;
+    private int slowCalls;
+
+    @Autowired
+    public RedisCircuitBreaker(
+            @Value("${account.lock.circuit.window:50}") int window,
+            @Value("${account.lock.circuit.min-calls:20}") int minCalls,
+            @Value("${account.lock.circuit.failure-rate:0.5}") double failureRateThreshold,
+            @Value("${account.lock.circuit.slow-rate:0.5}") double slowRateThreshold,
+            @Value("${account.lock.circuit.slow-call-ms:100}") long slowCallMillis,
+            @Value("${account.lock.circuit.open-ms:5000}") long openMillis,
+            @Value("${account.lock.circuit.half-open-probes:3}") int halfOpenProbes) {
+        this("lock", "using local account locks", window, minCalls, failureRateThreshold, slowRateThreshold,
+                slowCallMillis, openMillis, halfOpenProbes);
+    }
+
+    private RedisCircuitBreaker(String name, String fallback, int window, int minCalls, double failureRateThreshold,
+                                double slowRateThreshold, long slowCallMillis, long openMillis, int halfOpenProbes) {
+        this.name = name;
+        this.fallback = fallback;
+        this.outcomes = new byte[window];
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowRateThreshold = slowRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * prefix 아래의 window, min-calls, ... 설정으로 서킷을 만든다. 없는 설정은 락 서킷의 기본값을 쓴다.
+     */
+    public static RedisCircuitBreaker of(PropertyResolver properties, String prefix, String name, String fallback) {
+        return new RedisCircuitBreaker(name, fallback,
+                properties.getProperty(prefix + ".window", Integer.class, 50),
+                properties.getProperty(prefix + ".min-calls", Integer.class, 20),
+                properties.getProperty(prefix + ".failure-rate", Double.class, 0.5),
+                properties.getProperty(prefix + ".slow-rate", Double.class, 0.5),
+                properties.getProperty(prefix + ".slow-call-ms", Long.class, 100L),
+                properties.getProperty(prefix + ".open-ms", Long.class, 5000L),
+                properties.getProperty(prefix + ".half-open-probes", Integer.class, 3));
+    }
+
+    /**
+     * Redis 를 호출해도 되는지. false 면 Redis 없이 대신한다(락은 로컬 락으로).
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(halfOpenProbes);
+                log.info("Redis {} circuit half-open, probing", name);
+            }
+        }
+        // 0 아래로 내리지 않아야 onIgnored 로 돌려준 허용이 바로 다시 쓰인다.
+        return halfOpenPermits.getAndUpdate(permits -> permits > 0 ? permits - 1 : permits) > 0;
+    }
+
+    /**
+     * 호출 성공. elapsedNanos 는 Redis 왕복 시간이며 락 대기가 섞이지 않은 호출만 넘긴다 (없으면 0).
+     */
+    public void onSuccess(long elapsedNanos) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (state.get() == State.HALF_OPEN) {
+            if (slow) {
+                open("slow probe");
+            } else if (halfOpenSuccesses.incrementAndGet() >= halfOpenProbes
+                    && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                reset();
+                log.info("Redis {} circuit closed", name);
+            }
+            return;
+        }
+        record(slow ? SLOW : SUCCESS);
+    }
+
+    public void onError() {
+        if (state.get() == State.HALF_OPEN) {
+            open("failed probe");
+            return;
+        }
+        record(FAILURE);
+    }
+
+    /**
+     * Redis 결과를 알 수 없이 끝난 호출(락 대기 중 인터럽트 등). half-open 이면 받은 시험 허용을 돌려준다.
+     */
+    public void onIgnored() {
+        if (state.get() == State.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private void record(byte outcome) {
+        String reason = null;
+        synchronized (outcomes) {
+            if (size == outcomes.length) {
+                remove(outcomes[position]);
+            } else {
+                size++;
+            }
+            outcomes[position] = outcome;
+            position = (position + 1) % outcomes.length;
+            if (outcome == FAILURE) {
+                failures++;
+            } else if (outcome == SLOW) {
+                slowCalls++;
+            }
+            if (size >= minCalls) {
+                if (failures >= size * failureRateThreshold) {
+                    reason = "failure rate " + failures + "/" + size;
+                } else if (slowCalls >= size * slowRateThreshold) {
+                    reason = "slow call rate " + slowCalls + "/" + size;
+                }
+            }
+        }
+        if (reason != null && state.get() == State.CLOSED) {
+            open(reason);
+        }
+    }
+
+    private void remove(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private void open(String reason) {
+        openedAt = System.nanoTime();
+        if (state.getAndSet(State.OPEN) != State.OPEN) {
+            log.warn("Redis {} circuit opened ({}), {}", name, reason, fallback);
+        }
+    }
+
+    private void reset() {
+        synchronized (outcomes) {
+            position = 0;
+            size = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
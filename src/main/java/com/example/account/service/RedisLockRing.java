@@ -0,0 +1,106 @@
+package com.example.account.service;
+
+import com.example.account.util.KeyHash;
+import org.redisson.api.RedissonClient;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 락 키를 여러 Redis 노드에 나누는 consistent hash 링
+ * 노드마다 가상 노드를 여러 개 링에 올려 키가 고르게 퍼지게 하고,
+ * 노드를 하나 더해도 그 노드가 가져가는 구간의 키만 옮겨 간다.
+ * 가상 노드 위치는 노드 이름(host:port)으로 정하므로 설정 순서가 바뀌어도 배치는 같다.
+ */
+public class RedisLockRing {
+    public static final int DEFAULT_VIRTUAL_NODES = 256;
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final NavigableMap<Long, Node> ring = new TreeMap<>();
+
+    public RedisLockRing(Map<String, RedissonClient> clients) {
+        this(clients, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public RedisLockRing(Map<String, RedissonClient> clients, int virtualNodes) {
+        this(clients.keySet(), clients::get, virtualNodes);
+        nodes.values().forEach(Node::client);
+    }
+
+    private RedisLockRing(Collection<String> names, Function<String, RedissonClient> connector, int virtualNodes) {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Redis lock ring needs at least one node");
+        }
+        for (String name : names) {
+            Node node = new Node(name, connector);
+            nodes.put(name, node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(KeyHash.hash64(name + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * 노드에 처음 락 요청이 갈 때 connector 로 클라이언트를 만든다.
+     * 기동 시 Redis 연결을 기다리지 않으며, 연결에 실패하면 다음 요청에서 다시 시도한다.
+     */
+    public static RedisLockRing connectLazily(Collection<String> names, Function<String, RedissonClient> connector) {
+        return new RedisLockRing(names, connector, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public RedissonClient clientFor(String key) {
+        Map.Entry<Long, Node> entry = ring.ceilingEntry(KeyHash.hash64(key));
+        return (entry != null ? entry.getValue() : ring.firstEntry().getValue()).client();
+    }
+
+    public RedissonClient node(String name) {
+        Node node = nodes.get(name);
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown Redis node : " + name);
+        }
+        return node.client();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public void shutdown() {
+        nodes.values().forEach(Node::shutdown);
+    }
+
+    private static final class Node {
+        private final String name;
+        private final Function<String, RedissonClient> connector;
+        private volatile RedissonClient client;
+
+        Node(String name, Function<String, RedissonClient> connector) {
+            this.name = name;
+            this.connector = connector;
+        }
+
+        RedissonClient client() {
+            RedissonClient current = client;
+            if (current == null) {
+                synchronized (this) {
+                    current = client;
+                    if (current == null) {
+                        current = connector.apply(name);
+                        client = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        synchronized void shutdown() {
+            if (client != null) {
+                client.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 이름/키의 조회가 동시에 들어오면 먼저 온 요청(leader)만 조회하고 나머지(follower)는 그 결과를 같이 받는다.
+ * 조회가 끝나면 결과를 넘기기 전에 항목을 지우므로 끝난 조회의 결과를 다시 쓰는 일은 없다. (캐시가 아니다)
+ * 예외도 모든 대기자에게 그대로 전달된다.
+ * account.coalesce.requests{name, role=leader|follower} 로 합쳐진 비율을 볼 수 있다.
+ */
+@Component
+public class SingleFlight {
+    private static final String LEADER = "leader";
+    private static final String FOLLOWER = "follower";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 호출한 스레드에서 조회하거나, 이미 진행 중인 조회가 있으면 끝날 때까지 기다린다.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String name, Object key, Supplier<V> loader) {
+        Key flightKey = new Key(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            count(name, FOLLOWER);
+            return (V) join(existing);
+        }
+        count(name, LEADER);
+        try {
+            V value = loader.get();
+            inFlight.remove(flightKey, flight);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 비동기 조회용. follower 는 스레드를 잡지 않고 leader 의 future 를 기다린다.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> executeAsync(String name, Object key, Supplier<CompletableFuture<V>> loader) {
+        Key flightKey = new Key(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            count(name, FOLLOWER);
+            return (CompletableFuture<V>) existing.copy();
+        }
+        count(name, LEADER);
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        load.whenComplete((value, e) -> {
+            inFlight.remove(flightKey, flight);
+            if (e != null) {
+                flight.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause() : e);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return (CompletableFuture<V>) flight.copy();
+    }
+
+    int inFlightSize() {
+        return inFlight.size();
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void count(String name, String role) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        counters.computeIfAbsent(new Key(name, role), key -> Counter.builder("account.coalesce.requests")
+                        .tag("name", name)
+                        .tag("role", role)
+                        .register(registry))
+                .increment();
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.account.service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * hashed timing wheel
+ * wheel-size 개의 칸이 tick 마다 한 칸씩 돌고, 마감 시각은 (마감 tick % wheel-size) 칸에 남은 바퀴 수와 함께 넣는다.
+ * 예약/취소는 O(1) 이고 tick 마다 한 칸만 보므로 예약이 수백만 개여도 만료 하나에 드는 비용은 일정하다.
+ * schedule/cancel 은 아무 스레드에서나 부르고, advance 는 한 스레드만 부른다.
+ * 새 예약은 큐에 두었다가 advance 스레드가 칸에 옮기므로 칸 자체에는 락이 없다.
+ * 취소된 예약은 자기 칸 차례가 올 때 빠진다.
+ * 마감보다 일찍 만료되는 일은 없고, 늦어도 tick 하나 이내다. (advance 가 제때 불린다면)
+ */
+final class TimingWheel<T> {
+    private final long tickNanos;
+    private final long startNanos;
+    private final int mask;
+    private final Timeout<T>[] wheel;
+    private final ConcurrentLinkedQueue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // advance 스레드만 읽고 쓴다.
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickNanos and wheelSize must be positive");
+        }
+        int buckets = Integer.highestOneBit(wheelSize - 1) << 1;
+        buckets = Math.max(buckets, 1);
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.mask = buckets - 1;
+        this.wheel = new Timeout[buckets];
+    }
+
+    Timeout<T> schedule(T item, long deadlineNanos) {
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineNanos);
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * nowNanos 까지 끝난 tick 을 모두 돌며 마감이 지난 예약을 expired 로 넘긴다.
+     */
+    void advance(long nowNanos, Consumer<T> expired) {
+        while (nowNanos - (startNanos + (tick + 1) * tickNanos) >= 0) {
+            transferPending();
+            expireBucket((int) (tick & mask), expired);
+            tick++;
+        }
+    }
+
+    /**
+     * 다음 tick 이 끝날 때까지 남은 시간
+     */
+    long nanosUntilNextTick(long nowNanos) {
+        return Math.max(0L, startNanos + (tick + 1) * tickNanos - nowNanos);
+    }
+
+    /**
+     * 아직 만료되지도 취소되지도 않은 예약 수
+     */
+    int size() {
+        return size.get();
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            // 이미 지난 마감도 지금 칸에 넣어 이번 tick 에 만료시킨다.
+            long deadlineTick = Math.max(Math.floorDiv(timeout.deadlineNanos - startNanos, tickNanos), tick);
+            timeout.remainingRounds = (deadlineTick - tick) >>> Long.numberOfTrailingZeros(wheel.length);
+            int index = (int) (deadlineTick & mask);
+            timeout.next = wheel[index];
+            wheel[index] = timeout;
+        }
+    }
+
+    private void expireBucket(int index, Consumer<T> expired) {
+        Timeout<T> previous = null;
+        Timeout<T> timeout = wheel[index];
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            boolean remove;
+            if (timeout.state != Timeout.PENDING) {
+                remove = true;
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                remove = false;
+            } else {
+                remove = true;
+                if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                    size.decrementAndGet();
+                    expired.accept(timeout.item);
+                }
+            }
+            if (remove) {
+                if (previous == null) {
+                    wheel[index] = next;
+                } else {
+                    previous.next = next;
+                }
+                timeout.next = null;
+            } else {
+                previous = timeout;
+            }
+            timeout = next;
+        }
+    }
+
+    static final class Timeout<T> {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel<T> wheel;
+        private final T item;
+        private final long deadlineNanos;
+        private volatile int state = PENDING;
+        // 아래 둘은 advance 스레드만 쓴다.
+        private long remainingRounds;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T item, long deadlineNanos) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * 만료 전에 취소했으면 true. 이미 만료됐거나 취소된 예약이면 false.
+         */
+        boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.size.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.SearchTransactions;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.ErrorCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.QueryTimeoutException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 검색
+ * 조건 조합으로 검색 계획을 고르고, 계획마다 맞는 Transaction 복합 인덱스를 타는 모양으로만 조회한다.
+ * - ACCOUNT: 계좌번호가 있으면 그 계좌의 샤드 하나에서 (account_id, transactedAt, id) 인덱스 범위를 읽는다.
+ * - TIME_RANGE: 계좌번호가 없으면 기간이 필수이고 max-range-without-account 이하여야 한다.
+ *   모든 샤드에서 (transactedAt, id) 인덱스 범위를 읽어 합친다.
+ * 거래 유형, 결과, 금액 조건은 인덱스로 좁힌 범위 안에서 거른다.
+ * 결과는 (transactedAt, id) 내림차순이고, 다음 페이지는 마지막 행의 (transactedAt, id) 를 담은 cursor 로 이어 읽는다.
+ * 잔액 사용 경로와 커넥션을 나눠 쓰므로 동시 검색 수는 max-concurrent 로, 쿼리 하나는 timeout-seconds 로 묶는다.
+ */
+@Slf4j
+@Service
+public class TransactionSearchService {
+    enum Plan {
+        ACCOUNT,
+        TIME_RANGE
+    }
+
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final Duration maxRangeWithoutAccount;
+    private final int timeoutSeconds;
+    private final Semaphore permits;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TransactionSearchService(
+            AccountRepository accountRepository,
+            ShardRouter shardRouter,
+            @Value("${account.transaction-search.default-limit:50}") int defaultLimit,
+            @Value("${account.transaction-search.max-limit:200}") int maxLimit,
+            @Value("${account.transaction-search.max-range-without-account-hours:24}") long maxRangeHours,
+            @Value("${account.transaction-search.timeout-seconds:2}") int timeoutSeconds,
+            @Value("${account.transaction-search.max-concurrent:4}") int maxConcurrent) {
+        this.accountRepository = accountRepository;
+        this.shardRouter = shardRouter;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxRangeWithoutAccount = Duration.ofHours(maxRangeHours);
+        this.timeoutSeconds = timeoutSeconds;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public SearchTransactions.Response search(SearchTransactions.Condition condition) {
+        Plan plan = plan(condition);
+        int limit = condition.getLimit() == null ? defaultLimit : Math.min(condition.getLimit(), maxLimit);
+        if (limit < 1) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        Cursor cursor = condition.getCursor() == null ? null : Cursor.decode(condition.getCursor());
+
+        if (!permits.tryAcquire()) {
+            throw new AccountException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        List<Row> rows;
+        try {
+            // 한 행 더 읽어 다음 페이지가 있는지 안다.
+            rows = plan == Plan.ACCOUNT
+                    ? shardRouter.executeInShard(shardRouter.shardOf(condition.getAccountNumber()),
+                            () -> find(condition, findAccountId(condition.getAccountNumber()), cursor, limit + 1))
+                    : shardRouter.fanOut(() -> find(condition, null, cursor, limit + 1)).stream()
+                            .flatMap(List::stream)
+                            .sorted(Row.NEWEST_FIRST)
+                            .toList();
+        } catch (QueryTimeoutException e) {
+            log.debug("Transaction search timed out. plan : {}", plan);
+            throw new AccountException(ErrorCode.TRANSACTION_SEARCH_TOO_BROAD);
+        } finally {
+            permits.release();
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<Row> page = hasNext ? rows.subList(0, limit) : rows;
+        return SearchTransactions.Response.builder()
+                .transactions(page.stream().map(Row::transaction).toList())
+                .nextCursor(hasNext ? new Cursor(page.get(limit - 1).transactedAt(), page.get(limit - 1).id()).encode()
+                        : null)
+                .build();
+    }
+
+    /**
+     * 인덱스로 범위를 좁힐 수 없는 조건(계좌도 기간도 없거나 기간이 너무 긴 경우)은 실행하지 않는다.
+     */
+    private Plan plan(SearchTransactions.Condition condition) {
+        LocalDateTime from = condition.getFrom();
+        LocalDateTime to = condition.getTo();
+        if ((from != null && to != null && !from.isBefore(to))
+                || (condition.getMinAmount() != null && condition.getMaxAmount() != null
+                && condition.getMinAmount() > condition.getMaxAmount())) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        if (condition.getAccountNumber() != null) {
+            return Plan.ACCOUNT;
+        }
+        if (from == null
+                || Duration.between(from, to == null ? LocalDateTime.now() : to).compareTo(maxRangeWithoutAccount) > 0) {
+            throw new AccountException(ErrorCode.TRANSACTION_SEARCH_TOO_BROAD);
+        }
+        return Plan.TIME_RANGE;
+    }
+
+    private Long findAccountId(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(Account::getId)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    private List<Row> find(SearchTransactions.Condition condition, Long accountId, Cursor cursor, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> transaction = query.from(Transaction.class);
+        transaction.fetch("account");
+        Path<LocalDateTime> transactedAt = transaction.get("transactedAt");
+        Path<Long> id = transaction.get("id");
+        Path<Long> amount = transaction.get("amount");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (accountId != null) {
+            predicates.add(cb.equal(transaction.get("account").get("id"), accountId));
+        }
+        if (condition.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(transactedAt, condition.getFrom()));
+        }
+        if (condition.getTo() != null) {
+            predicates.add(cb.lessThan(transactedAt, condition.getTo()));
+        }
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(transactedAt, cursor.transactedAt()),
+                    cb.and(cb.equal(transactedAt, cursor.transactedAt()), cb.lessThan(id, cursor.id()))));
+        }
+        if (condition.getTransactionTypes() != null && !condition.getTransactionTypes().isEmpty()) {
+            predicates.add(transaction.get("trasactionType").in(condition.getTransactionTypes()));
+        }
+        if (condition.getTransactionResultTypes() != null && !condition.getTransactionResultTypes().isEmpty()) {
+            predicates.add(transaction.get("transactionResultType").in(condition.getTransactionResultTypes()));
+        }
+        if (condition.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(amount, condition.getMinAmount()));
+        }
+        if (condition.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(amount, condition.getMaxAmount()));
+        }
+        query.select(transaction)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(transactedAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(maxResults)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint("jakarta.persistence.query.timeout", (int) TimeUnit.SECONDS.toMillis(timeoutSeconds))
+                .getResultList().stream()
+                .map(row -> new Row(row.getTransactedAt(), row.getId(),
+                        QueryTransactionResponse.from(TransactionDto.fromEntity(row))))
+                .toList();
+    }
+
+    private record Row(LocalDateTime transactedAt, Long id, QueryTransactionResponse transaction) {
+        private static final Comparator<Row> NEWEST_FIRST = Comparator.comparing(Row::transactedAt)
+                .thenComparing(Row::id)
+                .reversed();
+    }
+
+    /**
+     * 마지막으로 돌려준 행의 (transactedAt, id). 클라이언트에게는 base64url 문자열로 준다.
+     */
+    record Cursor(LocalDateTime transactedAt, Long id) {
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((transactedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+    }
+}
@@ -1,26 +1,41 @@
 package com.example.account.service;
 
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountDailySummary;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
+import com.example.account.event.TransactionRecorded;
 import com.example.account.exception.AccountException;
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.repository.AccountDailySummaryRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
 import com.example.account.repository.TransactionRepository;
+import com.example.account.shard.ShardContext;
+import com.example.account.shard.ShardKey;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.example.account.shard.ShardKey.Type.TRANSACTION_ID;
 import static com.example.account.type.TransactionResultType.F;
 import static com.example.account.type.TransactionResultType.S;
 import static com.example.account.type.TransactionType.*;
@@ -29,12 +44,19 @@ import static com.example.account.type.TransactionType.*;
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    // 이체는 상대 계좌 거래와, 홀드 거래는 홀드 상태와 함께 움직여야 해서 취소로 되돌리지 않는다.
+    private static final Set<TransactionType> NOT_CANCELABLE =
+            EnumSet.of(TRANSFER_OUT, TRANSFER_IN, HOLD, CAPTURE, RELEASE);
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final AccountDailySummaryRepository accountDailySummaryRepository;
 
     @Transactional
-    public TransactionDto useBalance(Long userId, String accountNumber, Long amount){
+    public TransactionDto useBalance(Long userId, @ShardKey String accountNumber, Long amount){
         AccountUser user = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
 
@@ -44,6 +66,7 @@ public class TransactionService {
         validateUseBalance(user,account,amount);
 
         account.useBalance(amount);
+        eventPublisher.publishEvent(AccountBalanceChanged.from(account));
 
         Transaction transaction = saveAndGetTransaction(USE,S, amount, account);
 
@@ -64,7 +87,7 @@ public class TransactionService {
     }
 
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    public void saveFailedUseTransaction(@ShardKey String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(()-> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
         saveAndGetTransaction(USE,F, amount, account);
@@ -75,23 +98,110 @@ public class TransactionService {
             TransactionResultType transactionResultType,
             Long amount,
             Account account) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .trasactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        return saveAndGetTransaction(transactionType, transactionResultType, amount, account,
+                generateTransactionId(), null);
+    }
+
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Long amount,
+            Account account,
+            String transactionId,
+            String linkedTransactionId) {
+        Transaction transaction = Transaction.builder()
+                .trasactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionId)
+                .linkedTransactionId(linkedTransactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        eventPublisher.publishEvent(TransactionRecorded.from(transaction));
+        addToDailySummary(transaction);
+        return transactionRepository.save(transaction);
+    }
+
+    /**
+     * 거래와 같은 DB 트랜잭션에서 하루 집계에 더한다. 거래가 롤백되면 집계도 같이 롤백된다.
+     * 계좌 락이 로컬로만 잡혀 다른 노드가 같은 계좌의 그날 첫 행을 함께 만들 수 있으므로, 첫 행은 DB 의 계좌 행 락 안에서 만든다.
+     * 같은 트랜잭션에서 만들므로 거래가 롤백되면 행도 남지 않는다.
+     */
+    private void addToDailySummary(Transaction transaction) {
+        AccountDailySummary delta = AccountDailySummary.of(transaction);
+        if (delta == null || accountDailySummaryRepository.add(delta) > 0) {
+            return;
+        }
+        // 그날 첫 거래. 계좌 행을 잠가 같은 계좌의 첫 거래끼리 줄을 세우고,
+        // 앞선 트랜잭션이 행을 만들고 커밋했으면 그 행에 더하고 아니면 이 거래 값으로 행을 만든다.
+        accountRepository.lockById(delta.getAccount().getId());
+        if (accountDailySummaryRepository.add(delta) == 0) {
+            accountDailySummaryRepository.save(delta);
+        }
+    }
+
+    /**
+     * 출금과 입금을 하나의 DB 트랜잭션에서 처리하고,
+     * 서로를 가리키는 출금/입금 거래 두 건을 남긴다. 반환값은 출금 거래.
+     */
+    @Transactional
+    public TransactionDto transfer(
+            Long userId,
+            @ShardKey String accountNumber,
+            @ShardKey String targetAccountNumber,
+            Long amount) {
+        if(Objects.equals(accountNumber, targetAccountNumber)){
+            throw new AccountException(ErrorCode.TRANSFER_SAME_ACCOUNT);
+        }
+        AccountUser user = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Account targetAccount = accountRepository.findByAccountNumber(targetAccountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        validateUseBalance(user, account, amount);
+        if(targetAccount.getAccountStatus() != AccountStatus.IN_USE){
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+
+        account.useBalance(amount);
+        targetAccount.depositBalance(amount);
+        eventPublisher.publishEvent(AccountBalanceChanged.from(account));
+        eventPublisher.publishEvent(AccountBalanceChanged.from(targetAccount));
+
+        String transactionId = generateTransactionId();
+        String targetTransactionId = generateTransactionId();
+        Transaction transaction = saveAndGetTransaction(TRANSFER_OUT, S, amount, account,
+                transactionId, targetTransactionId);
+        saveAndGetTransaction(TRANSFER_IN, S, amount, targetAccount,
+                targetTransactionId, transactionId);
+
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Transactional
+    public void saveFailedTransferTransaction(@ShardKey String accountNumber, Long amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()-> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        saveAndGetTransaction(TRANSFER_OUT,F, amount, account);
+    }
+
+    /**
+     * 샤드로 라우팅된 호출이면 첫 글자를 샤드 번호(16진수)로 바꿔 조회 시 바로 샤드를 찾게 한다.
+     */
+    static String generateTransactionId() {
+        String transactionId = UUID.randomUUID().toString().replace("-", "");
+        Integer shard = ShardContext.current();
+        return shard == null ? transactionId : Character.forDigit(shard, 16) + transactionId.substring(1);
     }
 
     @Transactional
     public TransactionDto cancelBalance(
             String transactionId,
-            String accountNumber,
+            @ShardKey String accountNumber,
             Long amount) {
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
                 .orElseThrow(()->new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
@@ -100,13 +210,17 @@ public class TransactionService {
         validateCancelBalance(transaction,account,amount);
 
         account.cancelBalance(amount);
+        eventPublisher.publishEvent(AccountBalanceChanged.from(account));
 
         return TransactionDto.fromEntity(
-                saveAndGetTransaction(CANCEL,F,amount,account)
+                saveAndGetTransaction(CANCEL,S,amount,account)
         );
     }
 
     private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
+        if(NOT_CANCELABLE.contains(transaction.getTrasactionType())){
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_CANCELABLE);
+        }
         if(!Objects.equals(transaction.getAccount().getId(), account.getId())){
             throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
         }
@@ -119,13 +233,146 @@ public class TransactionService {
     }
 
     @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+    public void saveFailedCancelTransaction(@ShardKey String accountNumber, Long amount) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(()-> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
         saveAndGetTransaction(CANCEL,F, amount, account);
     }
 
-    public TransactionDto queryTransaction(String transactionId) {
+    /**
+     * 잔액을 바로 쓰지 않고 ttlSeconds 동안 묶어 둔다. 묶인 금액은 사용 가능 잔액(balance)에서 heldBalance 로 옮겨진다.
+     * HOLD 거래의 transactionId 가 holdId 이며, 확정도 해제도 없이 만료되면 HoldExpiryScheduler 가 풀어 준다.
+     */
+    @Transactional
+    public HoldDto holdBalance(Long userId, @ShardKey String accountNumber, Long amount, long ttlSeconds) {
+        AccountUser user = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        validateUseBalance(user, account, amount);
+
+        account.holdBalance(amount);
+        Transaction transaction = saveAndGetTransaction(HOLD, S, amount, account);
+        BalanceHold hold = balanceHoldRepository.save(
+                BalanceHold.builder()
+                        .holdId(transaction.getTransactionId())
+                        .account(account)
+                        .amount(amount)
+                        .status(HoldStatus.HELD)
+                        .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                        .build());
+        eventPublisher.publishEvent(AccountBalanceChanged.from(account));
+        eventPublisher.publishEvent(BalanceHoldChanged.from(hold));
+
+        return HoldDto.fromEntity(hold);
+    }
+
+    /**
+     * 홀드 금액 중 amount 를 확정해 빼 간다. 나머지는 사용 가능 잔액으로 돌아가고 RELEASE 거래로 남는다.
+     */
+    @Transactional
+    public HoldDto captureHold(String holdId, @ShardKey String accountNumber, Long amount) {
+        BalanceHold hold = getOpenHold(holdId, accountNumber);
+        if(amount > hold.getAmount()){
+            throw new AccountException(ErrorCode.CAPTURE_EXCEED_HOLD);
+        }
+        Account account = hold.getAccount();
+        long remainder = hold.getAmount() - amount;
+
+        account.captureHeldBalance(amount);
+        account.releaseHeldBalance(remainder);
+        hold.close(HoldStatus.CAPTURED, amount);
+        saveAndGetTransaction(CAPTURE, S, amount, account, generateTransactionId(), holdId);
+        if(remainder > 0){
+            saveAndGetTransaction(RELEASE, S, remainder, account, generateTransactionId(), holdId);
+        }
+        publishHoldClosed(hold);
+
+        return HoldDto.fromEntity(hold);
+    }
+
+    @Transactional
+    public HoldDto releaseHold(String holdId, @ShardKey String accountNumber) {
+        BalanceHold hold = getOpenHold(holdId, accountNumber);
+        return HoldDto.fromEntity(closeHold(hold, HoldStatus.RELEASED));
+    }
+
+    @Transactional
+    public void saveFailedHoldTransaction(@ShardKey String accountNumber, Long amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()-> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        saveAndGetTransaction(HOLD,F, amount, account);
+    }
+
+    /**
+     * 실패한 확정 거래도 holdId 를 linkedTransactionId 로 남겨 홀드별로 찾을 수 있게 한다.
+     */
+    @Transactional
+    public void saveFailedCaptureTransaction(String holdId, @ShardKey String accountNumber, Long amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()-> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        saveAndGetTransaction(CAPTURE,F, amount, account, generateTransactionId(), holdId);
+    }
+
+    /**
+     * 풀려던 금액은 홀드를 읽어야 알 수 있으므로 금액 0 으로 남긴다.
+     */
+    @Transactional
+    public void saveFailedReleaseTransaction(String holdId, @ShardKey String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()-> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        saveAndGetTransaction(RELEASE,F, 0L, account, generateTransactionId(), holdId);
+    }
+
+    /**
+     * 만료 시각이 지난 홀드를 푼다. 이미 확정/해제됐거나 아직 만료 시각 전이면 아무것도 하지 않고 false.
+     * 호출하는 쪽(HoldExpiryScheduler)이 계좌 락을 잡고 부른다.
+     */
+    @Transactional
+    public boolean expireHold(@ShardKey(TRANSACTION_ID) String holdId) {
+        Optional<BalanceHold> hold = balanceHoldRepository.findByHoldId(holdId)
+                .filter(h -> h.getStatus() == HoldStatus.HELD)
+                .filter(h -> !h.getExpiresAt().isAfter(LocalDateTime.now()));
+        hold.ifPresent(h -> closeHold(h, HoldStatus.EXPIRED));
+        return hold.isPresent();
+    }
+
+    private BalanceHold getOpenHold(String holdId, String accountNumber) {
+        BalanceHold hold = balanceHoldRepository.findByHoldId(holdId)
+                .orElseThrow(() -> new AccountException(ErrorCode.HOLD_NOT_FOUND));
+        if(!Objects.equals(hold.getAccount().getAccountNumber(), accountNumber)){
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        // 만료 처리가 아직 돌지 않았어도 만료 시각이 지났으면 닫힌 것으로 본다.
+        if(hold.getStatus() != HoldStatus.HELD || !hold.getExpiresAt().isAfter(LocalDateTime.now())){
+            throw new AccountException(ErrorCode.HOLD_ALREADY_CLOSED);
+        }
+        return hold;
+    }
+
+    private BalanceHold closeHold(BalanceHold hold, HoldStatus status) {
+        Account account = hold.getAccount();
+        account.releaseHeldBalance(hold.getAmount());
+        hold.close(status, 0L);
+        saveAndGetTransaction(RELEASE, S, hold.getAmount(), account, generateTransactionId(), hold.getHoldId());
+        publishHoldClosed(hold);
+        return hold;
+    }
+
+    private void publishHoldClosed(BalanceHold hold) {
+        eventPublisher.publishEvent(AccountBalanceChanged.from(hold.getAccount()));
+        eventPublisher.publishEvent(BalanceHoldChanged.from(hold));
+    }
+
+    /**
+     * 거래의 마지막 변경 시각. 거래 확인 응답의 ETag 를 만드는 데 쓴다.
+     */
+    public Optional<LocalDateTime> getTransactionVersion(@ShardKey(TRANSACTION_ID) String transactionId) {
+        return transactionRepository.findUpdatedAtByTransactionId(transactionId);
+    }
+
+    public TransactionDto queryTransaction(@ShardKey(TRANSACTION_ID) String transactionId) {
         return TransactionDto.fromEntity(
                 transactionRepository.findByTransactionId(transactionId)
                         .orElseThrow(()->new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
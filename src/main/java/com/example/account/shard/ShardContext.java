@@ -0,0 +1,27 @@
+package com.example.account.shard;
+
+/**
+ * 현재 스레드가 사용할 샤드 번호.
+ * 트랜잭션이 커넥션을 잡기 전에 정해져야 하므로 ShardRoutingAspect 가 서비스 호출 바깥에서 설정한다.
+ * 샤딩을 쓰지 않거나 라우팅 대상이 아니면 null 이고, 이때는 0번 샤드를 쓴다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer set(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.account.shard;
+
+import java.lang.annotation.*;
+
+/**
+ * 서비스 메서드 파라미터 중 샤드를 결정하는 값.
+ * 여러 파라미터에 붙이면 모두 같은 샤드여야 한다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+    Type value() default Type.ACCOUNT_NUMBER;
+
+    enum Type {
+        ACCOUNT_NUMBER,
+        TRANSACTION_ID,
+        ACCOUNT_ID
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.account.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 계좌번호 해시로 샤드를 정하고, 샤드 지정 실행과 전체 샤드 병렬 조회(fan-out)를 제공한다.
+ * account.sharding.enabled 가 false 면 샤드는 하나뿐이고 모든 호출을 현재 스레드/트랜잭션에서 그대로 실행한다.
+ * transactionId 는 첫 글자(16진수)에, 계좌 id 는 MAX_SHARDS 로 나눈 나머지에 샤드 번호를 담으므로 샤드는 최대 16개다.
+ */
+@Component
+public class ShardRouter {
+    public static final int MAX_SHARDS = 16;
+
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(
+            @Value("${account.sharding.enabled:false}") boolean enabled,
+            @Value("${account.sharding.shard-count:4}") int shardCount,
+            PlatformTransactionManager transactionManager) {
+        if (enabled && (shardCount < 1 || shardCount > MAX_SHARDS)) {
+            throw new IllegalArgumentException("account.sharding.shard-count must be 1.." + MAX_SHARDS);
+        }
+        this.shardCount = enabled ? shardCount : 1;
+        if (isSharded()) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.fanOutExecutor = Executors.newFixedThreadPool(this.shardCount, runnable -> {
+                Thread thread = new Thread(runnable, "shard-fanout-" + threadIndex.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.transactionTemplate = null;
+            this.fanOutExecutor = null;
+        }
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    public int shardOfTransactionId(String transactionId) {
+        int shard = transactionId.isEmpty() ? -1 : Character.digit(transactionId.charAt(0), 16);
+        return shard < 0 ? 0 : shard % shardCount;
+    }
+
+    /**
+     * ShardedIdGenerator 가 만든 계좌 id 에서 샤드 번호를 꺼낸다.
+     */
+    public int shardOfAccountId(long accountId) {
+        return Math.floorMod(accountId, MAX_SHARDS) % shardCount;
+    }
+
+    /**
+     * 지정한 샤드에서 새 트랜잭션으로 실행한다.
+     */
+    public <T> T executeInShard(int shard, Supplier<T> action) {
+        if (!isSharded()) {
+            return action.get();
+        }
+        Integer previous = ShardContext.set(shard);
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * 모든 샤드에서 병렬로 실행하고 샤드 순서대로 결과를 돌려준다.
+     */
+    public <T> List<T> fanOut(Supplier<T> action) {
+        if (!isSharded()) {
+            return List.of(action.get());
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(fanOutExecutor.submit(() -> executeInShard(target, action)));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * 트랜잭션 없이 샤드마다 차례로 실행한다. 모든 샤드에 복제되는 데이터를 넣을 때 쓴다.
+     */
+    public void forEachShard(Runnable action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            Integer previous = ShardContext.set(isSharded() ? shard : null);
+            try {
+                action.run();
+            } finally {
+                ShardContext.set(previous);
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
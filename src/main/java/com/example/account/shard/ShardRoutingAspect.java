@@ -0,0 +1,82 @@
+package com.example.account.shard;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @ShardKey 파라미터가 있는 서비스 메서드를 해당 샤드로 보낸다.
+ * @Transactional 이 커넥션을 잡기 전에 ShardContext 를 정해야 하므로 트랜잭션보다 바깥에서 동작한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+    private static final ShardKey[] NO_KEYS = new ShardKey[0];
+
+    private final ShardRouter shardRouter;
+    private final ConcurrentHashMap<Method, ShardKey[]> shardKeys = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.account.service.*Service.*(..))")
+    public Object route(ProceedingJoinPoint pjp) throws Throwable {
+        if (!shardRouter.isSharded()) {
+            return pjp.proceed();
+        }
+        ShardKey[] keys = shardKeys.computeIfAbsent(
+                ((MethodSignature) pjp.getSignature()).getMethod(), ShardRoutingAspect::findShardKeys);
+        if (keys == NO_KEYS) {
+            return pjp.proceed();
+        }
+
+        Integer shard = null;
+        Object[] args = pjp.getArgs();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || args[i] == null) {
+                continue;
+            }
+            int keyShard = switch (keys[i].value()) {
+                case TRANSACTION_ID -> shardRouter.shardOfTransactionId((String) args[i]);
+                case ACCOUNT_ID -> shardRouter.shardOfAccountId((Long) args[i]);
+                default -> shardRouter.shardOf((String) args[i]);
+            };
+            if (shard != null && shard != keyShard) {
+                throw new AccountException(ErrorCode.CROSS_SHARD_TRANSACTION);
+            }
+            shard = keyShard;
+        }
+
+        Integer previous = ShardContext.set(shard);
+        try {
+            return pjp.proceed();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private static ShardKey[] findShardKeys(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        ShardKey[] keys = new ShardKey[parameterAnnotations.length];
+        boolean found = false;
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    keys[i] = shardKey;
+                    found = true;
+                }
+            }
+        }
+        return found ? keys : NO_KEYS;
+    }
+}
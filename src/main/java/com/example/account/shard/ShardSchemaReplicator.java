@@ -0,0 +1,79 @@
+package com.example.account.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate DDL 과 data.sql 은 0번 샤드에만 적용되므로, 기동이 끝나면 나머지 샤드에
+ * 스키마와 account_user(모든 샤드에 복제되는 참조 테이블)를 복사한다.
+ * Hibernate 시퀀스 최적화는 샤드와 무관하게 JVM 에 하나이므로 샤드마다 시퀀스 범위를 나눠 id 가 겹치지 않게 한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaReplicator implements SmartInitializingSingleton {
+    static final long SEQUENCE_SPAN = 1_000_000_000_000L;
+
+    private final List<DataSource> shards;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try (Connection source = shards.get(0).getConnection()) {
+            List<String> schema = script(source, "SCRIPT NODATA");
+            List<String> users = script(source, "SCRIPT TABLE PUBLIC.ACCOUNT_USER").stream()
+                    .filter(statement -> statement.startsWith("INSERT INTO"))
+                    .toList();
+            List<String> sequences = sequenceNames(source);
+
+            for (int shard = 1; shard < shards.size(); shard++) {
+                try (Connection target = shards.get(shard).getConnection();
+                     Statement statement = target.createStatement()) {
+                    for (String sql : schema) {
+                        statement.execute(sql);
+                    }
+                    for (String sql : users) {
+                        statement.execute(sql);
+                    }
+                    for (String sequence : sequences) {
+                        statement.execute("ALTER SEQUENCE PUBLIC.\"" + sequence + "\" RESTART WITH "
+                                + (shard * SEQUENCE_SPAN + 1));
+                    }
+                }
+            }
+            log.info("Replicated schema and {} account users to {} shards", users.size(), shards.size() - 1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to initialize shards", e);
+        }
+    }
+
+    private static List<String> script(Connection connection, String command) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(command)) {
+            while (resultSet.next()) {
+                statements.add(resultSet.getString(1));
+            }
+        }
+        return statements;
+    }
+
+    private static List<String> sequenceNames(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT SEQUENCE_NAME FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = 'PUBLIC'")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.account.shard;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * 시퀀스 값 뒤에 저장하는 샤드 번호를 붙인 id 를 만든다. (id = 시퀀스 값 * MAX_SHARDS + 샤드)
+ * Hibernate 시퀀스 최적화는 JVM 에 하나라 시퀀스 값만으로는 어느 샤드에 저장됐는지 알 수 없으므로,
+ * id 만 받아도 ShardRouter.shardOfAccountId 로 바로 그 샤드를 찾게 한다.
+ * 샤드마다 시퀀스 범위가 다르고(ShardSchemaReplicator) 샤드 번호도 다르므로 id 는 모든 샤드에서 겹치지 않는다.
+ */
+public class ShardedIdGenerator extends SequenceStyleGenerator {
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        long sequence = ((Number) super.generate(session, object)).longValue();
+        Integer shard = ShardContext.current();
+        return sequence * ShardRouter.MAX_SHARDS + (shard == null ? 0 : shard);
+    }
+}
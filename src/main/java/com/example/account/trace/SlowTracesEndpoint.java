@@ -0,0 +1,25 @@
+package com.example.account.trace;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/slowtraces?limit=20
+ * 최근 샘플링된 trace 중 가장 느린 순으로 보여준다.
+ */
+@Component
+@Endpoint(id = "slowtraces")
+@RequiredArgsConstructor
+public class SlowTracesEndpoint {
+    private final TraceCollector traceCollector;
+
+    @ReadOperation
+    public List<Trace> slowest(@Nullable Integer limit) {
+        return traceCollector.slowest(limit == null ? 20 : Math.max(limit, 0));
+    }
+}
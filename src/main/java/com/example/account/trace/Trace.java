@@ -0,0 +1,25 @@
+package com.example.account.trace;
+
+import java.util.List;
+
+/**
+ * 완료된 trace
+ * spans 의 첫 번째 원소가 root span 이고 parent 는 spans 내 인덱스다 (root 는 -1).
+ */
+public record Trace(
+        String traceId,
+        String name,
+        long startEpochMicros,
+        long durationMicros,
+        String error,
+        List<Span> spans
+) {
+    public record Span(
+            String name,
+            int parent,
+            long offsetMicros,
+            long durationMicros,
+            String error
+    ) {
+    }
+}
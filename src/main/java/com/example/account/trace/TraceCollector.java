@@ -0,0 +1,109 @@
+package com.example.account.trace;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 샘플링된 trace 를 최근 N 개까지 메모리에 보관하고,
+ * account.trace.export-file 이 설정되어 있으면 별도 스레드에서 NDJSON 으로 파일에 쓴다.
+ */
+@Slf4j
+@Component
+public class TraceCollector {
+    private final AtomicReferenceArray<Trace> recent;
+    private final AtomicLong cursor = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String exportFile;
+
+    private ExecutorService exporter;
+    private BufferedWriter writer;
+
+    public TraceCollector(
+            @Value("${account.trace.capacity:1024}") int capacity,
+            @Value("${account.trace.export-file:}") String exportFile) {
+        this.recent = new AtomicReferenceArray<>(capacity);
+        this.exportFile = exportFile;
+    }
+
+    @PostConstruct
+    public void openExportFile() throws IOException {
+        if (exportFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(exportFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        exporter = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "trace-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void closeExportFile() throws IOException {
+        if (exporter != null) {
+            exporter.shutdown();
+        }
+        if (writer != null) {
+            synchronized (this) {
+                writer.close();
+            }
+        }
+    }
+
+    public void collect(Trace trace) {
+        recent.set((int) (cursor.getAndIncrement() % recent.length()), trace);
+        if (exporter != null) {
+            try {
+                exporter.execute(() -> export(trace));
+            } catch (RejectedExecutionException e) {
+                log.debug("Trace exporter is closed, dropping trace {}", trace.traceId());
+            }
+        }
+    }
+
+    public List<Trace> slowest(int limit) {
+        List<Trace> traces = new ArrayList<>(recent.length());
+        for (int i = 0; i < recent.length(); i++) {
+            Trace trace = recent.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(Trace::durationMicros).reversed());
+        return traces.subList(0, Math.max(0, Math.min(limit, traces.size())));
+    }
+
+    private synchronized void export(Trace trace) {
+        try {
+            writer.write(objectMapper.writeValueAsString(trace));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Failed to export trace {}", trace.traceId(), e);
+        }
+    }
+}
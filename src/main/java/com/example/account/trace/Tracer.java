@@ -0,0 +1,183 @@
+package com.example.account.trace;
+
+import com.example.account.exception.AccountException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청 스레드 단위 트레이서
+ * 1. 컨트롤러 진입 시 trace 를 시작하고 (샘플링 여부 결정)
+ * 2. 락, 서비스, 레포지토리 호출마다 자식 span 을 연다.
+ * 3. 요청이 끝나면 TraceCollector 로 넘긴다.
+ * 샘플링되지 않은 요청은 span 을 만들지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class Tracer {
+    public static final String MDC_TRACE_ID = "traceId";
+    // 클라이언트가 보낸 trace id 는 로그(MDC)와 응답 헤더에 그대로 들어가므로 길이와 문자를 제한한다.
+    static final int MAX_TRACE_ID_LENGTH = 64;
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final TraceCollector traceCollector;
+
+    @Value("${account.trace.sample-rate:0.1}")
+    private double sampleRate;
+
+    /**
+     * @param traceId 상위 서비스에서 전달된 trace id, 없거나 형식에 맞지 않으면 새로 만든다.
+     * @param forceSample 상위 서비스가 샘플링한 요청이면 true
+     * @return 이번 요청의 trace id
+     */
+    public String startTrace(String name, String traceId, boolean forceSample) {
+        String id = isValidTraceId(traceId) ? traceId : newTraceId();
+        MDC.put(MDC_TRACE_ID, id);
+        if (forceSample || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            TraceContext context = new TraceContext(id);
+            CURRENT.set(context);
+            context.open(name);
+        }
+        return id;
+    }
+
+    public void endTrace(Throwable error) {
+        TraceContext context = CURRENT.get();
+        CURRENT.remove();
+        MDC.remove(MDC_TRACE_ID);
+        if (context == null) {
+            return;
+        }
+        if (error != null) {
+            context.spans.get(0).error = errorName(error);
+        }
+        context.closeAll();
+        traceCollector.collect(context.toTrace());
+    }
+
+    public SpanScope startSpan(String name) {
+        TraceContext context = CURRENT.get();
+        if (context == null) {
+            return SpanScope.NOOP;
+        }
+        return new SpanScope(context, context.open(name));
+    }
+
+    static String errorName(Throwable error) {
+        if (error instanceof AccountException accountException && accountException.getErrorCode() != null) {
+            return accountException.getErrorCode().name();
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    static boolean isValidTraceId(String traceId) {
+        if (traceId == null || traceId.isEmpty() || traceId.length() > MAX_TRACE_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < traceId.length(); i++) {
+            char c = traceId.charAt(i);
+            boolean allowed = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+
+    public static class SpanScope implements AutoCloseable {
+        static final SpanScope NOOP = new SpanScope(null, -1);
+
+        private final TraceContext context;
+        private final int index;
+
+        private SpanScope(TraceContext context, int index) {
+            this.context = context;
+            this.index = index;
+        }
+
+        public void error(Throwable error) {
+            if (context != null) {
+                context.spans.get(index).error = errorName(error);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (context != null) {
+                context.close(index);
+            }
+        }
+    }
+
+    private static class TraceContext {
+        private final String traceId;
+        private final long startEpochMicros = System.currentTimeMillis() * 1000;
+        private final long startNanos = System.nanoTime();
+        private final List<MutableSpan> spans = new ArrayList<>();
+        private int current = -1;
+
+        TraceContext(String traceId) {
+            this.traceId = traceId;
+        }
+
+        int open(String name) {
+            MutableSpan span = new MutableSpan(name, current, System.nanoTime());
+            spans.add(span);
+            current = spans.size() - 1;
+            return current;
+        }
+
+        void close(int index) {
+            MutableSpan span = spans.get(index);
+            if (span.endNanos == 0) {
+                span.endNanos = System.nanoTime();
+            }
+            current = span.parent;
+        }
+
+        void closeAll() {
+            for (int i = spans.size() - 1; i >= 0; i--) {
+                close(i);
+            }
+        }
+
+        Trace toTrace() {
+            List<Trace.Span> result = new ArrayList<>(spans.size());
+            for (MutableSpan span : spans) {
+                result.add(new Trace.Span(span.name, span.parent,
+                        (span.startNanos - startNanos) / 1000,
+                        (span.endNanos - span.startNanos) / 1000,
+                        span.error));
+            }
+            MutableSpan root = spans.get(0);
+            return new Trace(traceId, root.name, startEpochMicros,
+                    (root.endNanos - root.startNanos) / 1000, root.error, result);
+        }
+    }
+
+    private static class MutableSpan {
+        private final String name;
+        private final int parent;
+        private final long startNanos;
+        private long endNanos;
+        private String error;
+
+        MutableSpan(String name, int parent, long startNanos) {
+            this.name = name;
+            this.parent = parent;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.account.trace;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 락, TransactionService, 레포지토리 호출마다 span 을 연다.
+ * 트랜잭션 커밋 시간까지 포함하도록 @Transactional 보다 바깥에서 동작한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("execution(public * com.example.account.service.LockService.*(..))"
+            + " || execution(public * com.example.account.service.TransactionService.*(..))")
+    public Object traceService(ProceedingJoinPoint pjp) throws Throwable {
+        return proceed(pjp, pjp.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint pjp) throws Throwable {
+        return proceed(pjp, repositoryName(pjp));
+    }
+
+    private Object proceed(ProceedingJoinPoint pjp, String typeName) throws Throwable {
+        try (Tracer.SpanScope span = tracer.startSpan(typeName + "." + pjp.getSignature().getName())) {
+            try {
+                return pjp.proceed();
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            }
+        }
+    }
+
+    private static String repositoryName(ProceedingJoinPoint pjp) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(pjp.getThis())) {
+            if (type.getPackageName().startsWith("com.example.account")) {
+                return type.getSimpleName();
+            }
+        }
+        return pjp.getSignature().getDeclaringType().getSimpleName();
+    }
+}
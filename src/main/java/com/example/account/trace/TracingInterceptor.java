@@ -0,0 +1,49 @@
+package com.example.account.trace;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 컨트롤러 요청마다 root span 을 연다.
+ * X-Trace-Id 헤더로 trace id 를 이어받고, X-Trace-Sampled: 1 이면 무조건 샘플링한다.
+ * 비동기 요청은 servlet 스레드에서 처리한 부분까지만 trace 로 남긴다.
+ */
+@RequiredArgsConstructor
+public class TracingInterceptor implements AsyncHandlerInterceptor {
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String SAMPLED_HEADER = "X-Trace-Sampled";
+
+    private final Tracer tracer;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String traceId = tracer.startTrace(
+                request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern),
+                request.getHeader(TRACE_ID_HEADER),
+                "1".equals(request.getHeader(SAMPLED_HEADER)));
+        response.setHeader(TRACE_ID_HEADER, traceId);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            tracer.endTrace(ex);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        tracer.endTrace(null);
+    }
+}
@@ -19,7 +19,15 @@ public enum ErrorCode {
     CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다."),
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능합니다."),
     INVALID_REQUEST("잘못된 요청입니다."),
-    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.");
+    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    TRANSFER_SAME_ACCOUNT("같은 계좌로는 이체할 수 없습니다."),
+    TRANSACTION_NOT_CANCELABLE("이체나 홀드 거래는 취소할 수 없습니다."),
+    CROSS_SHARD_TRANSACTION("서로 다른 샤드에 있는 계좌 간 거래는 지원하지 않습니다."),
+    TOO_MANY_REQUESTS("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."),
+    HOLD_NOT_FOUND("해당 홀드가 없습니다."),
+    HOLD_ALREADY_CLOSED("이미 확정, 해제되었거나 만료된 홀드입니다."),
+    CAPTURE_EXCEED_HOLD("확정 금액이 홀드 금액보다 큽니다."),
+    TRANSACTION_SEARCH_TOO_BROAD("검색 범위가 너무 넓습니다. 계좌번호를 넣거나 기간을 줄여 주세요.");
 
 
 
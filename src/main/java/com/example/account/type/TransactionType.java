@@ -2,5 +2,10 @@ package com.example.account.type;
 
 public enum TransactionType {
     USE,
-    CANCEL
+    CANCEL,
+    TRANSFER_OUT,
+    TRANSFER_IN,
+    HOLD,
+    CAPTURE,
+    RELEASE
 }
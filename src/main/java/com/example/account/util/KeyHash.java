@@ -0,0 +1,31 @@
+package com.example.account.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 문자열 키의 64비트 해시. FNV-1a 뒤에 murmur3 fmix64 로 비트를 섞어
+ * 계좌번호처럼 짧고 비슷한 키도 고르게 퍼진다.
+ * 락 링의 노드 배치와 핫 계좌 스케치가 같은 함수를 쓴다.
+ */
+public final class KeyHash {
+    private KeyHash() {
+    }
+
+    public static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return fmix64(hash);
+    }
+
+    static long fmix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
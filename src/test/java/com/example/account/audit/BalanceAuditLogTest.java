@@ -0,0 +1,88 @@
+package com.example.account.audit;
+
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceAuditLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeEventsAsNdjson() throws Exception {
+        BalanceAuditLog balanceAuditLog = new BalanceAuditLog(true, directory.toString(), 8, 1024 * 1024);
+        balanceAuditLog.start();
+
+        balanceAuditLog.publish(USE, S, "1234567890", "transactionId", 1000L, 9000L, null, 2_000_000L);
+        balanceAuditLog.publish(CANCEL, F, "1234567890", null, 1000L,
+                BalanceAuditLog.UNKNOWN_BALANCE, ErrorCode.CANCEL_MUST_FULLY, 1_000L);
+        balanceAuditLog.stop();
+
+        List<String> lines = readAll();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"type\":\"USE\",\"result\":\"S\",\"accountNumber\":\"1234567890\""));
+        assertTrue(lines.get(0).contains("\"transactionId\":\"transactionId\",\"amount\":1000,\"balanceSnapshot\":9000"));
+        assertTrue(lines.get(0).endsWith("\"errorCode\":null,\"latencyMicros\":2000}"));
+        assertTrue(lines.get(1).contains("\"balanceSnapshot\":null,\"errorCode\":\"CANCEL_MUST_FULLY\""));
+    }
+
+    @Test
+    void truncateLongStringsAndKeepWriting() throws Exception {
+        BalanceAuditLog balanceAuditLog = new BalanceAuditLog(true, directory.toString(), 1024, 1024 * 1024);
+        balanceAuditLog.start();
+
+        String longId = "\"".repeat(100_000);
+        // escape 되면 한 글자가 2바이트가 되는 가장 긴 이벤트로 버퍼를 여러 번 채운다.
+        for (int i = 0; i < 1000; i++) {
+            balanceAuditLog.publish(CANCEL, F, "1234567890", longId, 1000L,
+                    BalanceAuditLog.UNKNOWN_BALANCE, ErrorCode.TRANSACTION_NOT_FOUND, 1_000L);
+        }
+        balanceAuditLog.publish(USE, S, "1234567890", "last", 1000L, 9000L, null, 1_000L);
+        balanceAuditLog.stop();
+
+        List<String> lines = readAll();
+        assertEquals(0, balanceAuditLog.getDroppedCount());
+        assertEquals(1001, lines.size());
+        String truncated = "\\\"".repeat(BalanceAuditLog.MAX_STRING_CHARS);
+        assertTrue(lines.get(0).contains("\"transactionId\":\"" + truncated + "\","), lines.get(0));
+        assertTrue(lines.get(lines.size() - 1).contains("\"transactionId\":\"last\""));
+    }
+
+    @Test
+    void dropWhenRingBufferIsFull() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(2);
+
+        assertEquals(0, ringBuffer.claim());
+        assertEquals(1, ringBuffer.claim());
+        assertEquals(-1, ringBuffer.claim());
+        assertEquals(1, ringBuffer.getDroppedCount());
+
+        ringBuffer.publish(0);
+        ringBuffer.publish(1);
+        assertEquals(2, ringBuffer.drain(event -> {
+        }));
+        assertEquals(2, ringBuffer.claim());
+    }
+
+    private List<String> readAll() throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                lines.addAll(Files.readAllLines(file));
+            }
+        }
+        return lines;
+    }
+}
@@ -1,41 +1,75 @@
 package com.example.account.controller;
 
-import com.example.account.domain.Account;
+import com.example.account.dto.AccountDetail;
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CreateAccount;
+import com.example.account.dto.DailySummary;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.dto.ImportAccounts;
+import com.example.account.domain.AccountBalanceView;
+import com.example.account.event.AccountEvent;
+import com.example.account.event.AccountEventHub;
+import com.example.account.event.TransactionRecorded;
+import com.example.account.readmodel.AccountReadModel;
+import com.example.account.repository.AccountRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.service.AccountImportService;
 import com.example.account.service.AccountService;
+import com.example.account.service.SingleFlight;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
+@Import({SingleFlight.class, AccountEventHub.class})
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
+    @MockBean
+    private AccountReadModel accountReadModel;
+    @MockBean
+    private AccountImportService accountImportService;
 
     @Autowired
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private AccountEventHub accountEventHub;
     @Test
     void successCreateAccount() throws Exception {
         given(accountService.createAccount(anyLong(),anyLong()))
@@ -95,14 +129,37 @@ class AccountControllerTest {
 
         mockMvc.perform(get("/account?user_id=1"))
                 .andDo(print())
+                .andExpect(header().string("X-Account-Source", "primary"))
+                .andExpect(header().string("X-Read-Model-Staleness-Ms", "0"))
+                .andExpect(jsonPath("$[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$[0].balance").value(1000));
+    }
+
+    @Test
+    void successGetAccountsByUserId_fromReadModel() throws Exception {
+        given(accountReadModel.getStalenessMillis())
+                .willReturn(15L);
+        given(accountReadModel.findAccounts(1L))
+                .willReturn(Optional.of(List.of(AccountBalanceView.builder()
+                        .accountNumber("1234567890")
+                        .userId(1L)
+                        .balance(1000L)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .build())));
+
+        mockMvc.perform(get("/account?user_id=1"))
+                .andDo(print())
+                .andExpect(header().string("X-Account-Source", "read-model"))
+                .andExpect(header().string("X-Read-Model-Staleness-Ms", "15"))
                 .andExpect(jsonPath("$[0].accountNumber").value("1234567890"))
                 .andExpect(jsonPath("$[0].balance").value(1000));
+        verify(accountService, never()).getAccountsByUserId(anyLong());
     }
 
     @Test
     void successGetAccount() throws Exception{
         given(accountService.getAccount(anyLong()))
-                .willReturn(Account.builder()
+                .willReturn(AccountDetail.builder()
                         .accountNumber("3456")
                         .accountStatus(AccountStatus.IN_USE)
                         .build());
@@ -113,4 +170,105 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.accountStatus").value("IN_USE"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void successImportAccounts_ndjson() throws Exception {
+        given(accountImportService.importAccounts(any(), eq(AccountImportService.Format.NDJSON)))
+                .willReturn(ImportAccounts.Response.builder()
+                        .imported(1)
+                        .failed(1)
+                        .failures(List.of(new ImportAccounts.Failure(2, 99L, ErrorCode.USER_NOT_FOUND)))
+                        .build());
+
+        mockMvc.perform(post("/account/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"userId\":1,\"initialBalance\":100}\n"
+                                + "{\"userId\":99,\"initialBalance\":100}\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failures[0].line").value(2))
+                .andExpect(jsonPath("$.failures[0].errorCode").value("USER_NOT_FOUND"));
+    }
+
+    @Test
+    void getAccount_notModifiedWithoutLoadingAccount() throws Exception {
+        AccountRepository.AccountVersion version = mock(AccountRepository.AccountVersion.class);
+        given(version.getUpdatedAt()).willReturn(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        given(version.getUserUpdatedAt()).willReturn(LocalDateTime.of(2026, 1, 1, 0, 0));
+        given(version.getAccountCount()).willReturn(3);
+        given(accountService.getAccountVersion(876L)).willReturn(Optional.of(version));
+        given(accountService.getAccount(876L))
+                .willReturn(AccountDetail.builder().accountNumber("3456").build());
+
+        String etag = mockMvc.perform(get("/account/876"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/account/876").header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verify(accountService, times(1)).getAccount(876L);
+
+        given(version.getAccountCount()).willReturn(4);
+        mockMvc.perform(get("/account/876").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("3456"));
+    }
+
+    @Test
+    void getDailySummaries() throws Exception {
+        given(accountService.getDailySummaries("1234567890", LocalDate.of(2026, 3, 1), null))
+                .willReturn(List.of(DailySummary.builder()
+                        .date(LocalDate.of(2026, 3, 2))
+                        .usedCount(3)
+                        .usedAmount(4500)
+                        .failedCount(1)
+                        .build()));
+
+        mockMvc.perform(get("/account/1234567890/daily-summary").param("from", "2026-03-01"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2026-03-02"))
+                .andExpect(jsonPath("$[0].usedCount").value(3))
+                .andExpect(jsonPath("$[0].usedAmount").value(4500))
+                .andExpect(jsonPath("$[0].cancelledAmount").value(0))
+                .andExpect(jsonPath("$[0].failedCount").value(1));
+    }
+
+    @Test
+    void accountEvents_SendsSnapshotThenCommittedEvents() throws Exception {
+        given(accountService.getAccountByNumber("1234567890"))
+                .willReturn(AccountDto.builder()
+                        .accountNumber("1234567890")
+                        .balance(1000L)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .build());
+
+        MvcResult result = mockMvc.perform(get("/account/1234567890/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        accountEventHub.deliver(AccountEvent.from(new TransactionRecorded("1234567890", "transactionId", null,
+                TransactionType.USE, TransactionResultType.S, 300L, 700L, LocalDateTime.now())));
+        accountEventHub.deliver(AccountEvent.from(new TransactionRecorded("9999999999", "other", null,
+                TransactionType.USE, TransactionResultType.S, 1L, 1L, LocalDateTime.now())));
+
+        String body = awaitContent(result, "\"transactionId\":\"transactionId\"");
+        assertTrue(body.startsWith("event:balance\ndata:{\"type\":\"balance\",\"accountNumber\":\"1234567890\","
+                + "\"balance\":1000"), body);
+        assertTrue(body.contains("event:transaction\ndata:"), body);
+        assertTrue(!body.contains("9999999999"), body);
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
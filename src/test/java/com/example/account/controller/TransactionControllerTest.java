@@ -1,10 +1,22 @@
 package com.example.account.controller;
 
+import com.example.account.audit.BalanceAuditLog;
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureHold;
+import com.example.account.dto.HoldBalance;
+import com.example.account.dto.HoldDto;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.SearchTransactions;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.Transfer;
 import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.service.SingleFlight;
+import com.example.account.service.TransactionSearchService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -13,30 +25,47 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.example.account.type.TransactionResultType.F;
 import static com.example.account.type.TransactionResultType.S;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(TransactionController.class)
+@WebMvcTest(value = TransactionController.class, properties = "account.hold.default-ttl-seconds=120")
+@Import(SingleFlight.class)
 class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionSearchService transactionSearchService;
+
+    @MockBean
+    private BalanceAuditLog balanceAuditLog;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -93,6 +122,33 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
+    @Test
+    void successTransfer() throws Exception {
+        given(transactionService.transfer(anyLong(), anyString(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(3000L)
+                        .transactionId("transactionId")
+                        .linkedTransactionId("targetTransactionId")
+                        .transactionResultType(S)
+                        .build());
+
+        mockMvc.perform(post("/transaction/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new Transfer.Request(1L, "1234567890", "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.targetAccountNumber").value("2000000000"))
+                .andExpect(jsonPath("$.transactionResultType").value("S"))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.targetTransactionId").value("targetTransactionId"))
+                .andExpect(jsonPath("$.amount").value(3000));
+    }
+
     @Test
     void successQueryTransaction() throws Exception {
 
@@ -116,4 +172,120 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
-}
\ No newline at end of file
+    @Test
+    void queryTransaction_notModifiedWhenETagMatches() throws Exception {
+        given(transactionService.getTransactionVersion("12345"))
+                .willReturn(Optional.of(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 6000)));
+        given(transactionService.queryTransaction("12345"))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactionId("12345")
+                        .build());
+
+        String etag = mockMvc.perform(get("/transaction/12345"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/transaction/12345").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        verify(transactionService, times(1)).queryTransaction("12345");
+    }
+
+    @Test
+    void queryTransaction_fullBodyWhenTransactionChanged() throws Exception {
+        given(transactionService.getTransactionVersion("12345"))
+                .willReturn(Optional.of(LocalDateTime.of(2026, 1, 2, 3, 4, 5)));
+        given(transactionService.queryTransaction("12345"))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactionId("12345")
+                        .build());
+
+        mockMvc.perform(get("/transaction/12345").header(HttpHeaders.IF_NONE_MATCH, "\"12345.stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.transactionId").value("12345"));
+    }
+
+    @Test
+    void successHoldBalance_UsesDefaultTtl() throws Exception {
+        given(transactionService.holdBalance(anyLong(), anyString(), anyLong(), eq(120L)))
+                .willReturn(HoldDto.builder()
+                        .holdId("holdId")
+                        .accountNumber("1234567890")
+                        .status(HoldStatus.HELD)
+                        .amount(3000L)
+                        .balance(7000L)
+                        .heldBalance(3000L)
+                        .expiresAt(LocalDateTime.now().plusMinutes(2))
+                        .build());
+
+        mockMvc.perform(post("/transaction/hold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new HoldBalance.Request(1L, "1234567890", 3000L, null)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.holdId").value("holdId"))
+                .andExpect(jsonPath("$.status").value("HELD"))
+                .andExpect(jsonPath("$.balance").value(7000))
+                .andExpect(jsonPath("$.heldBalance").value(3000));
+    }
+
+    @Test
+    void captureHoldFailed_saveFailedTransaction() throws Exception {
+        given(transactionService.captureHold(anyString(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.HOLD_ALREADY_CLOSED));
+
+        mockMvc.perform(post("/transaction/hold/capture")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CaptureHold.Request("holdId", "1234567890", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("HOLD_ALREADY_CLOSED"));
+        verify(transactionService).saveFailedCaptureTransaction("holdId", "1234567890", 3000L);
+    }
+
+    @Test
+    void successSearchTransactions() throws Exception {
+        given(transactionSearchService.search(any(SearchTransactions.Condition.class)))
+                .willAnswer(invocation -> {
+                    SearchTransactions.Condition condition = invocation.getArgument(0);
+                    assertEquals("1234567890", condition.getAccountNumber());
+                    assertEquals(LocalDateTime.of(2026, 3, 1, 0, 0), condition.getFrom());
+                    assertEquals(Set.of(TransactionType.USE, TransactionType.CANCEL),
+                            condition.getTransactionTypes());
+                    assertEquals(Set.of(S), condition.getTransactionResultTypes());
+                    assertEquals(1000L, condition.getMinAmount());
+                    assertEquals(20, condition.getLimit());
+                    return SearchTransactions.Response.builder()
+                            .transactions(List.of(QueryTransactionResponse.builder()
+                                    .accountNumber("1234567890")
+                                    .transactionType(TransactionType.USE)
+                                    .transactionResultType(S)
+                                    .transactionId("transactionId")
+                                    .amount(3000L)
+                                    .build()))
+                            .nextCursor("next")
+                            .build();
+                });
+
+        mockMvc.perform(get("/transaction/search")
+                        .param("account_number", "1234567890")
+                        .param("from", "2026-03-01T00:00:00")
+                        .param("type", "USE", "CANCEL")
+                        .param("result", "S")
+                        .param("min_amount", "1000")
+                        .param("limit", "20"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactions[0].amount").value(3000))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 직접 쓰는 serializer 가 Jackson 기본 직렬화와 같은 JSON 을 만드는지 확인한다.
+ */
+class LeanSerializationTest {
+    // 스프링 부트와 같은 설정 (JavaTimeModule, 날짜는 ISO 문자열)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void accountDetailMatchesEntityJson() throws Exception {
+        Account account = Account.builder()
+                .id(7L)
+                .accountUser(AccountUser.builder()
+                        .id(1L)
+                        .name("Pororo \"뽀로로\"")
+                        .accountCount(3)
+                        .createdAt(LocalDateTime.of(2026, 1, 1, 0, 0))
+                        .updatedAt(LocalDateTime.of(2026, 1, 1, 0, 0, 1, 120_000_000))
+                        .build())
+                .accountNumber("1234567890")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10_000L)
+                .registeredAt(LocalDateTime.of(2026, 2, 3, 4, 5, 6, 789_123_000))
+                .createdAt(LocalDateTime.of(2026, 2, 3, 4, 5, 6, 789_123_000))
+                .updatedAt(LocalDateTime.of(2026, 2, 3, 4, 5, 7))
+                .build();
+
+        assertEquals(objectMapper.writeValueAsString(account),
+                objectMapper.writeValueAsString(AccountDetail.fromEntity(account)));
+    }
+
+    @Test
+    void accountDetailWithNulls() throws Exception {
+        Account account = Account.builder().id(7L).build();
+
+        assertEquals(objectMapper.writeValueAsString(account),
+                objectMapper.writeValueAsString(AccountDetail.fromEntity(account)));
+    }
+
+    @Test
+    void queryTransactionResponseMatchesReflectiveJson() throws Exception {
+        QueryTransactionResponse response = QueryTransactionResponse.builder()
+                .accountNumber("1234567890")
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .transactionId("0123456789abcdef0123456789abcdef")
+                .amount(1000L)
+                .transactedAt(LocalDateTime.of(2026, 2, 3, 4, 5, 6, 789_000_000))
+                .build();
+
+        assertEquals("{\"accountNumber\":\"1234567890\",\"transactionType\":\"USE\","
+                        + "\"transactionResultType\":\"S\",\"transactionId\":\"0123456789abcdef0123456789abcdef\","
+                        + "\"amount\":1000,\"transactedAt\":\"2026-02-03T04:05:06.789\"}",
+                objectMapper.writeValueAsString(response));
+        assertEquals("{\"accountNumber\":null,\"transactionType\":null,\"transactionResultType\":null,"
+                        + "\"transactionId\":null,\"amount\":null,\"transactedAt\":null}",
+                objectMapper.writeValueAsString(new QueryTransactionResponse()));
+    }
+
+    @Test
+    void dateTimeMatchesIsoFormatter() {
+        char[] buffer = new char[LeanJson.DATE_TIME_BUFFER_SIZE];
+        for (LocalDateTime value : List.of(
+                LocalDateTime.of(2026, 1, 1, 0, 0),
+                LocalDateTime.of(1, 12, 31, 23, 59, 59, 1),
+                LocalDateTime.of(2026, 6, 15, 9, 5, 3, 100),
+                LocalDateTime.of(2026, 6, 15, 9, 5, 3, 120_000_000),
+                LocalDateTime.of(9999, 6, 15, 9, 5, 3, 999_999_999),
+                LocalDateTime.of(2026, 6, 15, 9, 5, 3, 789_123_000))) {
+            assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value),
+                    new String(buffer, 0, LeanJson.formatDateTime(value, buffer)));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.account.event;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AccountEventHubTest {
+    private AccountEventHub hub;
+    // 다음에 만드는 emitter 의 보내기를 막아 둘 latch. null 이면 막지 않는다.
+    private CountDownLatch nextGate;
+    private boolean nextIgnoresInterrupt;
+    private RecordingEmitter blocker;
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void snapshotGoesBeforeQueuedTransactions() throws Exception {
+        hub = hub(64, "drop-oldest", 1, 0);
+        CountDownLatch gate = blockDelivery();
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("1000000001", () -> {
+            // 등록과 snapshot 조회 사이에 커밋된 거래
+            hub.deliver(transaction("1000000001", "tx-1"));
+            return balance("1000000001", 100L);
+        });
+        hub.deliver(transaction("1000000001", "tx-2"));
+        gate.countDown();
+
+        assertEquals(List.of("balance:100", "transaction:tx-1", "transaction:tx-2"), emitter.take(3));
+    }
+
+    @Test
+    void balanceEventsCoalesceToLatest() throws Exception {
+        hub = hub(64, "drop-oldest", 1, 0);
+        CountDownLatch gate = blockDelivery();
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("1000000001",
+                () -> balance("1000000001", 100L));
+        hub.deliver(balance("1000000001", 200L));
+        hub.deliver(transaction("1000000001", "tx-1"));
+        hub.deliver(balance("1000000001", 300L));
+        gate.countDown();
+
+        // snapshot 보다 새 잔액이 왔으므로 snapshot 은 버리고 마지막 잔액만 거래 뒤에 보낸다.
+        assertEquals(List.of("transaction:tx-1", "balance:300"), emitter.take(2));
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void dropOldest_dropsAndReportsOverflow() throws Exception {
+        hub = hub(2, "drop-oldest", 1, 0);
+        CountDownLatch gate = blockDelivery();
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("1000000001",
+                () -> balance("1000000001", 100L));
+        hub.deliver(transaction("1000000001", "tx-1"));
+        hub.deliver(transaction("1000000001", "tx-2"));
+        hub.deliver(transaction("1000000001", "tx-3"));
+        gate.countDown();
+
+        assertEquals(List.of("overflow:{dropped=1}", "balance:100", "transaction:tx-2", "transaction:tx-3"),
+                emitter.take(4));
+    }
+
+    @Test
+    void disconnect_closesSlowSubscriber() throws Exception {
+        hub = hub(1, "disconnect", 1, 0);
+        CountDownLatch gate = blockDelivery();
+
+        RecordingEmitter emitter = (RecordingEmitter) hub.subscribe("1000000001",
+                () -> balance("1000000001", 100L));
+        hub.deliver(transaction("1000000001", "tx-1"));
+        hub.deliver(transaction("1000000001", "tx-2"));
+        hub.deliver(transaction("1000000001", "tx-3"));
+        gate.countDown();
+
+        assertTrue(emitter.completed.await(2, TimeUnit.SECONDS));
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void stuckSend_disconnectsSubscriberWithoutBlockingOthers() throws Exception {
+        hub = hub(64, "drop-oldest", 1, 100);
+        nextIgnoresInterrupt = true;
+        CountDownLatch stuck = blockDelivery();
+
+        RecordingEmitter other = (RecordingEmitter) hub.subscribe("1000000001",
+                () -> balance("1000000001", 500L));
+
+        // 전달 스레드가 하나뿐이어도 막힌 구독자를 끊고 다른 구독자에게 보낸다.
+        assertEquals(List.of("balance:500"), other.take(1));
+        hub.deliver(transaction("1000000001", "tx-1"));
+        assertEquals(List.of("transaction:tx-1"), other.take(1));
+
+        stuck.countDown();
+        assertTrue(blocker.completed.await(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, blocker.failure);
+        hub.deliver(balance("9999999999", 200L));
+        assertEquals(List.of("balance:100"), blocker.take(1));
+        assertNull(blocker.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 다른 계좌 구독자의 첫 보내기를 막아 전달 스레드를 잡아 둔다. 돌려준 latch 를 열면 풀린다.
+     */
+    private CountDownLatch blockDelivery() {
+        CountDownLatch gate = new CountDownLatch(1);
+        nextGate = gate;
+        blocker = (RecordingEmitter) hub.subscribe("9999999999", () -> balance("9999999999", 100L));
+        nextGate = null;
+        nextIgnoresInterrupt = false;
+        return gate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AccountEventHub hub(int bufferSize, String overflow, int deliveryThreads, long sendTimeoutMillis) {
+        return new AccountEventHub(mock(ObjectProvider.class), 60000, bufferSize, 100, overflow,
+                deliveryThreads, 0, sendTimeoutMillis) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter(nextGate, nextIgnoresInterrupt);
+            }
+        };
+    }
+
+    private static AccountEvent balance(String accountNumber, long balance) {
+        return new AccountEvent(AccountEvent.BALANCE, accountNumber, balance, null,
+                null, null, null, null, null, LocalDateTime.now());
+    }
+
+    private static AccountEvent transaction(String accountNumber, String transactionId) {
+        return new AccountEvent(AccountEvent.TRANSACTION, accountNumber, 0L, null, transactionId, null,
+                TransactionType.USE, TransactionResultType.S, 100L, LocalDateTime.now());
+    }
+
+    /**
+     * 보낸 이벤트를 "이름:내용" 으로 남기는 emitter. gate 가 있으면 열릴 때까지 보내기를 막는다.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private final boolean ignoresInterrupt;
+        private volatile Throwable failure;
+
+        private RecordingEmitter(CountDownLatch gate, boolean ignoresInterrupt) {
+            this.gate = gate;
+            this.ignoresInterrupt = ignoresInterrupt;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (gate != null) {
+                awaitGate();
+            }
+            String name = null;
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    if (text.startsWith("event:")) {
+                        name = text.substring("event:".length(), text.indexOf('\n'));
+                    }
+                } else {
+                    data = part.getData();
+                }
+            }
+            if (name == null) {
+                // heartbeat 주석
+                return;
+            }
+            if (data instanceof AccountEvent event) {
+                sent.add(name + ":" + (event.transactionId() != null ? event.transactionId() : event.balance()));
+            } else {
+                sent.add(name + ":" + (data instanceof Map<?, ?> map ? map.toString() : data));
+            }
+        }
+
+        private void awaitGate() throws IOException {
+            while (true) {
+                try {
+                    gate.await();
+                    return;
+                } catch (InterruptedException e) {
+                    if (!ignoresInterrupt) {
+                        throw new InterruptedIOException();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            completed.countDown();
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failure = ex;
+            super.completeWithError(ex);
+            completed.countDown();
+        }
+
+        private List<String> take(int count) throws InterruptedException {
+            List<String> events = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String event = sent.poll(2, TimeUnit.SECONDS);
+                assertNotNull(event, "received so far : " + events);
+                events.add(event);
+            }
+            return events;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.account.event;
+
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.service.RedisCircuitBreaker;
+import com.example.account.service.RedisLockRing;
+import com.example.account.type.AccountStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RFuture;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class AccountEventRelayTest {
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+    private final RTopic topic = mock(RTopic.class);
+    private final RedisCircuitBreaker circuitBreaker = mock(RedisCircuitBreaker.class);
+    @SuppressWarnings("unchecked")
+    private final AccountEventHub hub = new AccountEventHub(mock(ObjectProvider.class), 60000, 64, 100,
+            "drop-oldest", 1, 0, 0);
+    private final AccountEventRelay relay = new AccountEventRelay(hub,
+            new RedisLockRing(Map.of("127.0.0.1:6379", redissonClient)), circuitBreaker,
+            new ObjectMapper().registerModule(new JavaTimeModule()), true);
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void subscribesAccountChannelOnlyWhileLocalSubscribersExist() {
+        given(circuitBreaker.allowRequest()).willReturn(true);
+        given(redissonClient.getTopic("ACEV : 1000000001", StringCodec.INSTANCE)).willReturn(topic);
+        given(topic.addListener(eq(String.class), any())).willReturn(7);
+        given(topic.removeListenerAsync(7)).willReturn(mock(RFuture.class));
+
+        hub.subscribe("1000000001", () -> balance("1000000001"));
+        hub.subscribe("1000000001", () -> balance("1000000001"));
+        verify(topic, times(1)).addListener(eq(String.class), any());
+
+        // snapshot 이 실패해 구독이 취소되어도 다른 구독자가 남아 있으면 채널은 그대로 둔다.
+        assertThrows(IllegalStateException.class, () -> hub.subscribe("1000000001", () -> {
+            throw new IllegalStateException("snapshot failed");
+        }));
+        verify(topic, never()).removeListenerAsync(anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lastSubscriberLeavingUnsubscribesAccountChannel() {
+        given(circuitBreaker.allowRequest()).willReturn(true);
+        given(redissonClient.getTopic("ACEV : 1000000002", StringCodec.INSTANCE)).willReturn(topic);
+        given(topic.addListener(eq(String.class), any())).willReturn(7);
+        given(topic.removeListenerAsync(7)).willReturn(mock(RFuture.class));
+
+        assertThrows(IllegalStateException.class, () -> hub.subscribe("1000000002", () -> {
+            throw new IllegalStateException("snapshot failed");
+        }));
+
+        verify(topic).addListener(eq(String.class), any());
+        verify(topic).removeListenerAsync(7);
+    }
+
+    @Test
+    void publishStaysLocalWhileCircuitIsOpen() {
+        given(circuitBreaker.allowRequest()).willReturn(false);
+
+        hub.subscribe("1000000003", () -> balance("1000000003"));
+        relay.onBalanceChanged(new AccountBalanceChanged(1L, "1000000003", 100L, AccountStatus.IN_USE,
+                LocalDateTime.now()));
+
+        verifyNoInteractions(redissonClient);
+        verify(circuitBreaker, never()).onError();
+    }
+
+    private static AccountEvent balance(String accountNumber) {
+        return new AccountEvent(AccountEvent.BALANCE, accountNumber, 0L, null,
+                null, null, null, null, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.account.exception;
+
+import com.example.account.dto.ErrorResponse;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+
+    @Test
+    void accountExceptionHasNoStackTrace() {
+        AccountException accountException = new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+
+        assertEquals(0, accountException.getStackTrace().length);
+    }
+
+    @Test
+    void reuseErrorResponsePerErrorCode() {
+        ErrorResponse first = globalExceptionHandler.handleAccountException(
+                new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        ErrorResponse second = globalExceptionHandler.handleAccountException(
+                new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        assertSame(first, second);
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, first.getErrorCode());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE.getDescription(), first.getErrorMessage());
+    }
+
+    @Test
+    void customMessageIsNotCached() {
+        ErrorResponse errorResponse = globalExceptionHandler.handleAccountException(
+                new AccountException(ErrorCode.INVALID_REQUEST, "custom"));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, errorResponse.getErrorCode());
+        assertEquals("custom", errorResponse.getErrorMessage());
+    }
+
+    @Test
+    void optimisticLockFailureIsReportedAsAccountLock() {
+        ErrorResponse errorResponse = globalExceptionHandler.handleOptimisticLockingFailureException(
+                new ObjectOptimisticLockingFailureException("Account", 1L));
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, errorResponse.getErrorCode());
+    }
+}
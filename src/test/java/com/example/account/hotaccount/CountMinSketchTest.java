@@ -0,0 +1,35 @@
+package com.example.account.hotaccount;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+    @Test
+    void estimateNeverUnderCountsAndStaysClose() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add(accountNumber(i), 1);
+        }
+        sketch.add(accountNumber(7), 500);
+
+        long estimate = sketch.estimate(accountNumber(7));
+        assertTrue(estimate >= 501, "estimate : " + estimate);
+        // 전체 합(10500) 의 e/width 정도 이상 부풀려지지 않아야 한다.
+        assertTrue(estimate < 501 + 60, "estimate : " + estimate);
+    }
+
+    @Test
+    void clearResetsCounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        sketch.add("1234567890", 10);
+
+        sketch.clear();
+
+        assertEquals(0, sketch.estimate("1234567890"));
+    }
+
+    private static String accountNumber(int i) {
+        return String.valueOf(1_000_000_000L + i);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.account.hotaccount;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.account.hotaccount.HotAccountTracker.Metric.LOCK_WAIT;
+import static com.example.account.hotaccount.HotAccountTracker.Metric.REQUESTS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountTrackerTest {
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+    private final HotAccountTracker tracker = new HotAccountTracker(true, 60, 6, 4, 1024, 8, clock::get);
+
+    @Test
+    void reportsHeaviestAccountsByRequests() {
+        for (int i = 0; i < 5_000; i++) {
+            tracker.recordRequest(List.of(String.valueOf(1_000_000_000L + i)));
+        }
+        request("1234567890", 300);
+        request("1234567891", 200);
+        request("1234567892", 100);
+
+        List<HotAccount> top = tracker.top(REQUESTS, 3, 60);
+
+        assertEquals(List.of("1234567890", "1234567891", "1234567892"),
+                top.stream().map(HotAccount::accountNumber).toList());
+        assertTrue(top.get(0).total() >= 300);
+    }
+
+    @Test
+    void oldSlotsLeaveTheWindow() {
+        request("1234567890", 100);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        request("1234567891", 10);
+
+        assertEquals("1234567890", tracker.top(REQUESTS, 1, 60).get(0).accountNumber());
+        assertEquals("1234567891", tracker.top(REQUESTS, 1, 10).get(0).accountNumber());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(45));
+        assertEquals(List.of("1234567891"),
+                tracker.top(REQUESTS, 5, 60).stream().map(HotAccount::accountNumber).toList());
+    }
+
+    @Test
+    void hugeWindowIsClampedToConfiguredWindow() {
+        request("1234567890", 100);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        request("1234567891", 10);
+
+        List<HotAccount> top = tracker.top(REQUESTS, 5, Long.MAX_VALUE);
+
+        assertEquals(List.of("1234567890", "1234567891"), top.stream().map(HotAccount::accountNumber).toList());
+        assertEquals(tracker.top(REQUESTS, 5, 60), top);
+    }
+
+    @Test
+    void lockWaitIsReportedInMillis() {
+        tracker.recordLockWait(List.of("1234567890", "1234567891"), TimeUnit.MILLISECONDS.toNanos(250));
+        tracker.recordLockWait(List.of("1234567890"), TimeUnit.MILLISECONDS.toNanos(250));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        List<HotAccount> top = tracker.top(LOCK_WAIT, 2, 10);
+
+        assertEquals("1234567890", top.get(0).accountNumber());
+        assertEquals(500.0, top.get(0).total(), 0.001);
+        assertEquals(100.0, top.get(0).perSecond(), 1.0);
+        assertEquals(250.0, top.get(1).total(), 0.001);
+    }
+
+    @Test
+    void candidatesStayBoundedByTopK() {
+        for (int i = 0; i < 1_000; i++) {
+            request(String.valueOf(1_000_000_000L + i), 1 + i % 7);
+        }
+
+        assertEquals(8, tracker.top(REQUESTS, 100, 60).size());
+    }
+
+    private void request(String accountNumber, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordRequest(List.of(accountNumber));
+        }
+    }
+}
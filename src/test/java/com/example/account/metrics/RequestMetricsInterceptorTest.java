@@ -0,0 +1,57 @@
+package com.example.account.metrics;
+
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry);
+
+    @Test
+    void recordRequestByRouteAndErrorCode() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/transaction/use");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/transaction/use");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        RequestTimings.addDbTime(TimeUnit.MILLISECONDS.toNanos(3));
+        RequestTimings.addLockTime(TimeUnit.MILLISECONDS.toNanos(2));
+        RequestTimings.setErrorCode(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        Timer requests = meterRegistry.get(RequestMetricsInterceptor.REQUESTS)
+                .tag("uri", "/transaction/use")
+                .tag("errorCode", "AMOUNT_EXCEED_BALANCE")
+                .timer();
+        assertEquals(1, requests.count());
+        assertEquals(3, meterRegistry.get(RequestMetricsInterceptor.DB).timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(2, meterRegistry.get(RequestMetricsInterceptor.LOCK).timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void recordSuccessAsNone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transaction/abc");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/transaction/{transactionId}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(1, meterRegistry.get(RequestMetricsInterceptor.REQUESTS)
+                .tag("uri", "/transaction/{transactionId}")
+                .tag("errorCode", RequestMetricsInterceptor.NONE)
+                .timer().count());
+    }
+}
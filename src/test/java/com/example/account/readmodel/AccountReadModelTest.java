@@ -0,0 +1,130 @@
+package com.example.account.readmodel;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountBalanceView;
+import com.example.account.dto.AccountDto;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.service.AccountNumberAllocator;
+import com.example.account.service.AccountService;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.AccountStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({AccountReadModel.class, AccountService.class, AccountNumberAllocator.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountReadModelTest {
+    @Autowired
+    private AccountReadModel accountReadModel;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void committedChangesReachReadModel() {
+        AccountDto created = accountService.createAccount(2L, 500L);
+
+        List<AccountBalanceView> views = await(() -> accountReadModel.findAccounts(2L));
+
+        assertEquals(1, views.size());
+        assertEquals(created.getAccountNumber(), views.get(0).getAccountNumber());
+        assertEquals(500L, views.get(0).getBalance());
+        assertEquals(AccountStatus.IN_USE, views.get(0).getAccountStatus());
+        assertEquals(0L, accountReadModel.getStalenessMillis());
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(changed(3L, "3000000001", 100L, LocalDateTime.now()));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(changed(3L, "3000000002", 200L, LocalDateTime.now())));
+
+        List<AccountBalanceView> views = await(() -> accountReadModel.findAccounts(3L));
+
+        assertEquals(List.of("3000000002"), views.stream().map(AccountBalanceView::getAccountNumber).toList());
+    }
+
+    @Test
+    void olderChangeDoesNotOverwriteNewer() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(changed(1L, "1000000001", 700L, now));
+            eventPublisher.publishEvent(changed(1L, "1000000001", 900L, now.minusSeconds(1)));
+        });
+
+        List<AccountBalanceView> views = await(() -> accountReadModel.findAccounts(1L));
+
+        assertEquals(700L, views.get(0).getBalance());
+    }
+
+    @Test
+    void importedUsersAreRebuiltFromSource() {
+        // 다른 테스트와 겹치지 않는 사용자. data.sql 이 id 를 직접 넣어 시퀀스로는 만들 수 없다.
+        Long userId = 100L;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("insert into account_user(id, name, account_count) values (100, 'Crong', 1)")
+                    .executeUpdate();
+            accountRepository.save(Account.builder()
+                    .accountUser(accountUserRepository.getReferenceById(userId))
+                    .accountNumber("2900000001")
+                    .accountStatus(AccountStatus.IN_USE)
+                    .balance(300L)
+                    .build());
+            eventPublisher.publishEvent(new AccountsImported(Set.of(userId)));
+        });
+
+        List<AccountBalanceView> views = await(() -> accountReadModel.findAccounts(userId));
+
+        assertEquals(List.of("2900000001"), views.stream().map(AccountBalanceView::getAccountNumber).toList());
+        assertEquals(300L, views.get(0).getBalance());
+    }
+
+    private static AccountBalanceChanged changed(Long userId, String accountNumber, Long balance,
+                                                 LocalDateTime changedAt) {
+        return new AccountBalanceChanged(userId, accountNumber, balance, AccountStatus.IN_USE, changedAt);
+    }
+
+    private static <T> T await(Supplier<Optional<T>> supplier) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<T> value = supplier.get();
+            if (value.isPresent()) {
+                return value.get();
+            }
+            Thread.onSpinWait();
+        }
+        return fail("read model was not updated in time");
+    }
+}
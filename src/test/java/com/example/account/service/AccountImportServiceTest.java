@@ -0,0 +1,111 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.dto.ImportAccounts;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "account.import.chunk-size=3")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({AccountImportService.class, AccountNumberAllocator.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountImportServiceTest {
+    @Autowired
+    private AccountImportService accountImportService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Test
+    void csvImport_reportsFailedRowsAndImportsTheRest() throws Exception {
+        String csv = """
+                userId,initialBalance
+                1,100
+                99,100
+                x,1
+                2,-1
+
+                2,200
+                """;
+
+        ImportAccounts.Response response = accountImportService.importAccounts(
+                stream(csv), AccountImportService.Format.CSV);
+
+        assertEquals(2, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertEquals(Map.of(
+                        3L, ErrorCode.USER_NOT_FOUND,
+                        4L, ErrorCode.INVALID_REQUEST,
+                        5L, ErrorCode.INVALID_REQUEST),
+                response.getFailures().stream().collect(Collectors.toMap(
+                        ImportAccounts.Failure::getLine, ImportAccounts.Failure::getErrorCode)));
+        List<Account> imported = Stream.of(1L, 2L)
+                .flatMap(userId -> accountRepository.findByAccountUser(
+                        accountUserRepository.findById(userId).orElseThrow()).stream())
+                .toList();
+        assertEquals(2, imported.stream().map(Account::getAccountNumber).distinct().count());
+        assertEquals(1, accountUserRepository.findById(1L).orElseThrow().getAccountCount());
+        assertEquals(1, accountUserRepository.findById(2L).orElseThrow().getAccountCount());
+    }
+
+    @Test
+    void ndjsonImport_enforcesMaxAccountPerUserAcrossChunks() throws Exception {
+        String ndjson = IntStream.range(0, 12)
+                .mapToObj(i -> "{\"userId\":3,\"initialBalance\":" + i + "}")
+                .collect(Collectors.joining("\n"));
+
+        ImportAccounts.Response response = accountImportService.importAccounts(
+                stream(ndjson), AccountImportService.Format.NDJSON);
+
+        assertEquals(10, response.getImported());
+        assertEquals(2, response.getFailed());
+        response.getFailures().forEach(failure ->
+                assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, failure.getErrorCode()));
+        assertEquals(10, accountUserRepository.findById(3L).orElseThrow().getAccountCount());
+        assertEquals(10, accountRepository.findByAccountUser(
+                accountUserRepository.findById(3L).orElseThrow()).size());
+    }
+
+    @Test
+    void ndjsonImport_rejectsNullRows() throws Exception {
+        String ndjson = """
+                null
+                {"userId":99,"initialBalance":1}
+                """;
+
+        ImportAccounts.Response response = accountImportService.importAccounts(
+                stream(ndjson), AccountImportService.Format.NDJSON);
+
+        assertEquals(0, response.getImported());
+        assertEquals(Map.of(
+                        1L, ErrorCode.INVALID_REQUEST,
+                        2L, ErrorCode.USER_NOT_FOUND),
+                response.getFailures().stream().collect(Collectors.toMap(
+                        ImportAccounts.Failure::getLine, ImportAccounts.Failure::getErrorCode)));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+import com.example.account.shard.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(false, 1, null);
+    @InjectMocks
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Test
+    void firstAccountNumber() {
+        given(accountRepository.findFirstByOrderByAccountNumberDesc())
+                .willReturn(Optional.empty());
+
+        assertEquals(1234567890L, accountNumberAllocator.allocate(1));
+    }
+
+    @Test
+    void allocatesAfterLatestWithoutReissuingUncommittedNumbers() {
+        given(accountRepository.findFirstByOrderByAccountNumberDesc())
+                .willReturn(Optional.of(Account.builder().accountNumber("1000000001").build()));
+
+        assertEquals(1000000002L, accountNumberAllocator.allocate(3));
+        // 앞서 받은 1000000002 ~ 1000000004 가 아직 커밋되지 않았어도 다시 주지 않는다.
+        assertEquals(1000000005L, accountNumberAllocator.allocate(1));
+    }
+}
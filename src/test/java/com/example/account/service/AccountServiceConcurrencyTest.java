@@ -0,0 +1,75 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 사용자의 계좌 생성이 동시에 들어와도 계좌 수 한도를 넘지 않는지 실제 H2 로 확인한다.
+ */
+@DataJpaTest
+@Import({AccountService.class, AccountNumberAllocator.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountServiceConcurrencyTest {
+    private static final long USER_ID = 1L;
+    private static final int REQUESTS = 20;
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Test
+    void parallelCreates_neverExceedMaxAccountPerUser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ErrorCode>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        accountService.createAccount(USER_ID, 1000L);
+                        return null;
+                    } catch (AccountException e) {
+                        return e.getErrorCode();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<ErrorCode> result : results) {
+                ErrorCode errorCode = result.get(30, TimeUnit.SECONDS);
+                if (errorCode == null) {
+                    created++;
+                } else {
+                    assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, errorCode);
+                }
+            }
+
+            assertEquals(10, created);
+            assertEquals(10, accountUserRepository.findById(USER_ID).orElseThrow().getAccountCount());
+            assertEquals(10, accountRepository.findByAccountUser(
+                    accountUserRepository.findById(USER_ID).orElseThrow()).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.account.service;
 
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountDailySummary;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.DailySummary;
 import com.example.account.exception.AccountException;
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.repository.AccountDailySummaryRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.shard.ShardRouter;
 import com.example.account.type.AccountStatus;
 import com.example.account.repository.AccountRepository;
 import com.example.account.type.ErrorCode;
@@ -14,8 +19,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +32,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -33,6 +44,14 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private AccountDailySummaryRepository accountDailySummaryRepository;
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(false, 1, null);
     @InjectMocks
     private AccountService accountService;
 
@@ -44,10 +63,10 @@ class AccountServiceTest {
 
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                                .accountUser(user)
-                        .accountNumber("1000000001").build()));
+        given(accountUserRepository.incrementAccountCount(12L, 10))
+                .willReturn(1);
+        given(accountNumberAllocator.allocate(1))
+                .willReturn(1000000002L);
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -62,31 +81,6 @@ class AccountServiceTest {
         assertEquals("1000000002",captor.getValue().getAccountNumber());
     }
 
-    @Test
-    void createFirstAccount(){
-        AccountUser user = AccountUser.builder()
-                .id(12L)
-                .name("Pobi").build();
-
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
-        given(accountRepository.save(any()))
-                .willReturn(Account.builder()
-                        .accountUser(user)
-                        .accountNumber("1000000002").build());
-
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-
-        AccountDto accountDto = accountService.createAccount(1L, 1000L);
-
-        verify(accountRepository,times(1)).save(captor.capture());
-        assertEquals(12L,accountDto.getUserId());
-        assertEquals("1234567890",captor.getValue().getAccountNumber());
-    }
-
-
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound(){
@@ -108,8 +102,8 @@ class AccountServiceTest {
 
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.countByAccountUser(any()))
-                .willReturn(10);
+        given(accountUserRepository.incrementAccountCount(12L, 10))
+                .willReturn(0);
 
 
         AccountException accountException = assertThrows(AccountException.class,
@@ -117,6 +111,45 @@ class AccountServiceTest {
 
 
         assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_10, accountException.getErrorCode());
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void createAccount_sharded_releasesCountWhenSaveFails(){
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+        ShardRouter shardedRouter = new ShardRouter(true, 2, mock(PlatformTransactionManager.class));
+        AccountService shardedService = new AccountService(accountRepository, accountUserRepository,
+                shardedRouter, eventPublisher, accountDailySummaryRepository, accountNumberAllocator);
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountUserRepository.incrementAccountCount(12L, 10))
+                .willReturn(1);
+        given(accountNumberAllocator.allocate(1))
+                .willReturn(1234567890L);
+        given(accountRepository.save(any()))
+                .willThrow(new IllegalStateException("shard down"));
+
+        try {
+            assertThrows(IllegalStateException.class, () -> shardedService.createAccount(1L, 1000L));
+        } finally {
+            shardedRouter.shutdown();
+        }
+
+        verify(accountUserRepository).addAccountCount(12L, -1, 10);
+    }
+
+    @Test
+    void getAccount_notFound(){
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.empty());
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> accountService.getAccount(1L));
+
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, accountException.getErrorCode());
     }
 
     @Test
@@ -141,6 +174,9 @@ class AccountServiceTest {
         assertEquals(12L,accountDto.getUserId());
         assertEquals("4567891230",captor.getValue().getAccountNumber());
         assertEquals(AccountStatus.UNREGISTERED,captor.getValue().getAccountStatus());
+        ArgumentCaptor<AccountBalanceChanged> eventCaptor = ArgumentCaptor.forClass(AccountBalanceChanged.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(AccountStatus.UNREGISTERED, eventCaptor.getValue().accountStatus());
     }
 
     @Test
@@ -275,6 +311,49 @@ class AccountServiceTest {
         assertEquals(1000,accountDtos.get(0).getBalance());
     }
 
+    @Test
+    void getDailySummaries_readsRollupRowsInRange(){
+        Account account = Account.builder()
+                .accountNumber("1234567890")
+                .build();
+        given(accountRepository.findByAccountNumber("1234567890"))
+                .willReturn(Optional.of(account));
+        given(accountDailySummaryRepository.findByAccountAndSummaryDateBetweenOrderBySummaryDate(
+                account, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .willReturn(List.of(AccountDailySummary.builder()
+                        .account(account)
+                        .summaryDate(LocalDate.of(2026, 3, 2))
+                        .usedCount(3)
+                        .usedAmount(4500)
+                        .cancelledCount(1)
+                        .cancelledAmount(1000)
+                        .failedCount(2)
+                        .build()));
+
+        List<DailySummary> summaries = accountService.getDailySummaries(
+                "1234567890", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+        assertEquals(1, summaries.size());
+        assertEquals(LocalDate.of(2026, 3, 2), summaries.get(0).getDate());
+        assertEquals(4500, summaries.get(0).getUsedAmount());
+        assertEquals(1000, summaries.get(0).getCancelledAmount());
+        assertEquals(2, summaries.get(0).getFailedCount());
+    }
+
+    @Test
+    void getDailySummaries_rejectsInvalidRange(){
+        AccountException reversed = assertThrows(AccountException.class,
+                () -> accountService.getDailySummaries("1234567890",
+                        LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 1)));
+        AccountException tooLong = assertThrows(AccountException.class,
+                () -> accountService.getDailySummaries("1234567890",
+                        LocalDate.of(2025, 1, 1), LocalDate.of(2026, 3, 1)));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, reversed.getErrorCode());
+        assertEquals(ErrorCode.INVALID_REQUEST, tooLong.getErrorCode());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
     @Test
     void failedToGetAccounts(){
         given(accountUserRepository.findById(anyLong()))
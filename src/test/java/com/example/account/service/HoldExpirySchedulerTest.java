@@ -0,0 +1,89 @@
+package com.example.account.service;
+
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.repository.BalanceHoldRepository.HoldExpiry;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.HoldStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class HoldExpirySchedulerTest {
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final LockService lockService = mock(LockService.class);
+    private final BalanceHoldRepository balanceHoldRepository = mock(BalanceHoldRepository.class);
+    private final HoldExpiryScheduler scheduler = scheduler(100);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        scheduler.stop();
+    }
+
+    @Test
+    void reconcileExpiresOverdueHoldsScheduledByNoOne() {
+        given(balanceHoldRepository.findExpiriesByStatusAndExpiresAtBefore(eq(HoldStatus.HELD), any(), any()))
+                .willReturn(List.of(expiry("hold-1", LocalDateTime.now().minusMinutes(1))));
+        given(transactionService.expireHold("hold-1")).willReturn(true);
+        scheduler.start();
+
+        scheduler.reconcile();
+
+        verify(transactionService, timeout(2000)).expireHold("hold-1");
+        verify(lockService, timeout(2000)).unlock(any());
+    }
+
+    @Test
+    void recoverReadsOpenHoldsPageByPage() throws InterruptedException {
+        HoldExpiryScheduler scheduler = scheduler(2);
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        given(balanceHoldRepository.findExpiriesByStatus(eq(HoldStatus.HELD), any()))
+                .willReturn(List.of(expiry("hold-1", expiresAt), expiry("hold-2", expiresAt)));
+        given(balanceHoldRepository.findExpiriesByStatusAfter(eq(HoldStatus.HELD), eq(expiresAt), eq("hold-2"), any()))
+                .willReturn(List.of(expiry("hold-3", expiresAt.plusMinutes(1))));
+        scheduler.start();
+        try {
+            scheduler.recover();
+
+            verify(balanceHoldRepository).findExpiriesByStatus(eq(HoldStatus.HELD), eq(PageRequest.of(0, 2)));
+            verify(balanceHoldRepository).findExpiriesByStatusAfter(
+                    eq(HoldStatus.HELD), eq(expiresAt), eq("hold-2"), eq(PageRequest.of(0, 2)));
+            verifyNoMoreInteractions(balanceHoldRepository);
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private HoldExpiryScheduler scheduler(int batchSize) {
+        return new HoldExpiryScheduler(transactionService, lockService, balanceHoldRepository,
+                new ShardRouter(false, 1, null), mock(ObjectProvider.class), true, 10, 64, 1, 1000, 0, batchSize);
+    }
+
+    private static HoldExpiry expiry(String holdId, LocalDateTime expiresAt) {
+        return new HoldExpiry() {
+            @Override
+            public String getHoldId() {
+                return holdId;
+            }
+
+            @Override
+            public String getAccountNumber() {
+                return "1234567890";
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return expiresAt;
+            }
+        };
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.Transfer;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.hotaccount.HotAccountTracker;
+import com.example.account.service.LockHoldStats.LockBudget;
+import com.example.account.service.LockService.LockHandle;
 import com.example.account.type.ErrorCode;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -11,20 +17,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private LockHoldStats lockHoldStats;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private HotAccountTracker hotAccountTracker;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -32,41 +46,79 @@ class LockAopAspectTest {
     void lockAndUnlock() throws Throwable {
         ArgumentCaptor<String> lockArgumentCaptor =
                 ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> unlockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
+        LockHandle lockHandle = new LockHandle(List.of("1234"), null, 0L);
+        given(lockService.lock(lockArgumentCaptor.capture(), eq(1000L), eq(5000L)))
+                .willReturn(lockHandle);
         UseBalance.Request request =
                 new UseBalance.Request(123L, "1234",1000L);
 
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request);
 
         verify(lockService,times(1))
-                .lock(lockArgumentCaptor.capture());
-        verify(lockService,times(1))
-                .unlock(unlockArgumentCaptor.capture());
+                .unlock(lockHandle);
         assertEquals("1234",lockArgumentCaptor.getValue());
-        assertEquals("1234",unlockArgumentCaptor.getValue());
+        verifyNoInteractions(lockHoldStats);
+        verify(hotAccountTracker).recordLockWait(eq(List.of("1234")), anyLong());
     }
 
     @Test
     void lockAndUnlock_evenIfThrow() throws Throwable {
         ArgumentCaptor<String> lockArgumentCaptor =
                 ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> unlockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
+        LockHandle lockHandle = new LockHandle(List.of("54321"), null, 0L);
+        given(lockService.lock(lockArgumentCaptor.capture(), anyLong(), anyLong()))
+                .willReturn(lockHandle);
         UseBalance.Request request =
                 new UseBalance.Request(123L, "54321",1000L);
         given(proceedingJoinPoint.proceed())
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
         assertThrows(AccountException.class, ()->
-                lockAopAspect.aroundMethod(proceedingJoinPoint,request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request));
 
         verify(lockService,times(1))
-                .lock(lockArgumentCaptor.capture());
-        verify(lockService,times(1))
-                .unlock(unlockArgumentCaptor.capture());
+                .unlock(lockHandle);
         assertEquals("54321",lockArgumentCaptor.getValue());
-        assertEquals("54321",unlockArgumentCaptor.getValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void lockAllAndUnlockAll_multipleAccounts() throws Throwable {
+        Transfer.Request request =
+                new Transfer.Request(123L, "2000000000", "1000000000", 1000L);
+
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request);
+
+        verify(lockService).lockAll(List.of("2000000000", "1000000000"), 1000L, 5000L);
+        verify(lockService).unlock(any());
+        verify(lockService, never()).lock(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void adaptiveLock_usesObservedBudgetAndRecordsHoldTime() throws Throwable {
+        Signature signature = mock(Signature.class);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.toShortString()).willReturn("useBalance");
+        given(lockHoldStats.budget("useBalance", 1000L, 5000L))
+                .willReturn(new LockBudget(3000L, LockHoldStats.WATCHDOG_LEASE));
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234",1000L);
+
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("adaptiveLock"), request);
+
+        verify(lockService).lock("1234", 3000L, LockHoldStats.WATCHDOG_LEASE);
+        verify(lockHoldStats).record(eq("useBalance"), anyLong());
+        verify(lockService).unlock(any());
+    }
+
+    private static AccountLock accountLock(String methodName) throws NoSuchMethodException {
+        return LockAopAspectTest.class.getDeclaredMethod(methodName).getAnnotation(AccountLock.class);
+    }
+
+    @AccountLock
+    private void defaultLock() {
+    }
+
+    @AccountLock(adaptive = true)
+    private void adaptiveLock() {
+    }
+}
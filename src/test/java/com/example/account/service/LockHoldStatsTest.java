@@ -0,0 +1,52 @@
+package com.example.account.service;
+
+import com.example.account.service.LockHoldStats.LockBudget;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LockHoldStatsTest {
+    private final LockHoldStats lockHoldStats = new LockHoldStats(256, 20, 30000L, 10000L);
+
+    @Test
+    void defaultBudgetUntilEnoughSamples() {
+        record("route", 19, 3000L);
+
+        assertEquals(new LockBudget(1000L, 5000L),
+                lockHoldStats.budget("route", 1000L, 5000L));
+    }
+
+    @Test
+    void budgetFollowsObservedHoldTime() {
+        record("route", 100, 3000L);
+
+        LockBudget budget = lockHoldStats.budget("route", 1000L, 5000L);
+
+        assertEquals(3000L, budget.waitMillis());
+        assertEquals(6000L, budget.leaseMillis());
+    }
+
+    @Test
+    void shortHoldKeepsAnnotationWaitAndMinimumLease() {
+        record("route", 100, 5L);
+
+        assertEquals(new LockBudget(1000L, 1000L),
+                lockHoldStats.budget("route", 1000L, 5000L));
+    }
+
+    @Test
+    void longHolderUsesWatchdogAndCappedWait() {
+        record("route", 100, 20000L);
+
+        assertEquals(new LockBudget(10000L, LockHoldStats.WATCHDOG_LEASE),
+                lockHoldStats.budget("route", 1000L, 5000L));
+    }
+
+    private void record(String route, int count, long holdMillis) {
+        for (int i = 0; i < count; i++) {
+            lockHoldStats.record(route, TimeUnit.MILLISECONDS.toNanos(holdMillis));
+        }
+    }
+}
@@ -2,17 +2,27 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.misc.RedissonPromise;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -22,9 +32,18 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
-    @InjectMocks
+    @Spy
+    private RedisCircuitBreaker redisCircuitBreaker =
+            new RedisCircuitBreaker(50, 20, 0.5, 0.5, 100, 5000, 3);
+
     private LockService lockService;
 
+    @BeforeEach
+    void setUp() {
+        lockService = new LockService(
+                new RedisLockRing(Map.of("127.0.0.1:6379", redissonClient)), redisCircuitBreaker);
+    }
+
     @Test
     void successGetLock() throws InterruptedException {
         given(redissonClient.getLock(anyString()))
@@ -32,7 +51,8 @@ class LockServiceTest {
         given(rLock.tryLock(anyLong(),anyLong(),any()))
                 .willReturn(true);
 
-        assertDoesNotThrow(()->lockService.lock("123"));
+        LockService.LockHandle lockHandle = assertDoesNotThrow(()->lockService.lock("123"));
+        assertFalse(lockHandle.isLocal());
     }
 
     @Test
@@ -47,4 +67,150 @@ class LockServiceTest {
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
     }
 
-}
\ No newline at end of file
+    @Test
+    void successGetLockAsync_unlockAfterAction() {
+        RedissonPromise<Boolean> locked = new RedissonPromise<>();
+        locked.trySuccess(true);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(locked);
+        RedissonPromise<Void> unlocked = new RedissonPromise<>();
+        unlocked.trySuccess(null);
+        given(rLock.unlockAsync(anyLong()))
+                .willReturn(unlocked);
+
+        String result = lockService.executeWithLockAsync("123",
+                () -> CompletableFuture.completedFuture("done")).join();
+
+        assertEquals("done", result);
+        verify(rLock).unlockAsync(anyLong());
+    }
+
+    @Test
+    void failGetLockAsync() {
+        RedissonPromise<Boolean> locked = new RedissonPromise<>();
+        locked.trySuccess(false);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(locked);
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> lockService.executeWithLockAsync("123",
+                        () -> CompletableFuture.completedFuture("done")).join());
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verify(rLock, never()).unlockAsync(anyLong());
+    }
+
+    @Test
+    void successGetLockAll_inSortedOrder() throws InterruptedException {
+        RLock first = mock(RLock.class);
+        RLock second = mock(RLock.class);
+        given(redissonClient.getLock("ACLK : 1000000000")).willReturn(first);
+        given(redissonClient.getLock("ACLK : 2000000000")).willReturn(second);
+        given(redissonClient.getMultiLock(first, second)).willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        assertDoesNotThrow(() -> lockService.lockAll(List.of("2000000000", "1000000000"), 1000L, 5000L));
+    }
+
+    @Test
+    void failGetLockAll() throws InterruptedException {
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(redissonClient.getMultiLock(rLock, rLock))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lockAll(List.of("2000000000", "1000000000"), 1000L, 5000L));
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+    }
+
+    @Test
+    void redisFailure_fallsBackToLocalLock() throws InterruptedException {
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("redis down"));
+
+        LockService.LockHandle lockHandle = lockService.lock("123");
+
+        assertTrue(lockHandle.isLocal());
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lock("123", 0L, 5000L));
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+
+        lockService.unlock(lockHandle);
+        verify(rLock, never()).unlock();
+        assertTrue(lockService.lock("123", 0L, 5000L).isLocal());
+    }
+
+    @Test
+    void redisConnectFailure_fallsBackToLocalLock() {
+        LockService lazyLockService = new LockService(
+                RedisLockRing.connectLazily(List.of("127.0.0.1:6379"), node -> {
+                    throw new IllegalStateException("connection refused");
+                }),
+                redisCircuitBreaker);
+
+        LockService.LockHandle lockHandle = lazyLockService.lock("123");
+
+        assertTrue(lockHandle.isLocal());
+        verify(redisCircuitBreaker).onError();
+        lazyLockService.unlock(lockHandle);
+    }
+
+    @Test
+    void circuitOpen_skipsRedis() {
+        given(redisCircuitBreaker.allowRequest()).willReturn(false);
+
+        LockService.LockHandle lockHandle = lockService.lockAll(
+                List.of("2000000000", "1000000000"), 1000L, 5000L);
+
+        assertTrue(lockHandle.isLocal());
+        verify(redissonClient, never()).getLock(anyString());
+        lockService.unlock(lockHandle);
+    }
+
+    @Test
+    void redisLockHolder_alsoHoldsLocalLock() throws InterruptedException {
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        LockService.LockHandle lockHandle = lockService.lock("123");
+        given(redisCircuitBreaker.allowRequest()).willReturn(false);
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lock("123", 0L, 5000L));
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        lockService.unlock(lockHandle);
+        verify(rLock).unlock();
+        assertTrue(lockService.lock("123", 0L, 5000L).isLocal());
+    }
+
+    @Test
+    void interruptedRedisLock_reportsOutcomeAndReleasesLocalLock() throws InterruptedException {
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new InterruptedException());
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lock("123"));
+
+        assertTrue(Thread.interrupted());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(redisCircuitBreaker).onIgnored();
+        given(redisCircuitBreaker.allowRequest()).willReturn(false);
+        assertTrue(lockService.lock("123", 0L, 5000L).isLocal());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.account.service;
+
+import com.example.account.aop.RateLimit;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.hotaccount.HotAccountTracker;
+import com.example.account.type.ErrorCode;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.annotation.Order;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitAspectTest {
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private HotAccountTracker hotAccountTracker;
+
+    @Mock
+    private RateLimit rateLimit;
+
+    @InjectMocks
+    private RateLimitAspect rateLimitAspect;
+
+    @Test
+    void proceedsWhenAllowed() throws Throwable {
+        given(rateLimiter.tryAcquire(rateLimit, 12L, "1234567890")).willReturn(true);
+        given(proceedingJoinPoint.proceed()).willReturn("ok");
+
+        Object result = rateLimitAspect.aroundMethod(proceedingJoinPoint, rateLimit,
+                new UseBalance.Request(12L, "1234567890", 1000L));
+
+        assertEquals("ok", result);
+    }
+
+    @Test
+    void rejectsWithoutProceeding() throws Throwable {
+        given(rateLimiter.tryAcquire(any(), any(), any())).willReturn(false);
+
+        AccountException exception = assertThrows(AccountException.class, () ->
+                rateLimitAspect.aroundMethod(proceedingJoinPoint, rateLimit,
+                        new UseBalance.Request(12L, "1234567890", 1000L)));
+
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(hotAccountTracker).recordRequest(List.of("1234567890"));
+    }
+
+    @Test
+    void requestWithoutUserIsLimitedByAccountOnly() throws Throwable {
+        given(rateLimiter.tryAcquire(eq(rateLimit), isNull(), eq("1234567890"))).willReturn(true);
+
+        rateLimitAspect.aroundMethod(proceedingJoinPoint, rateLimit,
+                new CancelBalance.Request("transactionId", "1234567890", 1000L));
+
+        verify(proceedingJoinPoint).proceed();
+    }
+
+    @Test
+    void runsBeforeLockAspect() {
+        assertTrue(RateLimitAspect.class.getAnnotation(Order.class).value()
+                < LockAopAspect.class.getAnnotation(Order.class).value());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.account.service;
+
+import com.example.account.aop.RateLimit;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final MockEnvironment environment = new MockEnvironment();
+    private final RedisCircuitBreaker circuitBreaker =
+            new RedisCircuitBreaker(50, 20, 0.5, 0.5, 100, 5000, 3);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        RateLimiter rateLimiter = rateLimiter(null, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(use(), null, "1234567890"));
+        }
+        assertFalse(rateLimiter.tryAcquire(use(), null, "1234567890"));
+        assertTrue(rateLimiter.tryAcquire(use(), null, "1234567891"));
+
+        advanceMillis(200);
+        assertTrue(rateLimiter.tryAcquire(use(), null, "1234567890"));
+        assertFalse(rateLimiter.tryAcquire(use(), null, "1234567890"));
+    }
+
+    @Test
+    void rejectedAccountRefundsUserToken() {
+        environment.setProperty("account.rate-limit.routes.use.user-burst", "11");
+        RateLimiter rateLimiter = rateLimiter(null, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(use(), 1L, "1234567890"));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertFalse(rateLimiter.tryAcquire(use(), 1L, "1234567890"));
+        }
+
+        assertTrue(rateLimiter.tryAcquire(use(), 1L, "1234567891"));
+        assertFalse(rateLimiter.tryAcquire(use(), 1L, "1234567892"));
+    }
+
+    @Test
+    void routeLimitsComeFromProperties() {
+        environment.setProperty("account.rate-limit.routes.use.account-per-second", "0");
+        environment.setProperty("account.rate-limit.routes.use.user-burst", "2");
+        RateLimiter rateLimiter = rateLimiter(null, false);
+
+        assertTrue(rateLimiter.tryAcquire(use(), 1L, "1234567890"));
+        assertTrue(rateLimiter.tryAcquire(use(), 1L, "1234567890"));
+        assertFalse(rateLimiter.tryAcquire(use(), 1L, "1234567890"));
+        assertTrue(rateLimiter.tryAcquire(use(), 2L, "1234567890"));
+    }
+
+    @Test
+    void evictsIdleBuckets() {
+        RateLimiter rateLimiter = rateLimiter(null, false);
+        rateLimiter.tryAcquire(use(), 1L, "1234567890");
+        assertEquals(2, rateLimiter.size());
+
+        advanceMillis(60_001);
+        rateLimiter.tryAcquire(use(), 2L, null);
+        advanceMillis(60_001);
+        rateLimiter.tryAcquire(use(), 2L, null);
+
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    void clusterModeChecksRedisOnlyAfterNodeBucket() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        RScript script = script(redissonClient);
+        given(script.eval(anyString(), any(), anyString(), any(), anyList(), anyLong(), anyLong(), anyLong()))
+                .willReturn(1L, 0L);
+        RateLimiter rateLimiter = rateLimiter(redissonClient, true);
+
+        assertTrue(rateLimiter.tryAcquire(use(), null, "1234567890"));
+        assertFalse(rateLimiter.tryAcquire(use(), null, "1234567890"));
+        for (int i = 0; i < 20; i++) {
+            rateLimiter.tryAcquire(use(), null, "1234567890");
+        }
+
+        // 한 번의 왕복으로 꺼내며, rate 설정이나 TTL 을 따로 부르지 않는다. (account 5/s, burst 10)
+        verify(script, times(10)).eval(eq("ACRL : use:a:1234567890"), eq(RScript.Mode.READ_WRITE), anyString(),
+                eq(RScript.ReturnType.INTEGER), eq(List.of("ACRL : use:a:1234567890")),
+                anyLong(), eq(200_000L), eq(2_000_000L));
+        verifyNoMoreInteractions(script);
+    }
+
+    @Test
+    void clusterAccountRejectionRefundsUserToken() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        RScript script = script(redissonClient);
+        given(script.eval(eq("ACRL : use:u:1"), any(), anyString(), any(), anyList(),
+                anyLong(), anyLong(), anyLong()))
+                .willReturn(1L);
+        given(script.eval(eq("ACRL : use:a:1234567890"), any(), anyString(), any(), anyList(),
+                anyLong(), anyLong(), anyLong()))
+                .willReturn(0L);
+        RateLimiter rateLimiter = rateLimiter(redissonClient, true);
+
+        assertFalse(rateLimiter.tryAcquire(use(), 1L, "1234567890"));
+
+        verify(script).evalAsync(eq("ACRL : use:u:1"), eq(RScript.Mode.READ_WRITE), anyString(),
+                eq(RScript.ReturnType.INTEGER), eq(List.of("ACRL : use:u:1")), eq(50_000L));
+    }
+
+    @Test
+    void clusterModeFallsBackToNodeLimitWhenRedisFails() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        given(redissonClient.getScript(any())).willThrow(new IllegalStateException("redis down"));
+        RateLimiter rateLimiter = rateLimiter(redissonClient, true);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(use(), null, "1234567890"));
+        }
+        assertFalse(rateLimiter.tryAcquire(use(), null, "1234567890"));
+    }
+
+    private static RScript script(RedissonClient redissonClient) {
+        RScript script = mock(RScript.class);
+        given(redissonClient.getScript(StringCodec.INSTANCE)).willReturn(script);
+        return script;
+    }
+
+    private RateLimiter rateLimiter(RedissonClient redissonClient, boolean cluster) {
+        RedisLockRing ring = new RedisLockRing(Map.of("127.0.0.1:6379",
+                redissonClient == null ? mock(RedissonClient.class) : redissonClient));
+        return new RateLimiter(ring, circuitBreaker, environment, true, cluster, 60_000, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static RateLimit use() {
+        return Routes.class.getDeclaredMethods()[0].getAnnotation(RateLimit.class);
+    }
+
+    private static class Routes {
+        @RateLimit("use")
+        void use() {
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.account.service;
+
+import com.example.account.service.RedisCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCircuitBreakerTest {
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void opensOnFailureRate() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(10, 4, 0.5, 0.5, 100, 60000, 2);
+
+        breaker.onSuccess(0L);
+        breaker.onError();
+        breaker.onSuccess(0L);
+        assertEquals(State.CLOSED, breaker.getState());
+
+        breaker.onError();
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(10, 4, 0.5, 0.5, 100, 60000, 2);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(SLOW);
+        }
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(4, 4, 0.5, 0.5, 100, 60000, 2);
+        breaker.onError();
+        for (int i = 0; i < 10; i++) {
+            breaker.onSuccess(0L);
+        }
+
+        breaker.onError();
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenProbesCloseTheCircuit() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(10, 1, 0.5, 0.5, 100, 0, 2);
+        breaker.onError();
+        assertEquals(State.OPEN, breaker.getState());
+
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(0L);
+        breaker.onSuccess(0L);
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(10, 1, 0.5, 0.5, 100, 0, 2);
+        breaker.onError();
+        assertTrue(breaker.allowRequest());
+
+        breaker.onError();
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void ignoredProbeReturnsItsPermit() {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(10, 1, 0.5, 0.5, 100, 0, 1);
+        breaker.onError();
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+
+        breaker.onIgnored();
+
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess(0L);
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RedisLockRingTest {
+    private static final int KEYS = 30000;
+
+    @Test
+    void spreadsKeysAcrossNodes() {
+        Map<String, RedissonClient> nodes = nodes(3);
+        RedisLockRing ring = new RedisLockRing(nodes);
+
+        Map<RedissonClient, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.clientFor(lockKey(i)), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count ->
+                assertTrue(count > KEYS / 3 * 0.8 && count < KEYS / 3 * 1.2, "count : " + count));
+    }
+
+    @Test
+    void addingNodeRemapsOnlyItsShare() {
+        Map<String, RedissonClient> nodes = nodes(4);
+        RedisLockRing before = new RedisLockRing(Map.of(
+                "127.0.0.1:6379", nodes.get("127.0.0.1:6379"),
+                "127.0.0.1:6380", nodes.get("127.0.0.1:6380"),
+                "127.0.0.1:6381", nodes.get("127.0.0.1:6381")));
+        RedisLockRing after = new RedisLockRing(nodes);
+        RedissonClient added = nodes.get("127.0.0.1:6382");
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            RedissonClient from = before.clientFor(lockKey(i));
+            RedissonClient to = after.clientFor(lockKey(i));
+            if (from != to) {
+                assertSame(added, to);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > KEYS * 0.15 && moved < KEYS * 0.35, "moved : " + moved);
+    }
+
+    @Test
+    void sameKeyAlwaysMapsToSameNode() {
+        RedisLockRing ring = new RedisLockRing(nodes(3));
+
+        assertSame(ring.clientFor(lockKey(7)), ring.clientFor(lockKey(7)));
+    }
+
+    @Test
+    void nodeLookupByName() {
+        Map<String, RedissonClient> nodes = nodes(2);
+        RedisLockRing ring = new RedisLockRing(nodes);
+
+        assertSame(nodes.get("127.0.0.1:6380"), ring.node("127.0.0.1:6380"));
+        assertThrows(IllegalArgumentException.class, () -> ring.node("127.0.0.1:9999"));
+    }
+
+    @Test
+    void lazyRingConnectsOnFirstUseAndRetriesFailedConnect() {
+        RedissonClient client = mock(RedissonClient.class);
+        AtomicInteger attempts = new AtomicInteger();
+        RedisLockRing ring = RedisLockRing.connectLazily(List.of("127.0.0.1:6379"), node -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("redis not started");
+            }
+            return client;
+        });
+        assertEquals(0, attempts.get());
+
+        assertThrows(IllegalStateException.class, () -> ring.clientFor(lockKey(1)));
+
+        assertSame(client, ring.clientFor(lockKey(1)));
+        assertSame(client, ring.clientFor(lockKey(2)));
+        assertEquals(2, attempts.get());
+    }
+
+    private static Map<String, RedissonClient> nodes(int count) {
+        Map<String, RedissonClient> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            nodes.put("127.0.0.1:" + (6379 + i), mock(RedissonClient.class));
+        }
+        return nodes;
+    }
+
+    private static String lockKey(int i) {
+        return "ACLK : " + (1_000_000_000L + i);
+    }
+}
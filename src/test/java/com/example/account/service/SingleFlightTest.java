@@ -0,0 +1,139 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                    .getBeanProvider(MeterRegistry.class));
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> singleFlight.execute("test", 1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value";
+        }));
+        awaitCount("follower", CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("leader"));
+        assertEquals(0, singleFlight.inFlightSize());
+    }
+
+    @Test
+    void completedLoadIsNotReused() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("test", 1L, loads::incrementAndGet);
+        singleFlight.execute("test", 1L, loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(2.0, count("leader"));
+    }
+
+    @Test
+    void failureReachesAllWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> singleFlight.execute("test", 1L, () -> {
+            await(release);
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }));
+        awaitCount("follower", CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, ((AccountException) e.getCause()).getErrorCode());
+        }
+        assertEquals(0, singleFlight.inFlightSize());
+    }
+
+    @Test
+    void asyncFollowersShareLeaderFuture() throws Exception {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> leader = singleFlight.executeAsync("test", 1L, () -> {
+            loads.incrementAndGet();
+            return load;
+        });
+        CompletableFuture<String> follower = singleFlight.executeAsync("test", 1L, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        follower.cancel(false);
+        load.complete("value");
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightSize());
+    }
+
+    @Test
+    void differentKeysLoadSeparately() {
+        assertEquals("a", singleFlight.execute("test", 1L, () -> "a"));
+        assertEquals("b", singleFlight.execute("test", 2L, () -> "b"));
+        assertEquals("c", singleFlight.execute("other", 1L, () -> "c"));
+    }
+
+    private List<Future<String>> callConcurrently(Callable<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        return results;
+    }
+
+    private void awaitCount(String role, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count(role) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, count(role));
+    }
+
+    private double count(String role) {
+        var counter = meterRegistry.find("account.coalesce.requests").tag("role", role).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 100;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0L);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void expiresAtTheDeadlineTickButNeverBefore() {
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 120);
+
+        wheel.advance(199, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.advance(200, expired::add);
+        assertEquals(List.of("b"), expired);
+
+        wheel.advance(299, expired::add);
+        assertEquals(List.of("b"), expired);
+
+        wheel.advance(300, expired::add);
+        assertEquals(List.of("b", "a"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionWaitForTheirRound() {
+        // 한 바퀴는 8 tick(800) 이라 2050 은 같은 칸을 두 바퀴 지나친 뒤에 만료된다.
+        wheel.schedule("far", 2050);
+        wheel.schedule("near", 50);
+
+        wheel.advance(2099, expired::add);
+        assertEquals(List.of("near"), expired);
+
+        wheel.advance(2100, expired::add);
+        assertEquals(List.of("near", "far"), expired);
+    }
+
+    @Test
+    void cancelledTimeoutsDoNotExpire() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 150);
+        wheel.schedule("b", 150);
+        wheel.advance(100, expired::add);
+
+        assertTrue(timeout.cancel());
+        assertEquals(1, wheel.size());
+        wheel.advance(1_000, expired::add);
+
+        assertEquals(List.of("b"), expired);
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextTick() {
+        wheel.advance(1_000, expired::add);
+        wheel.schedule("late", 10);
+
+        wheel.advance(1_099, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(1_100, expired::add);
+        assertEquals(List.of("late"), expired);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.SearchTransactions;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.shard.ShardRouter;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "account.transaction-search.max-limit=3",
+        "account.transaction-search.max-range-without-account-hours=24"
+})
+@Import({TransactionSearchService.class, ShardRouter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionSearchServiceTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        Account first = accountRepository.save(account("1000000001"));
+        Account second = accountRepository.save(account("1000000002"));
+        for (int i = 0; i < 5; i++) {
+            transactionRepository.save(transaction(first, "first-" + i, TransactionType.USE,
+                    i % 2 == 0 ? TransactionResultType.S : TransactionResultType.F, 1000L * (i + 1),
+                    BASE.plusMinutes(i)));
+        }
+        // 같은 시각의 거래는 id 로 순서를 정한다.
+        transactionRepository.save(transaction(second, "second-0", TransactionType.CANCEL,
+                TransactionResultType.S, 500L, BASE.plusMinutes(4)));
+        transactionRepository.save(transaction(second, "second-1", TransactionType.USE,
+                TransactionResultType.S, 700L, BASE.plusDays(2)));
+    }
+
+    @Test
+    void searchByAccount_pagesWithCursor() {
+        List<String> transactionIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            SearchTransactions.Response response = transactionSearchService.search(
+                    SearchTransactions.Condition.builder()
+                            .accountNumber("1000000001")
+                            .cursor(cursor)
+                            .limit(2)
+                            .build());
+            response.getTransactions().forEach(transaction ->
+                    transactionIds.add(transaction.getTransactionId()));
+            cursor = response.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("first-4", "first-3", "first-2", "first-1", "first-0"), transactionIds);
+    }
+
+    @Test
+    void searchByAccount_filtersTypeResultAndAmount() {
+        SearchTransactions.Response response = transactionSearchService.search(
+                SearchTransactions.Condition.builder()
+                        .accountNumber("1000000001")
+                        .transactionTypes(Set.of(TransactionType.USE))
+                        .transactionResultTypes(Set.of(TransactionResultType.S))
+                        .minAmount(2000L)
+                        .maxAmount(5000L)
+                        .build());
+
+        assertEquals(List.of("first-4", "first-2"), response.getTransactions().stream()
+                .map(QueryTransactionResponse::getTransactionId).toList());
+        assertEquals("1000000001", response.getTransactions().get(0).getAccountNumber());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void searchByTimeRange_mergesAccountsAndCapsLimit() {
+        SearchTransactions.Response response = transactionSearchService.search(
+                SearchTransactions.Condition.builder()
+                        .from(BASE.plusMinutes(2))
+                        .to(BASE.plusHours(1))
+                        .limit(100)
+                        .build());
+
+        assertEquals(List.of("second-0", "first-4", "first-3"), response.getTransactions().stream()
+                .map(QueryTransactionResponse::getTransactionId).toList());
+        assertNotNull(response.getNextCursor());
+
+        SearchTransactions.Response next = transactionSearchService.search(
+                SearchTransactions.Condition.builder()
+                        .from(BASE.plusMinutes(2))
+                        .to(BASE.plusHours(1))
+                        .cursor(response.getNextCursor())
+                        .build());
+
+        assertEquals(List.of("first-2"), next.getTransactions().stream()
+                .map(QueryTransactionResponse::getTransactionId).toList());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void searchWithoutAccount_rejectsMissingOrLongRange() {
+        AccountException noRange = assertThrows(AccountException.class,
+                () -> transactionSearchService.search(SearchTransactions.Condition.builder()
+                        .transactionTypes(Set.of(TransactionType.USE))
+                        .build()));
+        AccountException longRange = assertThrows(AccountException.class,
+                () -> transactionSearchService.search(SearchTransactions.Condition.builder()
+                        .from(BASE)
+                        .to(BASE.plusDays(2))
+                        .build()));
+
+        assertEquals(ErrorCode.TRANSACTION_SEARCH_TOO_BROAD, noRange.getErrorCode());
+        assertEquals(ErrorCode.TRANSACTION_SEARCH_TOO_BROAD, longRange.getErrorCode());
+    }
+
+    @Test
+    void search_rejectsInvalidConditions() {
+        AccountException badCursor = assertThrows(AccountException.class,
+                () -> transactionSearchService.search(SearchTransactions.Condition.builder()
+                        .accountNumber("1000000001")
+                        .cursor("not-a-cursor")
+                        .build()));
+        AccountException badAmount = assertThrows(AccountException.class,
+                () -> transactionSearchService.search(SearchTransactions.Condition.builder()
+                        .accountNumber("1000000001")
+                        .minAmount(10L)
+                        .maxAmount(1L)
+                        .build()));
+        AccountException unknownAccount = assertThrows(AccountException.class,
+                () -> transactionSearchService.search(SearchTransactions.Condition.builder()
+                        .accountNumber("9999999999")
+                        .build()));
+
+        assertEquals(ErrorCode.INVALID_REQUEST, badCursor.getErrorCode());
+        assertEquals(ErrorCode.INVALID_REQUEST, badAmount.getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, unknownAccount.getErrorCode());
+    }
+
+    @Test
+    void searchIndexes_areUsedByBothPlans() {
+        Long accountId = accountRepository.findByAccountNumber("1000000001").orElseThrow().getId();
+
+        String byAccount = explain("select * from transaction where account_id = " + accountId
+                + " order by transacted_at desc, id desc");
+        String byTime = explain("select * from transaction where transacted_at >= timestamp '2026-03-01 09:00:00'"
+                + " order by transacted_at desc, id desc");
+
+        // H2 는 같은 접두 컬럼의 FK 인덱스를 고를 수도 있으므로 테이블 전체를 읽지 않는지만 본다.
+        assertFalse(byAccount.contains("TABLESCAN"), byAccount);
+        assertTrue(byTime.contains("IDX_TRANSACTION_TRANSACTED_AT"), byTime);
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("explain " + sql).getSingleResult())
+                .toUpperCase();
+    }
+
+    private static Account account(String accountNumber) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+    }
+
+    private static Transaction transaction(Account account, String transactionId, TransactionType type,
+                                           TransactionResultType result, long amount, LocalDateTime transactedAt) {
+        return Transaction.builder()
+                .account(account)
+                .transactionId(transactionId)
+                .trasactionType(type)
+                .transactionResultType(result)
+                .amount(amount)
+                .balanceSnapshot(10000L)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountDailySummary;
+import com.example.account.repository.AccountDailySummaryRepository;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 계좌 락 없이(다른 노드가 락을 로컬로만 잡는 경우) 같은 계좌에 거래가 동시에 들어올 때를 실제 H2 로 확인한다.
+ */
+@DataJpaTest
+@Import(TransactionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceConcurrencyTest {
+    private static final int ACCOUNTS = 10;
+    private static final int REQUESTS = 8;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private AccountDailySummaryRepository accountDailySummaryRepository;
+
+    @Test
+    void parallelUses_neverLoseAnUpdate() throws Exception {
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).orElseThrow())
+                .accountNumber("2100000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(100000L)
+                .build());
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transactionService.useBalance(1L, account.getAccountNumber(), 1000L);
+                        return true;
+                    } catch (OptimisticLockingFailureException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int used = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    used++;
+                }
+            }
+
+            // 실패한 거래는 잔액을 바꾸지 않고, 성공한 거래는 하나도 덮어써지지 않는다.
+            assertEquals(100000L - used * 1000L,
+                    accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelFirstTransactionsOfTheDay_allLandInOneSummaryRow() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account account = accountRepository.save(Account.builder()
+                        .accountUser(accountUserRepository.findById(1L).orElseThrow())
+                        .accountNumber(String.valueOf(2000000000L + i))
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(0L)
+                        .build());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> results = new ArrayList<>();
+                for (int j = 0; j < REQUESTS; j++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        transactionService.saveFailedUseTransaction(account.getAccountNumber(), 1000L);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) {
+                    result.get(30, TimeUnit.SECONDS);
+                }
+
+                List<AccountDailySummary> summaries = accountDailySummaryRepository
+                        .findByAccountAndSummaryDateBetweenOrderBySummaryDate(
+                                account, LocalDate.now().minusDays(1), LocalDate.now());
+                assertEquals(1, summaries.size());
+                assertEquals(REQUESTS, summaries.get(0).getFailedCount());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
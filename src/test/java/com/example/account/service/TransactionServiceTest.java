@@ -1,15 +1,23 @@
 package com.example.account.service;
 
 import com.example.account.domain.Account;
+import com.example.account.domain.AccountDailySummary;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
+import com.example.account.event.TransactionRecorded;
 import com.example.account.exception.AccountException;
+import com.example.account.readmodel.AccountBalanceChanged;
+import com.example.account.repository.AccountDailySummaryRepository;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,17 +26,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.example.account.type.TransactionResultType.F;
 import static com.example.account.type.TransactionResultType.S;
-import static com.example.account.type.TransactionType.CANCEL;
-import static com.example.account.type.TransactionType.USE;
+import static com.example.account.type.TransactionType.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -41,6 +52,12 @@ class TransactionServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+    @Mock
+    private AccountDailySummaryRepository accountDailySummaryRepository;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -69,6 +86,8 @@ class TransactionServiceTest {
                         .amount(1000L)
                         .balanceSnapshot(9000L)
                         .build());
+        given(accountDailySummaryRepository.add(any()))
+                .willReturn(0);
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
         TransactionDto transactionDto = transactionService.useBalance(
@@ -81,6 +100,25 @@ class TransactionServiceTest {
         assertEquals(USE, transactionDto.getTrasactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
         assertEquals(1000L, transactionDto.getAmount());
+        ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        AccountBalanceChanged changed = (AccountBalanceChanged) eventCaptor.getAllValues().get(0);
+        assertEquals("1000000012", changed.accountNumber());
+        assertEquals(9800L, changed.balance());
+        assertEquals(12L, changed.userId());
+        TransactionRecorded recorded = (TransactionRecorded) eventCaptor.getAllValues().get(1);
+        assertEquals(USE, recorded.transactionType());
+        assertEquals(200L, recorded.amount());
+        assertEquals(9800L, recorded.balanceSnapshot());
+        // 그날 첫 거래라 계좌 행을 잠근 뒤 이 거래 값으로 집계 행을 만든다.
+        ArgumentCaptor<AccountDailySummary> summaryCaptor = ArgumentCaptor.forClass(AccountDailySummary.class);
+        verify(accountRepository, times(1)).lockById(account.getId());
+        verify(accountDailySummaryRepository, times(2)).add(any());
+        verify(accountDailySummaryRepository, times(1)).save(summaryCaptor.capture());
+        assertEquals(LocalDate.now(), summaryCaptor.getValue().getSummaryDate());
+        assertEquals(1L, summaryCaptor.getValue().getUsedCount());
+        assertEquals(200L, summaryCaptor.getValue().getUsedAmount());
+        assertEquals(0L, summaryCaptor.getValue().getFailedCount());
     }
 
     @Test
@@ -249,6 +287,8 @@ class TransactionServiceTest {
                         .amount(1000L)
                         .balanceSnapshot(10000L)
                         .build());
+        given(accountDailySummaryRepository.add(any()))
+                .willReturn(1);
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
         TransactionDto transactionDto = transactionService.cancelBalance(
@@ -257,6 +297,14 @@ class TransactionServiceTest {
         verify(transactionRepository, times(1)).save(captor.capture());
         assertEquals(1000L,captor.getValue().getAmount());
         assertEquals(10000L + 1000L,captor.getValue().getBalanceSnapshot());
+        assertEquals(S, captor.getValue().getTransactionResultType());
+        // 이미 있는 그날 집계 행에 더하기만 한다.
+        ArgumentCaptor<AccountDailySummary> summaryCaptor = ArgumentCaptor.forClass(AccountDailySummary.class);
+        verify(accountDailySummaryRepository, times(1)).add(summaryCaptor.capture());
+        verify(accountDailySummaryRepository, never()).save(any());
+        verify(accountRepository, never()).lockById(any());
+        assertEquals(1L, summaryCaptor.getValue().getCancelledCount());
+        assertEquals(1000L, summaryCaptor.getValue().getCancelledAmount());
         assertEquals(S, transactionDto.getTransactionResultType());
         assertEquals(CANCEL, transactionDto.getTrasactionType());
         assertEquals(10000L, transactionDto.getBalanceSnapshot());
@@ -435,6 +483,104 @@ class TransactionServiceTest {
         assertEquals("transactionId",transactionDto.getTransactionId());
     }
 
+    @Test
+    void successTransfer(){
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        Account targetAccount = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(500L)
+                .accountNumber("1000000013").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account));
+        given(accountRepository.findByAccountNumber("1000000013"))
+                .willReturn(Optional.of(targetAccount));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        TransactionDto transactionDto = transactionService.transfer(
+                12L, "1000000012", "1000000013", 1000L);
+
+        verify(transactionRepository, times(2)).save(captor.capture());
+        Transaction out = captor.getAllValues().get(0);
+        Transaction in = captor.getAllValues().get(1);
+        assertEquals(TRANSFER_OUT, out.getTrasactionType());
+        assertEquals(9000L, out.getBalanceSnapshot());
+        assertEquals(TRANSFER_IN, in.getTrasactionType());
+        assertEquals(1500L, in.getBalanceSnapshot());
+        assertEquals(out.getTransactionId(), in.getLinkedTransactionId());
+        assertEquals(in.getTransactionId(), out.getLinkedTransactionId());
+        assertEquals(S, transactionDto.getTransactionResultType());
+        assertEquals(in.getTransactionId(), transactionDto.getLinkedTransactionId());
+    }
+
+    @Test
+    @DisplayName("같은 계좌로 이체 - 이체 실패")
+    void transfer_SameAccount(){
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.transfer(12L, "1000000012", "1000000012", 1000L));
+
+        assertEquals(ErrorCode.TRANSFER_SAME_ACCOUNT, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("잔액 부족 - 이체 실패")
+    void transfer_AmountExceedBalance(){
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(100L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.transfer(12L, "1000000012", "1000000013", 1000L));
+
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("이체 거래는 취소 불가 - 잔액 사용 취소 실패")
+    void cancelBalance_TransferNotCancelable(){
+        Account account = Account.builder()
+                .id(1L)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .trasactionType(TRANSFER_OUT)
+                        .transactionResultType(S)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(1000L)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000012", 1000L));
+
+        assertEquals(ErrorCode.TRANSACTION_NOT_CANCELABLE, accountException.getErrorCode());
+    }
+
     @Test
     @DisplayName("원 거래 없음 - 거래 조회 실패")
     void queryTransaction_TransactionNotFound(){
@@ -449,4 +595,148 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
     }
 
-}
\ No newline at end of file
+    @Test
+    void successHoldBalance(){
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi").build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        given(balanceHoldRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        HoldDto holdDto = transactionService.holdBalance(1L, "1000000012", 3000L, 60L);
+
+        verify(transactionRepository).save(captor.capture());
+        assertEquals(HOLD, captor.getValue().getTrasactionType());
+        assertEquals(captor.getValue().getTransactionId(), holdDto.getHoldId());
+        assertEquals(HoldStatus.HELD, holdDto.getStatus());
+        assertEquals(7000L, holdDto.getBalance());
+        assertEquals(3000L, holdDto.getHeldBalance());
+        assertTrue(holdDto.getExpiresAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        verify(eventPublisher).publishEvent(any(BalanceHoldChanged.class));
+    }
+
+    @Test
+    @DisplayName("부분 확정 - 남은 금액은 사용 가능 잔액으로")
+    void captureHold_ReleasesRemainder(){
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder().id(12L).build())
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(7000L)
+                .heldBalance(3000L)
+                .accountNumber("1000000012").build();
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(account, 3000L, LocalDateTime.now().plusMinutes(1))));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        HoldDto holdDto = transactionService.captureHold("holdId", "1000000012", 1000L);
+
+        verify(transactionRepository, times(2)).save(captor.capture());
+        assertEquals(List.of(CAPTURE, RELEASE),
+                captor.getAllValues().stream().map(Transaction::getTrasactionType).toList());
+        assertEquals(List.of(1000L, 2000L),
+                captor.getAllValues().stream().map(Transaction::getAmount).toList());
+        assertEquals("holdId", captor.getValue().getLinkedTransactionId());
+        assertEquals(HoldStatus.CAPTURED, holdDto.getStatus());
+        assertEquals(1000L, holdDto.getCapturedAmount());
+        assertEquals(9000L, holdDto.getBalance());
+        assertEquals(0L, holdDto.getHeldBalance());
+    }
+
+    @Test
+    @DisplayName("홀드 금액보다 큰 확정 - 홀드 확정 실패")
+    void captureHold_ExceedHold(){
+        Account account = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(7000L)
+                .heldBalance(3000L)
+                .accountNumber("1000000012").build();
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(account, 3000L, LocalDateTime.now().plusMinutes(1))));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.captureHold("holdId", "1000000012", 3001L));
+
+        assertEquals(ErrorCode.CAPTURE_EXCEED_HOLD, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("만료 시각이 지난 홀드 - 홀드 해제 실패")
+    void releaseHold_Expired(){
+        Account account = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(7000L)
+                .heldBalance(3000L)
+                .accountNumber("1000000012").build();
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold(account, 3000L, LocalDateTime.now().minusSeconds(1))));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.releaseHold("holdId", "1000000012"));
+
+        assertEquals(ErrorCode.HOLD_ALREADY_CLOSED, accountException.getErrorCode());
+        assertEquals(3000L, account.getHeldBalance());
+    }
+
+    @Test
+    void expireHold_notYetDue(){
+        Account account = Account.builder()
+                .accountUser(AccountUser.builder().id(12L).build())
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(7000L)
+                .heldBalance(3000L)
+                .accountNumber("1000000012").build();
+        BalanceHold hold = hold(account, 3000L, LocalDateTime.now().plusMinutes(1));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+
+        assertFalse(transactionService.expireHold("holdId"));
+
+        assertEquals(HoldStatus.HELD, hold.getStatus());
+        assertEquals(3000L, account.getHeldBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void expireHold(){
+        Account account = Account.builder()
+                .accountUser(AccountUser.builder().id(12L).build())
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(7000L)
+                .heldBalance(3000L)
+                .accountNumber("1000000012").build();
+        BalanceHold hold = hold(account, 3000L, LocalDateTime.now().minusSeconds(1));
+        given(balanceHoldRepository.findByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+
+        assertTrue(transactionService.expireHold("holdId"));
+        assertFalse(transactionService.expireHold("holdId"));
+
+        assertEquals(HoldStatus.EXPIRED, hold.getStatus());
+        assertEquals(10000L, account.getBalance());
+        assertEquals(0L, account.getHeldBalance());
+        verify(transactionRepository, times(1)).save(any());
+    }
+
+    private static BalanceHold hold(Account account, Long amount, LocalDateTime expiresAt) {
+        return BalanceHold.builder()
+                .holdId("holdId")
+                .account(account)
+                .amount(amount)
+                .status(HoldStatus.HELD)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.account.shard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRoutingDataSourceTest {
+    private static final int SHARDS = 3;
+
+    private List<DataSource> shards;
+    private JdbcTemplate jdbcTemplate;
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        String name = UUID.randomUUID().toString();
+        shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + name + "-" + i + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource(shards);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        shardRouter = new ShardRouter(true, SHARDS, new DataSourceTransactionManager(dataSource));
+
+        jdbcTemplate.execute("create sequence account_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table account_user (id bigint primary key, name varchar(255))");
+        jdbcTemplate.execute("create table account (id bigint primary key, account_number varchar(10),"
+                + " account_user_id bigint references account_user(id))");
+        jdbcTemplate.update("insert into account_user values (1, 'Pororo')");
+        new ShardSchemaReplicator(shards).afterSingletonsInstantiated();
+    }
+
+    @Test
+    void replicatesSchemaAndUsersWithDisjointSequences() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            JdbcTemplate shardTemplate = new JdbcTemplate(shards.get(shard));
+            assertEquals("Pororo", shardTemplate.queryForObject(
+                    "select name from account_user where id = 1", String.class));
+            long next = shardTemplate.queryForObject("select next value for account_seq", Long.class);
+            assertEquals(shard, next / ShardSchemaReplicator.SEQUENCE_SPAN);
+        }
+    }
+
+    @Test
+    void routesWritesByAccountNumberAndFansOutReads() {
+        for (int i = 0; i < 30; i++) {
+            String accountNumber = String.valueOf(1234567890 + i);
+            long id = i;
+            shardRouter.executeInShard(shardRouter.shardOf(accountNumber), () ->
+                    jdbcTemplate.update("insert into account values (?, ?, 1)", id, accountNumber));
+        }
+
+        List<Integer> counts = shardRouter.fanOut(() ->
+                jdbcTemplate.queryForObject("select count(*) from account", Integer.class));
+
+        assertEquals(SHARDS, counts.size());
+        assertEquals(30, counts.stream().mapToInt(Integer::intValue).sum());
+        counts.forEach(count -> assertTrue(count > 0));
+        for (int shard = 0; shard < SHARDS; shard++) {
+            List<String> accountNumbers = new JdbcTemplate(shards.get(shard))
+                    .queryForList("select account_number from account", String.class);
+            int expected = shard;
+            accountNumbers.forEach(accountNumber -> assertEquals(expected, shardRouter.shardOf(accountNumber)));
+        }
+    }
+
+    @Test
+    void transactionIdCarriesItsShard() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            String transactionId = Character.forDigit(shard, 16) + "0123456789abcdef0123456789abcde";
+
+            assertEquals(shard, shardRouter.shardOfTransactionId(transactionId));
+        }
+    }
+
+    @Test
+    void accountIdCarriesItsShard() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            long accountId = (shard * ShardSchemaReplicator.SEQUENCE_SPAN + 7) * ShardRouter.MAX_SHARDS + shard;
+
+            assertEquals(shard, shardRouter.shardOfAccountId(accountId));
+        }
+    }
+
+    @Test
+    void forEachShardWritesReplicatedRows() {
+        shardRouter.forEachShard(() -> jdbcTemplate.update("insert into account_user values (2, 'Lupi')"));
+
+        for (DataSource shard : shards) {
+            assertEquals(2, new JdbcTemplate(shard).queryForObject(
+                    "select count(*) from account_user", Integer.class));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.account.trace;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+    private final TraceCollector traceCollector = new TraceCollector(16, "");
+    private final Tracer tracer = new Tracer(traceCollector);
+
+    @Test
+    void collectNestedSpans() {
+        String traceId = tracer.startTrace("POST /transaction/use", "abc", true);
+        try (Tracer.SpanScope service = tracer.startSpan("TransactionService.useBalance")) {
+            try (Tracer.SpanScope repository = tracer.startSpan("AccountRepository.findByAccountNumber")) {
+                repository.error(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            }
+        }
+        tracer.endTrace(null);
+
+        List<Trace> traces = traceCollector.slowest(10);
+        assertEquals("abc", traceId);
+        assertEquals(1, traces.size());
+        Trace trace = traces.get(0);
+        assertEquals("abc", trace.traceId());
+        assertEquals(3, trace.spans().size());
+        assertEquals(-1, trace.spans().get(0).parent());
+        assertEquals(0, trace.spans().get(1).parent());
+        assertEquals(1, trace.spans().get(2).parent());
+        assertEquals("ACCOUNT_NOT_FOUND", trace.spans().get(2).error());
+    }
+
+    @Test
+    void skipSpansWhenNotSampled() {
+        ReflectionTestUtils.setField(tracer, "sampleRate", 0.0);
+
+        String traceId = tracer.startTrace("GET /transaction/{transactionId}", null, false);
+        tracer.startSpan("TransactionService.queryTransaction").close();
+        tracer.endTrace(null);
+
+        assertNotNull(traceId);
+        assertTrue(traceCollector.slowest(10).isEmpty());
+    }
+
+    @Test
+    void slowestFirst() {
+        traceCollector.collect(new Trace("fast", "fast", 0, 10, null, List.of()));
+        traceCollector.collect(new Trace("slow", "slow", 0, 1000, null, List.of()));
+
+        List<Trace> traces = traceCollector.slowest(1);
+
+        assertEquals(1, traces.size());
+        assertEquals("slow", traces.get(0).traceId());
+    }
+
+    @Test
+    void replaceInvalidIncomingTraceId() {
+        String tooLong = tracer.startTrace("GET /account", "a".repeat(Tracer.MAX_TRACE_ID_LENGTH + 1), false);
+        tracer.endTrace(null);
+        String injected = tracer.startTrace("GET /account", "abc\r\nX-Injected: 1", false);
+        tracer.endTrace(null);
+
+        assertEquals(32, tooLong.length());
+        assertEquals(32, injected.length());
+        assertTrue(Tracer.isValidTraceId("0af7651916cd43dd8448eb211c80319c"));
+    }
+
+    @Test
+    void slowestWithNegativeLimitIsEmpty() {
+        traceCollector.collect(new Trace("slow", "slow", 0, 1000, null, List.of()));
+
+        assertTrue(new SlowTracesEndpoint(traceCollector).slowest(-1).isEmpty());
+    }
+}
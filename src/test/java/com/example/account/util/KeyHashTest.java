@@ -0,0 +1,14 @@
+package com.example.account.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeyHashTest {
+    @Test
+    void matchesFnv1aWithMurmur3Fmix64() {
+        assertEquals(-1166397803181037274L, KeyHash.hash64(""));
+        assertEquals(7616569557276373632L, KeyHash.hash64("1234567890"));
+        assertEquals(-78090635113821467L, KeyHash.hash64("ACLK : 1234567890"));
+    }
+}